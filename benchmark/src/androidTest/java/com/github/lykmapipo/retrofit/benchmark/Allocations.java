@@ -0,0 +1,103 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Allocation profiler for benchmarks.
+ * <p>
+ * The android benchmark runner only reports timings, so allocation counts
+ * and sizes are sampled from the runtime allocation counters around a fixed
+ * number of operations and reported per operation and per second.
+ *
+ * @author lally elias
+ */
+final class Allocations {
+    private static final String TAG = "RetrofitBenchmark";
+
+    private Allocations() {
+    }
+
+    /**
+     * Operation to profile
+     */
+    interface Op {
+        void run() throws Exception;
+    }
+
+    /**
+     * Allocation profile result
+     */
+    static final class Result {
+        final long count;
+        final long bytes;
+        final long nanos;
+        final int iterations;
+
+        Result(long count, long bytes, long nanos, int iterations) {
+            this.count = count;
+            this.bytes = bytes;
+            this.nanos = nanos;
+            this.iterations = iterations;
+        }
+
+        double countPerOp() {
+            return (double) count / iterations;
+        }
+
+        double bytesPerOp() {
+            return (double) bytes / iterations;
+        }
+
+        double bytesPerSecond() {
+            return nanos > 0 ? bytes * 1e9 / nanos : 0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%.1f allocs/op, %.1f B/op, %.1f MB/s",
+                    countPerOp(), bytesPerOp(), bytesPerSecond() / (1024 * 1024));
+        }
+    }
+
+    /**
+     * Profile allocations made by {@code op} on all threads and log the result.
+     *
+     * @param name       benchmark name to report
+     * @param iterations number of measured operations
+     * @param op         operation to profile
+     * @return allocation profile
+     */
+    @SuppressWarnings("deprecation")
+    static Result profile(String name, int iterations, Op op) throws Exception {
+        // warm up to keep class loading and caches out of the profile
+        for (int i = 0; i < Math.min(iterations, 100); i++) {
+            op.run();
+        }
+
+        Runtime.getRuntime().gc();
+        Debug.resetGlobalAllocCount();
+        Debug.resetGlobalAllocSize();
+        Debug.startAllocCounting();
+        long start = SystemClock.elapsedRealtimeNanos();
+        try {
+            for (int i = 0; i < iterations; i++) {
+                op.run();
+            }
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        long nanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        Result result = new Result(
+                Debug.getGlobalAllocCount(), Debug.getGlobalAllocSize(),
+                nanos, iterations
+        );
+        Log.i(TAG, name + ": " + result);
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Jackson converter over a binary data format (MessagePack, CBOR).
+ * <p>
+ * Retrofit's jackson converter decodes through {@code charStream()}, which
+ * corrupts binary payloads, so bytes are passed through untouched here.
+ *
+ * @author lally elias
+ */
+final class BinaryConverterFactory extends Converter.Factory {
+    private final ObjectMapper mapper;
+    private final MediaType mediaType;
+
+    BinaryConverterFactory(ObjectMapper mapper, String mediaType) {
+        this.mapper = mapper;
+        this.mediaType = MediaType.get(mediaType);
+    }
+
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(
+            Type type, Annotation[] annotations, Retrofit retrofit) {
+        JavaType javaType = mapper.getTypeFactory().constructType(type);
+        final ObjectReader reader = mapper.readerFor(javaType);
+        return new Converter<ResponseBody, Object>() {
+            @Override
+            public Object convert(ResponseBody value) throws IOException {
+                try {
+                    return reader.readValue(value.byteStream());
+                } finally {
+                    value.close();
+                }
+            }
+        };
+    }
+
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(
+            Type type, Annotation[] parameterAnnotations,
+            Annotation[] methodAnnotations, Retrofit retrofit) {
+        JavaType javaType = mapper.getTypeFactory().constructType(type);
+        final ObjectWriter writer = mapper.writerFor(javaType);
+        return new Converter<Object, RequestBody>() {
+            @Override
+            public RequestBody convert(Object value) throws IOException {
+                return RequestBody.create(writer.writeValueAsBytes(value), mediaType);
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.adapter.FutureCallAdapterFactory;
+import com.github.lykmapipo.retrofit.adapter.PublisherCallAdapterFactory;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.http.GET;
+
+/**
+ * Callback hop latency Benchmarks of the supported async call adapters against
+ * a local {@link MockWebServer}. {@code execute} is the no-hop baseline.
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class CallbackLatencyBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private MockWebServer mockWebServer;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        final String json = Fixtures.usersJson(1);
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse().setResponseCode(200).setBody(json);
+            }
+        });
+        mockWebServer.start();
+
+        HttpService.Builder<Api> builder =
+                HttpService.builder(Api.class, mockWebServer.url("/v1/").toString());
+        if (Build.VERSION.SDK_INT >= 24) {
+            builder.addCallAdapterFactory(FutureCallAdapterFactory.create());
+        }
+        client = builder
+                .addCallAdapterFactory(PublisherCallAdapterFactory.create())
+                .build();
+    }
+
+    @Test
+    public void execute() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            client.list().execute();
+        }
+    }
+
+    @Test
+    public void enqueue() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            client.list().enqueue(new Callback<List<User>>() {
+                @Override
+                public void onResponse(@NonNull Call<List<User>> call,
+                                       @NonNull Response<List<User>> response) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<List<User>> call, @NonNull Throwable t) {
+                    latch.countDown();
+                }
+            });
+            latch.await();
+        }
+    }
+
+    @Test
+    public void task() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Tasks.await(client.listViaTask());
+        }
+    }
+
+    @Test
+    public void future() throws Exception {
+        Assume.assumeTrue(Build.VERSION.SDK_INT >= 24);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            client.listViaFuture().get();
+        }
+    }
+
+    @Test
+    public void publisher() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            final CountDownLatch latch = new CountDownLatch(1);
+            client.listViaPublisher().subscribe(new Subscriber<List<User>>() {
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscription.request(1);
+                }
+
+                @Override
+                public void onNext(List<User> users) {
+                }
+
+                @Override
+                public void onError(Throwable error) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onComplete() {
+                    latch.countDown();
+                }
+            });
+            latch.await();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+
+    public interface Api {
+        @GET("users")
+        Call<List<User>> list();
+
+        @GET("users")
+        Task<List<User>> listViaTask();
+
+        @GET("users")
+        CompletableFuture<List<User>> listViaFuture();
+
+        @GET("users")
+        Publisher<List<User>> listViaPublisher();
+    }
+}
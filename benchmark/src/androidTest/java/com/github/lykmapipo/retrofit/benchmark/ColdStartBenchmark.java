@@ -0,0 +1,91 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.warmup.ServiceWarmer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.AUTH_TOKEN;
+
+/**
+ * First call latency Benchmarks of freshly created services, cold and warmed up
+ * with a {@link ServiceWarmer}. Service creation and warm up are not timed.
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class ColdStartBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private MockWebServer mockWebServer;
+    private String baseUrl;
+
+    @Before
+    public void setup() throws Exception {
+        final String list = Fixtures.usersJson(20);
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return new MockResponse().setResponseCode(200).setBody(list);
+            }
+        });
+        mockWebServer.start();
+        baseUrl = mockWebServer.url("/v1/").toString();
+    }
+
+    @Test
+    public void firstCallCold() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Fixtures.Api client = HttpService.builder(Fixtures.Api.class, baseUrl)
+                    .authToken(AUTH_TOKEN)
+                    .build();
+            state.resumeTiming();
+
+            client.list().execute().body();
+        }
+    }
+
+    @Test
+    public void firstCallWarm() throws Exception {
+        ServiceWarmer warmer = ServiceWarmer.create();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            Fixtures.Api client = HttpService.builder(Fixtures.Api.class, baseUrl)
+                    .authToken(AUTH_TOKEN)
+                    .warmUp(warmer)
+                    .build();
+            // the warmer runs in order, so this also waits for the warm up of build()
+            warmer.warmUp(Fixtures.Api.class, client).get(5, TimeUnit.SECONDS);
+            state.resumeTiming();
+
+            client.list().execute().body();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+}
@@ -0,0 +1,151 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.common.Common;
+import com.github.lykmapipo.retrofit.converter.PooledGsonConverterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.BASE_URL;
+
+/**
+ * Gson request and response conversion Benchmarks, comparing retrofit's gson
+ * converter with the pooled converter used by {@code HttpService}
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class ConverterBenchmark {
+    private static final MediaType JSON = MediaType.get("application/json; charset=UTF-8");
+    private static final Type USERS = new TypeToken<List<User>>() {
+    }.getType();
+    private static final int SMALL = 1;
+    private static final int LARGE = 100;
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Converter<ResponseBody, List<User>> responseConverter;
+    private Converter<List<User>, RequestBody> requestConverter;
+    private Converter<ResponseBody, List<User>> pooledResponseConverter;
+    private Converter<List<User>, RequestBody> pooledRequestConverter;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        GsonConverterFactory factory = GsonConverterFactory.create(Common.gson());
+        PooledGsonConverterFactory pooled = PooledGsonConverterFactory.create(Common.gson());
+        Retrofit retrofit = new Retrofit.Builder().baseUrl(BASE_URL).build();
+        Annotation[] annotations = new Annotation[0];
+        responseConverter = (Converter<ResponseBody, List<User>>)
+                factory.responseBodyConverter(USERS, annotations, retrofit);
+        requestConverter = (Converter<List<User>, RequestBody>)
+                factory.requestBodyConverter(USERS, annotations, annotations, retrofit);
+        pooledResponseConverter = (Converter<ResponseBody, List<User>>)
+                pooled.responseBodyConverter(USERS, annotations, retrofit);
+        pooledRequestConverter = (Converter<List<User>, RequestBody>)
+                pooled.requestBodyConverter(USERS, annotations, annotations, retrofit);
+    }
+
+    @Test
+    public void decodeSmall() throws Exception {
+        decode(responseConverter, SMALL);
+    }
+
+    @Test
+    public void decodeLarge() throws Exception {
+        decode(responseConverter, LARGE);
+    }
+
+    @Test
+    public void encodeSmall() throws Exception {
+        encode(requestConverter, SMALL);
+    }
+
+    @Test
+    public void encodeLarge() throws Exception {
+        encode(requestConverter, LARGE);
+    }
+
+    @Test
+    public void pooledDecodeSmall() throws Exception {
+        decode(pooledResponseConverter, SMALL);
+    }
+
+    @Test
+    public void pooledDecodeLarge() throws Exception {
+        decode(pooledResponseConverter, LARGE);
+    }
+
+    @Test
+    public void pooledEncodeSmall() throws Exception {
+        encode(pooledRequestConverter, SMALL);
+    }
+
+    @Test
+    public void pooledEncodeLarge() throws Exception {
+        encode(pooledRequestConverter, LARGE);
+    }
+
+    @Test
+    public void conversionAllocations() throws Exception {
+        profile("gson ", responseConverter, requestConverter);
+        profile("pooled ", pooledResponseConverter, pooledRequestConverter);
+    }
+
+    private void profile(
+            String prefix,
+            final Converter<ResponseBody, List<User>> responseConverter,
+            final Converter<List<User>, RequestBody> requestConverter
+    ) throws Exception {
+        final byte[] json = Fixtures.usersJson(LARGE).getBytes("UTF-8");
+        final List<User> users = Fixtures.users(LARGE);
+        Allocations.profile(prefix + "decodeLarge", 1000, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                responseConverter.convert(ResponseBody.create(json, JSON));
+            }
+        });
+        Allocations.profile(prefix + "encodeLarge", 1000, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                requestConverter.convert(users).writeTo(new Buffer());
+            }
+        });
+    }
+
+    private void decode(Converter<ResponseBody, List<User>> converter, int count) throws Exception {
+        byte[] json = Fixtures.usersJson(count).getBytes("UTF-8");
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            converter.convert(ResponseBody.create(json, JSON));
+        }
+    }
+
+    private void encode(Converter<List<User>, RequestBody> converter, int count) throws Exception {
+        List<User> users = Fixtures.users(count);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            converter.convert(users).writeTo(new Buffer());
+        }
+    }
+}
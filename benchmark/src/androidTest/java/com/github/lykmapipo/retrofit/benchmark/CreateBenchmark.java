@@ -0,0 +1,51 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.HttpService;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.AUTH_TOKEN;
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.BASE_URL;
+
+/**
+ * {@link HttpService#create(Class, String)} Benchmarks
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class CreateBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    public void create() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            HttpService.create(Fixtures.Api.class, BASE_URL);
+        }
+    }
+
+    @Test
+    public void createWithAuthToken() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            HttpService.create(Fixtures.Api.class, BASE_URL, AUTH_TOKEN);
+        }
+    }
+
+    @Test
+    public void createAllocations() throws Exception {
+        Allocations.profile("create", 1000, new Allocations.Op() {
+            @Override
+            public void run() {
+                HttpService.create(Fixtures.Api.class, BASE_URL, AUTH_TOKEN);
+            }
+        });
+    }
+}
@@ -0,0 +1,107 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+/**
+ * In-memory {@link Interceptor.Chain} that runs a list of interceptors and
+ * terminates with a canned response, so interceptor overhead can be measured
+ * without any io.
+ *
+ * @author lally elias
+ */
+final class FakeChain implements Interceptor.Chain {
+    private static final OkHttpClient client = new OkHttpClient();
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final List<Interceptor> interceptors;
+    private final int index;
+    private final Request request;
+
+    FakeChain(List<Interceptor> interceptors, int index, Request request) {
+        this.interceptors = interceptors;
+        this.index = index;
+        this.request = request;
+    }
+
+    @NonNull
+    @Override
+    public Request request() {
+        return request;
+    }
+
+    @NonNull
+    @Override
+    public Response proceed(@NonNull Request request) throws IOException {
+        if (index < interceptors.size()) {
+            FakeChain next = new FakeChain(interceptors, index + 1, request);
+            return interceptors.get(index).intercept(next);
+        }
+        return new Response.Builder()
+                .request(request)
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message("OK")
+                .body(ResponseBody.create("[]", JSON))
+                .build();
+    }
+
+    @Nullable
+    @Override
+    public Connection connection() {
+        return null;
+    }
+
+    @NonNull
+    @Override
+    public Call call() {
+        return client.newCall(request);
+    }
+
+    @Override
+    public int connectTimeoutMillis() {
+        return 10000;
+    }
+
+    @NonNull
+    @Override
+    public Interceptor.Chain withConnectTimeout(int timeout, @NonNull TimeUnit unit) {
+        return this;
+    }
+
+    @Override
+    public int readTimeoutMillis() {
+        return 10000;
+    }
+
+    @NonNull
+    @Override
+    public Interceptor.Chain withReadTimeout(int timeout, @NonNull TimeUnit unit) {
+        return this;
+    }
+
+    @Override
+    public int writeTimeoutMillis() {
+        return 10000;
+    }
+
+    @NonNull
+    @Override
+    public Interceptor.Chain withWriteTimeout(int timeout, @NonNull TimeUnit unit) {
+        return this;
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import com.github.lykmapipo.common.Common;
+import com.google.android.gms.tasks.Task;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MultipartBody;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+/**
+ * Shared benchmark fixtures
+ *
+ * @author lally elias
+ */
+final class Fixtures {
+    static final String BASE_URL = "https://api.example.com/v1/";
+    static final String AUTH_TOKEN = "i3Vixpfr51EVHWHP";
+
+    private Fixtures() {
+    }
+
+    /**
+     * Build a list of {@code count} users.
+     */
+    static List<User> users(int count) {
+        List<User> users = new ArrayList<User>(count);
+        for (int i = 0; i < count; i++) {
+            users.add(new User("John Doe " + i, "john" + i + "@example.com", 20 + (i % 50), i % 2 == 0));
+        }
+        return users;
+    }
+
+    /**
+     * Build a json array of {@code count} users using the shared gson instance.
+     */
+    static String usersJson(int count) {
+        return Common.gson().toJson(users(count));
+    }
+
+    /**
+     * Build typical multipart form params, with {@code files} temporary files
+     * of {@code fileSize} bytes each.
+     */
+    static Map<String, Object> formParams(int files, int fileSize) throws IOException {
+        Map<String, Object> params = new HashMap<String, Object>();
+        params.put("name", "John Doe");
+        params.put("email", "john@example.com");
+        params.put("age", 27);
+        params.put("active", true);
+        for (int i = 0; i < files; i++) {
+            params.put("file" + i, tempFile(".txt", fileSize));
+        }
+        return params;
+    }
+
+    /**
+     * Create a temporary file of {@code size} bytes.
+     */
+    static File tempFile(String suffix, int size) throws IOException {
+        File file = File.createTempFile("benchmark_", suffix);
+        file.deleteOnExit();
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(new byte[size]);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    public interface Api {
+        @GET("users")
+        Call<List<User>> list();
+
+        @GET("users")
+        Task<List<User>> listViaTask();
+
+        @Multipart
+        @POST("users")
+        Call<User> create(@Part List<MultipartBody.Part> params);
+    }
+}
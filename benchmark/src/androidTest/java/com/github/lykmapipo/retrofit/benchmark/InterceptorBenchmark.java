@@ -0,0 +1,91 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.interceptor.AuthInterceptor;
+import com.github.lykmapipo.retrofit.interceptor.HeadersInterceptor;
+import com.github.lykmapipo.retrofit.provider.AuthProvider;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.AUTH_TOKEN;
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.BASE_URL;
+
+/**
+ * {@link HeadersInterceptor} and {@link AuthInterceptor} chain Benchmarks
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class InterceptorBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Request request;
+    private List<Interceptor> none;
+    private List<Interceptor> interceptors;
+
+    @Before
+    public void setup() {
+        request = new Request.Builder().url(BASE_URL + "users").build();
+
+        Map<String, String> headers = new HashMap<String, String>();
+        headers.put("X-Client", "benchmark");
+
+        none = Collections.emptyList();
+        interceptors = new ArrayList<Interceptor>();
+        interceptors.add(new HeadersInterceptor(headers));
+        interceptors.add(new AuthInterceptor(new AuthProvider() {
+            @Override
+            public String getToken() {
+                return AUTH_TOKEN;
+            }
+        }));
+    }
+
+    @Test
+    public void baseline() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new FakeChain(none, 0, request).proceed(request).close();
+        }
+    }
+
+    @Test
+    public void headersAndAuth() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new FakeChain(interceptors, 0, request).proceed(request).close();
+        }
+    }
+
+    @Test
+    public void headersAndAuthAllocations() throws Exception {
+        Allocations.profile("baseline", 10000, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                new FakeChain(none, 0, request).proceed(request).close();
+            }
+        });
+        Allocations.profile("headersAndAuth", 10000, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                new FakeChain(interceptors, 0, request).proceed(request).close();
+            }
+        });
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.logging.TrafficLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.BASE_URL;
+
+/**
+ * {@link TrafficLogger} interceptor overhead Benchmarks on the calling thread,
+ * logging every call and a 10% sample
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class LoggingBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Request request;
+    private File file;
+    private TrafficLogger all;
+    private TrafficLogger sampled;
+
+    @Before
+    public void setup() throws Exception {
+        request = new Request.Builder()
+                .url(BASE_URL + "users")
+                .header("Authorization", "Bearer " + Fixtures.AUTH_TOKEN)
+                .build();
+        file = File.createTempFile("benchmark_", ".log");
+        all = TrafficLogger.builder(file).build();
+        sampled = TrafficLogger.builder(file).sampleRate(0.1).build();
+    }
+
+    @Test
+    public void logAll() throws Exception {
+        run(all);
+    }
+
+    @Test
+    public void logSampled() throws Exception {
+        run(sampled);
+    }
+
+    @Test
+    public void logAllocations() throws Exception {
+        final List<Interceptor> interceptors = Collections.singletonList(all.interceptor());
+        Allocations.profile("logAll", 10000, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                new FakeChain(interceptors, 0, request).proceed(request).close();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        all.close();
+        sampled.close();
+        file.delete();
+    }
+
+    private void run(TrafficLogger logger) throws Exception {
+        List<Interceptor> interceptors = Collections.singletonList(logger.interceptor());
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            new FakeChain(interceptors, 0, request).proceed(request).close();
+        }
+    }
+}
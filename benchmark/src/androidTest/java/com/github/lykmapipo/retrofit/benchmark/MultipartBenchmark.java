@@ -0,0 +1,170 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.multipart.PartEncoders;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okhttp3.MultipartBody;
+import okio.BufferedSink;
+import okio.Okio;
+
+/**
+ * {@link HttpService#createParts(Map)} and {@link HttpService#createFileParts(Map)}
+ * Benchmarks, single threaded and under multi-threaded contention.
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class MultipartBenchmark {
+    private static final int THREADS = 4;
+    private static final int PARTS_PER_THREAD = 50;
+    private static final PartEncoders FORM_ENCODERS = PartEncoders.builder().json(List.class).build();
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Map<String, Object> params;
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws Exception {
+        params = Fixtures.formParams(2, 1024);
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @Test
+    public void createParts() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            HttpService.createParts(params);
+        }
+    }
+
+    @Test
+    public void createFileParts() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            HttpService.createFileParts(params);
+        }
+    }
+
+    @Test
+    public void createPartsContended() throws Exception {
+        List<Callable<Void>> tasks = contendedTasks(false);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            runAll(tasks);
+        }
+    }
+
+    @Test
+    public void createFilePartsContended() throws Exception {
+        List<Callable<Void>> tasks = contendedTasks(true);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            runAll(tasks);
+        }
+    }
+
+    @Test
+    public void createPartsContendedAllocations() throws Exception {
+        final List<Callable<Void>> tasks = contendedTasks(false);
+        Allocations.profile("createPartsContended", 100, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                runAll(tasks);
+            }
+        });
+    }
+
+    @Test
+    public void writeLargeTypedForm() throws Exception {
+        Map<String, Object> form = largeForm();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            writeForm(form);
+        }
+    }
+
+    @Test
+    public void writeLargeTypedFormAllocations() throws Exception {
+        final Map<String, Object> form = largeForm();
+        Allocations.profile("writeLargeTypedForm", 100, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                writeForm(form);
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Form with a 1MiB byte array and 1000 users, encoded by typed part encoders
+     * while written instead of being stringified up front.
+     */
+    private static Map<String, Object> largeForm() {
+        Map<String, Object> form = new HashMap<String, Object>();
+        form.put("name", "John Doe");
+        form.put("blob", new byte[1024 * 1024]);
+        form.put("users", Fixtures.users(1000));
+        return form;
+    }
+
+    private static void writeForm(Map<String, Object> form) throws Exception {
+        MultipartBody.Builder builder = new MultipartBody.Builder().setType(MultipartBody.FORM);
+        for (MultipartBody.Part part : HttpService.createParts(form, FORM_ENCODERS)) {
+            builder.addPart(part);
+        }
+        BufferedSink sink = Okio.buffer(Okio.blackhole());
+        builder.build().writeTo(sink);
+        sink.close();
+    }
+
+    private List<Callable<Void>> contendedTasks(final boolean files) {
+        List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() {
+                    for (int j = 0; j < PARTS_PER_THREAD; j++) {
+                        if (files) {
+                            HttpService.createFileParts(params);
+                        } else {
+                            HttpService.createParts(params);
+                        }
+                    }
+                    return null;
+                }
+            });
+        }
+        return tasks;
+    }
+
+    private void runAll(List<Callable<Void>> tasks) throws Exception {
+        for (Future<Void> future : executor.invokeAll(tasks)) {
+            future.get();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import android.os.Bundle;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.logging.TrafficLogger;
+import com.github.lykmapipo.retrofit.record.RecordedExchange;
+import com.github.lykmapipo.retrofit.record.TrafficRecorder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.List;
+
+import okhttp3.MultipartBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.AUTH_TOKEN;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Load replay of recorded traffic through {@link HttpService} clients.
+ * <p>
+ * Replays the recording passed as instrumentation argument {@code replayRecording}
+ * (a file written by {@link TrafficRecorder}), or a session recorded at setup,
+ * and logs throughput, latency percentiles and allocation rates per stack.
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class ReplayBenchmark {
+    private static final int SESSION_CALLS = 200;
+    private static final int ITERATIONS = 5;
+
+    private List<RecordedExchange> recording;
+    private ReplayHarness harness;
+    private File file;
+
+    @Before
+    public void setup() throws Exception {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String path = arguments != null ? arguments.getString("replayRecording") : null;
+        recording = TrafficRecorder.read(path != null ? new File(path) : recordSession());
+    }
+
+    @Test
+    public void replayUnthrottled() throws Exception {
+        replay("replayUnthrottled", 0, 4, null);
+    }
+
+    @Test
+    public void replayRecordedPace() throws Exception {
+        replay("replayRecordedPace", 1.0, 16, null);
+    }
+
+    @Test
+    public void replayUnthrottledWithLogging() throws Exception {
+        file = File.createTempFile("benchmark_", ".log");
+        TrafficLogger logger = TrafficLogger.builder(file).sampleRate(0.1).build();
+        try {
+            replay("replayUnthrottledWithLogging", 0, 4, logger);
+        } finally {
+            logger.close();
+        }
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (harness != null) {
+            harness.shutdown();
+        }
+        if (file != null) {
+            file.delete();
+        }
+    }
+
+    private void replay(
+            String name, double speed, int concurrency, @Nullable TrafficLogger logger
+    ) throws Exception {
+        harness = new ReplayHarness(recording, speed, concurrency, ITERATIONS, false);
+        String baseUrl = harness.start();
+        ReplayHarness.ReplayService service =
+                HttpService.builder(ReplayHarness.ReplayService.class, baseUrl)
+                        .authToken(AUTH_TOKEN)
+                        .logger(logger)
+                        .build();
+
+        ReplayHarness.Report report = harness.run(name, ReplayHarness.serviceTarget(service));
+        assertEquals("should replay without errors", 0, report.errors);
+    }
+
+    /**
+     * Record a session of list and multipart create calls against a local origin
+     */
+    private static File recordSession() throws Exception {
+        final String list = Fixtures.usersJson(20);
+        final String single = Fixtures.usersJson(1);
+        final String one = single.substring(1, single.length() - 1);
+        MockWebServer origin = new MockWebServer();
+        origin.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                String body = "POST".equals(request.getMethod()) ? one : list;
+                return new MockResponse().setResponseCode(200).setBody(body);
+            }
+        });
+        origin.start();
+
+        File session = File.createTempFile("benchmark_", ".rec");
+        session.deleteOnExit();
+        TrafficRecorder recorder = new TrafficRecorder(session);
+        try {
+            Fixtures.Api client = HttpService.builder(Fixtures.Api.class, origin.url("/v1/").toString())
+                    .authToken(AUTH_TOKEN)
+                    .recorder(recorder)
+                    .build();
+            List<MultipartBody.Part> parts = HttpService.createParts(Fixtures.formParams(1, 4096));
+            for (int i = 0; i < SESSION_CALLS; i++) {
+                if (i % 5 == 4) {
+                    client.create(parts).execute().body();
+                } else {
+                    client.list().execute().body();
+                }
+            }
+        } finally {
+            recorder.close();
+            origin.shutdown();
+        }
+        return session;
+    }
+}
@@ -0,0 +1,362 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import android.os.Debug;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.record.RecordedExchange;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.Body;
+import retrofit2.http.DELETE;
+import retrofit2.http.GET;
+import retrofit2.http.HEAD;
+import retrofit2.http.HeaderMap;
+import retrofit2.http.PATCH;
+import retrofit2.http.POST;
+import retrofit2.http.PUT;
+import retrofit2.http.Url;
+
+/**
+ * Replays recorded traffic, see {@link com.github.lykmapipo.retrofit.record.TrafficRecorder},
+ * through a client stack against a local {@link MockWebServer} serving the
+ * recorded responses.
+ * <p>
+ * Requests are sent at their recorded offsets scaled by a speed factor, or as
+ * fast as possible, by a fixed number of concurrent workers. The report has
+ * throughput, latency percentiles and allocation rates of the whole run.
+ *
+ * @author lally elias
+ */
+final class ReplayHarness {
+    private static final String TAG = "RetrofitBenchmark";
+
+    private final List<RecordedExchange> exchanges;
+    private final double speed;
+    private final int concurrency;
+    private final int iterations;
+    private final boolean serverLatency;
+    private final Map<String, List<RecordedExchange>> responses =
+            new HashMap<String, List<RecordedExchange>>();
+    private final Map<String, AtomicInteger> cursors = new ConcurrentHashMap<String, AtomicInteger>();
+    private final MockWebServer server = new MockWebServer();
+
+    /**
+     * @param exchanges     recorded exchanges to replay
+     * @param speed         replay speed relative to the recording, or zero for as fast as possible
+     * @param concurrency   number of concurrent workers
+     * @param iterations    number of times the recording is replayed
+     * @param serverLatency whether the server delays responses by their recorded duration
+     */
+    ReplayHarness(
+            List<RecordedExchange> exchanges, double speed, int concurrency,
+            int iterations, boolean serverLatency
+    ) {
+        this.exchanges = exchanges;
+        this.speed = speed;
+        this.concurrency = concurrency;
+        this.iterations = iterations;
+        this.serverLatency = serverLatency;
+        for (RecordedExchange exchange : exchanges) {
+            String key = key(exchange.getMethod(), pathOf(exchange.getUrl()));
+            List<RecordedExchange> recorded = responses.get(key);
+            if (recorded == null) {
+                recorded = new ArrayList<RecordedExchange>();
+                responses.put(key, recorded);
+                cursors.put(key, new AtomicInteger());
+            }
+            recorded.add(exchange);
+        }
+    }
+
+    /**
+     * Client side of a replay, sending one recorded request to the local server
+     * and consuming its response
+     */
+    interface Target {
+        void execute(@NonNull String url, @NonNull RecordedExchange exchange) throws Exception;
+    }
+
+    /**
+     * Generic service replaying any recorded request through a retrofit stack
+     */
+    interface ReplayService {
+        @GET
+        Call<ResponseBody> get(@Url String url, @HeaderMap Map<String, String> headers);
+
+        @HEAD
+        Call<Void> head(@Url String url, @HeaderMap Map<String, String> headers);
+
+        @DELETE
+        Call<ResponseBody> delete(@Url String url, @HeaderMap Map<String, String> headers);
+
+        @POST
+        Call<ResponseBody> post(
+                @Url String url, @HeaderMap Map<String, String> headers, @Body RequestBody body);
+
+        @PUT
+        Call<ResponseBody> put(
+                @Url String url, @HeaderMap Map<String, String> headers, @Body RequestBody body);
+
+        @PATCH
+        Call<ResponseBody> patch(
+                @Url String url, @HeaderMap Map<String, String> headers, @Body RequestBody body);
+    }
+
+    /**
+     * Target replaying through a service, e.g. one built by
+     * {@link com.github.lykmapipo.retrofit.HttpService}, so its interceptors,
+     * converters and connection settings are exercised
+     */
+    static Target serviceTarget(final ReplayService service) {
+        return new Target() {
+            @Override
+            public void execute(@NonNull String url, @NonNull RecordedExchange exchange) throws Exception {
+                Map<String, String> headers = replayHeaders(exchange.getRequestHeaders());
+                String method = exchange.getMethod();
+                Call<?> call;
+                if ("GET".equals(method)) {
+                    call = service.get(url, headers);
+                } else if ("HEAD".equals(method)) {
+                    call = service.head(url, headers);
+                } else if ("DELETE".equals(method)) {
+                    call = service.delete(url, headers);
+                } else {
+                    RequestBody body = RequestBody.create(
+                            exchange.getRequestBody() != null ? exchange.getRequestBody() : new byte[0],
+                            exchange.getRequestContentType() != null
+                                    ? MediaType.parse(exchange.getRequestContentType()) : null);
+                    if ("PUT".equals(method)) {
+                        call = service.put(url, headers, body);
+                    } else if ("PATCH".equals(method)) {
+                        call = service.patch(url, headers, body);
+                    } else {
+                        call = service.post(url, headers, body);
+                    }
+                }
+                Response<?> response = call.execute();
+                Object body = response.body();
+                if (body instanceof ResponseBody) {
+                    ((ResponseBody) body).bytes();
+                }
+                ResponseBody error = response.errorBody();
+                if (error != null) {
+                    error.close();
+                }
+            }
+        };
+    }
+
+    /**
+     * Start local server serving recorded responses
+     *
+     * @return base url of the local server
+     */
+    String start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                String key = key(request.getMethod(), request.getPath());
+                List<RecordedExchange> recorded = responses.get(key);
+                if (recorded == null) {
+                    return new MockResponse().setResponseCode(404);
+                }
+                int next = cursors.get(key).getAndIncrement();
+                return response(recorded.get(Math.abs(next % recorded.size())));
+            }
+        });
+        server.start();
+        return server.url("/").toString();
+    }
+
+    /**
+     * Replay the recording through a target and report
+     *
+     * @param name   report name to log
+     * @param target client side of the replay
+     * @return replay report
+     */
+    @SuppressWarnings("deprecation")
+    Report run(String name, final Target target) throws Exception {
+        final String baseUrl = server.url("/").toString();
+        final int total = exchanges.size() * iterations;
+        final long span = exchanges.isEmpty() ? 0L
+                : exchanges.get(exchanges.size() - 1).getOffset(TimeUnit.NANOSECONDS) + 1;
+        final long[] latencies = new long[total];
+        final AtomicInteger cursor = new AtomicInteger();
+        final AtomicLong errors = new AtomicLong();
+        final ArrayBlockingQueue<Throwable> failures = new ArrayBlockingQueue<Throwable>(1);
+
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        Runtime.getRuntime().gc();
+        Debug.resetGlobalAllocCount();
+        Debug.resetGlobalAllocSize();
+        Debug.startAllocCounting();
+        final long start = SystemClock.elapsedRealtimeNanos();
+        try {
+            for (int w = 0; w < concurrency; w++) {
+                workers.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        int i;
+                        while ((i = cursor.getAndIncrement()) < total) {
+                            RecordedExchange exchange = exchanges.get(i % exchanges.size());
+                            if (speed > 0) {
+                                long offset = exchange.getOffset(TimeUnit.NANOSECONDS) + (i / exchanges.size()) * span;
+                                long wait = start + (long) (offset / speed) - SystemClock.elapsedRealtimeNanos();
+                                if (wait > 0) {
+                                    SystemClock.sleep(TimeUnit.NANOSECONDS.toMillis(wait));
+                                }
+                            }
+                            String url = baseUrl + pathOf(exchange.getUrl()).substring(1);
+                            long sent = SystemClock.elapsedRealtimeNanos();
+                            try {
+                                target.execute(url, exchange);
+                            } catch (Throwable t) {
+                                errors.incrementAndGet();
+                                failures.offer(t);
+                            }
+                            latencies[i] = SystemClock.elapsedRealtimeNanos() - sent;
+                        }
+                    }
+                });
+            }
+            workers.shutdown();
+            workers.awaitTermination(10, TimeUnit.MINUTES);
+        } finally {
+            Debug.stopAllocCounting();
+        }
+        long nanos = SystemClock.elapsedRealtimeNanos() - start;
+
+        Allocations.Result allocations = new Allocations.Result(
+                Debug.getGlobalAllocCount(), Debug.getGlobalAllocSize(), nanos, total);
+        Report report = new Report(total, errors.get(), nanos, latencies, allocations);
+        Log.i(TAG, name + ": " + report);
+        Throwable failure = failures.poll();
+        if (failure != null) {
+            Log.w(TAG, name + ": first failure", failure);
+        }
+        return report;
+    }
+
+    void shutdown() throws IOException {
+        server.shutdown();
+    }
+
+    private MockResponse response(RecordedExchange exchange) {
+        MockResponse response = new MockResponse().setResponseCode(exchange.getCode());
+        Headers headers = exchange.getResponseHeaders();
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            String name = headers.name(i);
+            if (!"Content-Length".equalsIgnoreCase(name)
+                    && !"Transfer-Encoding".equalsIgnoreCase(name)
+                    && !"Connection".equalsIgnoreCase(name)) {
+                response.addHeader(name, headers.value(i));
+            }
+        }
+        byte[] body = exchange.getResponseBody();
+        response.setBody(new Buffer().write(body != null ? body : new byte[0]));
+        if (serverLatency) {
+            response.setHeadersDelay(exchange.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+        return response;
+    }
+
+    private static Map<String, String> replayHeaders(Headers recorded) {
+        // the client stack sets its own credentials, framing and body type
+        Map<String, String> headers = new HashMap<String, String>();
+        for (int i = 0, size = recorded.size(); i < size; i++) {
+            String name = recorded.name(i);
+            if (!"Authorization".equalsIgnoreCase(name)
+                    && !"Content-Length".equalsIgnoreCase(name)
+                    && !"Content-Type".equalsIgnoreCase(name)
+                    && !"Host".equalsIgnoreCase(name)) {
+                headers.put(name, recorded.value(i));
+            }
+        }
+        return headers;
+    }
+
+    private static String pathOf(String url) {
+        HttpUrl parsed = HttpUrl.get(url);
+        String query = parsed.encodedQuery();
+        return parsed.encodedPath() + (query != null ? "?" + query : "");
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+
+    /**
+     * Replay result
+     */
+    static final class Report {
+        final int requests;
+        final long errors;
+        final long nanos;
+        final long[] latencies;
+        final Allocations.Result allocations;
+
+        Report(int requests, long errors, long nanos, long[] latencies, Allocations.Result allocations) {
+            this.requests = requests;
+            this.errors = errors;
+            this.nanos = nanos;
+            this.latencies = latencies.clone();
+            Arrays.sort(this.latencies);
+            this.allocations = allocations;
+        }
+
+        double throughput() {
+            return nanos > 0 ? requests * 1e9 / nanos : 0;
+        }
+
+        /**
+         * Latency at a percentile, in microseconds
+         */
+        long percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100.0 * latencies.length) - 1;
+            return TimeUnit.NANOSECONDS.toMicros(latencies[Math.max(0, Math.min(index, latencies.length - 1))]);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.US,
+                    "%d requests, %d errors, %.1f req/s, p50 %d us, p90 %d us, p99 %d us, max %d us, %s",
+                    requests, errors, throughput(),
+                    percentile(50), percentile(90), percentile(99), percentile(100),
+                    allocations);
+        }
+    }
+}
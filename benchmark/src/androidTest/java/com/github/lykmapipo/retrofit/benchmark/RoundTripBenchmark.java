@@ -0,0 +1,91 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import androidx.annotation.NonNull;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.github.lykmapipo.retrofit.HttpService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import okhttp3.MultipartBody;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.AUTH_TOKEN;
+
+/**
+ * End to end round trip Benchmarks against a local {@link MockWebServer}
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class RoundTripBenchmark {
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private MockWebServer mockWebServer;
+    private Fixtures.Api client;
+
+    @Before
+    public void setup() throws Exception {
+        final String list = Fixtures.usersJson(20);
+        final String single = Fixtures.usersJson(1);
+        final String one = single.substring(1, single.length() - 1);
+
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                String body = "POST".equals(request.getMethod()) ? one : list;
+                return new MockResponse().setResponseCode(200).setBody(body);
+            }
+        });
+        mockWebServer.start();
+
+        String baseUrl = mockWebServer.url("/v1/").toString();
+        client = HttpService.create(Fixtures.Api.class, baseUrl, AUTH_TOKEN);
+    }
+
+    @Test
+    public void list() throws Exception {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            client.list().execute().body();
+        }
+    }
+
+    @Test
+    public void multipart() throws Exception {
+        List<MultipartBody.Part> parts = HttpService.createParts(Fixtures.formParams(1, 4096));
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            client.create(parts).execute().body();
+        }
+    }
+
+    @Test
+    public void listAllocations() throws Exception {
+        Allocations.profile("roundTripList", 200, new Allocations.Op() {
+            @Override
+            public void run() throws Exception {
+                client.list().execute().body();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+    }
+}
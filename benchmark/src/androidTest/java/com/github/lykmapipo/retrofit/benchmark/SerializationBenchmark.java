@@ -0,0 +1,171 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import android.util.Log;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.github.lykmapipo.common.Common;
+import com.github.lykmapipo.retrofit.converter.NegotiatingConverterFactory;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.msgpack.jackson.dataformat.MessagePackFactory;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static com.github.lykmapipo.retrofit.benchmark.Fixtures.BASE_URL;
+
+/**
+ * Payload size and conversion throughput of json, MessagePack and CBOR through
+ * the negotiating converter factory
+ *
+ * @author lally elias
+ */
+@RunWith(AndroidJUnit4.class)
+public class SerializationBenchmark {
+    private static final String TAG = "RetrofitBenchmark";
+    private static final Type USERS = new TypeToken<List<User>>() {
+    }.getType();
+    private static final int LARGE = 100;
+    private static final String[] FORMATS = {
+            NegotiatingConverterFactory.JSON,
+            NegotiatingConverterFactory.MSGPACK,
+            NegotiatingConverterFactory.CBOR
+    };
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private Converter<ResponseBody, List<User>> responseConverter;
+    private final Converter<List<User>, RequestBody>[] requestConverters = newRequestConverters();
+    private final byte[][] payloads = new byte[FORMATS.length][];
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() throws Exception {
+        Retrofit retrofit = new Retrofit.Builder().baseUrl(BASE_URL).build();
+        Annotation[] annotations = new Annotation[0];
+        Converter.Factory[] factories = {
+                GsonConverterFactory.create(Common.gson()),
+                new BinaryConverterFactory(
+                        mapper(new ObjectMapper(new MessagePackFactory())), FORMATS[1]),
+                new BinaryConverterFactory(
+                        mapper(new ObjectMapper(new CBORFactory())), FORMATS[2])
+        };
+
+        NegotiatingConverterFactory.Builder builder = NegotiatingConverterFactory.builder();
+        for (int i = 0; i < FORMATS.length; i++) {
+            builder.add(FORMATS[i], factories[i]);
+        }
+        NegotiatingConverterFactory negotiation = builder.build();
+        responseConverter = (Converter<ResponseBody, List<User>>)
+                negotiation.responseBodyConverter(USERS, annotations, retrofit);
+
+        List<User> users = Fixtures.users(LARGE);
+        for (int i = 0; i < FORMATS.length; i++) {
+            requestConverters[i] = (Converter<List<User>, RequestBody>)
+                    factories[i].requestBodyConverter(USERS, annotations, annotations, retrofit);
+            Buffer buffer = new Buffer();
+            requestConverters[i].convert(users).writeTo(buffer);
+            payloads[i] = buffer.readByteArray();
+        }
+    }
+
+    @Test
+    public void payloadSizes() {
+        for (int i = 0; i < FORMATS.length; i++) {
+            Log.i(TAG, FORMATS[i] + " payload of " + LARGE + " users: " + payloads[i].length + " bytes");
+        }
+    }
+
+    @Test
+    public void decodeJson() throws Exception {
+        decode(0);
+    }
+
+    @Test
+    public void decodeMsgpack() throws Exception {
+        decode(1);
+    }
+
+    @Test
+    public void decodeCbor() throws Exception {
+        decode(2);
+    }
+
+    @Test
+    public void encodeJson() throws Exception {
+        encode(0);
+    }
+
+    @Test
+    public void encodeMsgpack() throws Exception {
+        encode(1);
+    }
+
+    @Test
+    public void encodeCbor() throws Exception {
+        encode(2);
+    }
+
+    @Test
+    public void serializationAllocations() throws Exception {
+        for (int i = 0; i < FORMATS.length; i++) {
+            final byte[] payload = payloads[i];
+            final MediaType mediaType = MediaType.get(FORMATS[i]);
+            Allocations.profile("decode " + FORMATS[i], 1000, new Allocations.Op() {
+                @Override
+                public void run() throws Exception {
+                    responseConverter.convert(ResponseBody.create(payload, mediaType));
+                }
+            });
+        }
+    }
+
+    private void decode(int format) throws Exception {
+        byte[] payload = payloads[format];
+        MediaType mediaType = MediaType.get(FORMATS[format]);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            responseConverter.convert(ResponseBody.create(payload, mediaType));
+        }
+    }
+
+    private void encode(int format) throws Exception {
+        List<User> users = Fixtures.users(LARGE);
+        Converter<List<User>, RequestBody> converter = requestConverters[format];
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            converter.convert(users).writeTo(new Buffer());
+        }
+    }
+
+    private static ObjectMapper mapper(ObjectMapper mapper) {
+        // bind fields like gson does, User has no accessors
+        return mapper.setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Converter<List<User>, RequestBody>[] newRequestConverters() {
+        return new Converter[FORMATS.length];
+    }
+}
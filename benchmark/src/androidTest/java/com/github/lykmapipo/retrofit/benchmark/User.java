@@ -0,0 +1,33 @@
+package com.github.lykmapipo.retrofit.benchmark;
+
+import com.google.gson.annotations.Expose;
+
+public class User {
+    @Expose
+    String name;
+
+    @Expose
+    String email;
+
+    @Expose
+    int age;
+
+    @Expose
+    boolean active;
+
+    User() {
+        // for jackson based formats
+    }
+
+    public User(String name, String email, int age, boolean active) {
+        this.name = name;
+        this.email = email;
+        this.age = age;
+        this.active = active;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -4,26 +4,43 @@ import android.text.TextUtils;
 import android.webkit.MimeTypeMap;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.github.lykmapipo.common.Common;
 import com.github.lykmapipo.retrofit.adapter.TaskCallAdapterFactory;
+import com.github.lykmapipo.retrofit.converter.NegotiatingConverterFactory;
+import com.github.lykmapipo.retrofit.converter.PooledGsonConverterFactory;
+import com.github.lykmapipo.retrofit.failover.EndpointPool;
 import com.github.lykmapipo.retrofit.interceptor.AuthInterceptor;
 import com.github.lykmapipo.retrofit.interceptor.HeadersInterceptor;
+import com.github.lykmapipo.retrofit.limit.ResponseSizeInterceptor;
+import com.github.lykmapipo.retrofit.logging.TrafficLogger;
+import com.github.lykmapipo.retrofit.multipart.FileRequestBody;
+import com.github.lykmapipo.retrofit.multipart.OneShotPartsInterceptor;
+import com.github.lykmapipo.retrofit.multipart.PartEncoders;
+import com.github.lykmapipo.retrofit.offline.OfflineInterceptor;
+import com.github.lykmapipo.retrofit.offline.OfflineQueue;
+import com.github.lykmapipo.retrofit.priority.PriorityDispatcher;
 import com.github.lykmapipo.retrofit.provider.AuthProvider;
+import com.github.lykmapipo.retrofit.record.TrafficRecorder;
+import com.github.lykmapipo.retrofit.timeout.TimeoutInterceptor;
+import com.github.lykmapipo.retrofit.warmup.ServiceWarmer;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.MediaType;
 import okhttp3.MultipartBody;
 import okhttp3.OkHttpClient;
 import okhttp3.RequestBody;
+import retrofit2.CallAdapter;
+import retrofit2.Converter;
 import retrofit2.Retrofit;
-import retrofit2.converter.gson.GsonConverterFactory;
 
 /**
  * Sensible retrofit http service(s) creator
@@ -34,13 +51,13 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class HttpService {
     /**
-     * Valid instance of {@link GsonConverterFactory} for reuse across
+     * Valid instance of {@link PooledGsonConverterFactory} for reuse across
      * retrofit instances.
      *
      * @since 0.1.0
      */
-    private static final GsonConverterFactory gsonFactory =
-            GsonConverterFactory.create(Common.gson());
+    private static final PooledGsonConverterFactory gsonFactory =
+            PooledGsonConverterFactory.create(Common.gson());
 
     /**
      * Valid instance of {@link okhttp3.OkHttpClient} for reuse across
@@ -51,15 +68,13 @@ public class HttpService {
     private static final OkHttpClient httpClient = new OkHttpClient();
 
     /**
-     * Valid instance of {@link retrofit2.Retrofit.Builder} for reuse across
+     * Valid instance of {@link TaskCallAdapterFactory} for reuse across
      * retrofit instances.
      *
-     * @since 0.1.0
+     * @since 0.9.0
      */
-    private static final Retrofit.Builder retrofitBuilder =
-            new Retrofit.Builder()
-                    .addCallAdapterFactory(TaskCallAdapterFactory.create())
-                    .addConverterFactory(gsonFactory);
+    private static final TaskCallAdapterFactory taskFactory =
+            TaskCallAdapterFactory.create();
 
     /**
      * Create an implementation of the API endpoints defined by the {@code service} interface.
@@ -198,32 +213,49 @@ public class HttpService {
             final AuthProvider authProvider, final Map<String, String> headers,
             final Long connectTimeout, final Long readTimeout, final Long writeTimeout
     ) {
-        //TODO use Provider(auth, headers, baseUrl)
-
-        // build http client with defaults
-        OkHttpClient.Builder httpClientBuilder = httpClient.newBuilder();
-
-        // apply timeouts
-        httpClientBuilder.connectTimeout(connectTimeout != null ? connectTimeout : 10, TimeUnit.SECONDS);
-        httpClientBuilder.readTimeout(readTimeout != null ? readTimeout : 10, TimeUnit.SECONDS);
-        httpClientBuilder.writeTimeout(writeTimeout != null ? writeTimeout : 10, TimeUnit.SECONDS);
-
-        // add common interceptors
-        httpClientBuilder.addInterceptor(new HeadersInterceptor(headers));
-        httpClientBuilder.addInterceptor(new AuthInterceptor(authProvider));
-
-        // build client
-        OkHttpClient client = httpClientBuilder.build();
+        // create provided service and return
+        return builder(service, baseUrl)
+                .authProvider(authProvider)
+                .headers(headers)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .writeTimeout(writeTimeout)
+                .build();
+    }
 
-        // create retrofit client with defaults
-        Retrofit retrofit =
-                retrofitBuilder
-                        .client(client)
-                        .baseUrl(baseUrl)
-                        .build();
+    /**
+     * Create a {@link Builder} to customize creation of an implementation of the API
+     * endpoints defined by the {@code service} interface.
+     *
+     * @param service valid retrofit service definition
+     * @param baseUrl valid service base url
+     * @return service builder
+     * @since 0.9.0
+     */
+    @NonNull
+    public static <S> Builder<S> builder(
+            @NonNull final Class<S> service, @NonNull final String baseUrl
+    ) {
+        return new Builder<S>(service, baseUrl);
+    }
 
-        // create provided service and return
-        return retrofit.create(service);
+    /**
+     * Create a {@link Builder} of a service served by several equivalent base urls.
+     * Calls are routed to the healthiest endpoint and idempotent calls fail over
+     * to the others.
+     *
+     * @param service   valid retrofit service definition
+     * @param endpoints valid endpoint pool
+     * @return service builder
+     * @since 0.9.0
+     */
+    @NonNull
+    public static <S> Builder<S> builder(
+            @NonNull final Class<S> service, @NonNull final EndpointPool endpoints
+    ) {
+        Builder<S> builder = new Builder<S>(service, endpoints.primary());
+        builder.endpoints = endpoints;
+        return builder;
     }
 
     /**
@@ -234,6 +266,21 @@ public class HttpService {
      * @since 0.6.0
      */
     public static synchronized Map<String, RequestBody> createBodyParts(@NonNull Map<String, Object> params) {
+        return createBodyParts(params, PartEncoders.defaults());
+    }
+
+    /**
+     * Helper method to convert map of object values to map of request body,
+     * encoding values with given part encoders.
+     *
+     * @param params   {@link Map}
+     * @param encoders valid part encoders
+     * @return {@link retrofit2.http.PartMap}
+     * @since 0.9.0
+     */
+    public static synchronized Map<String, RequestBody> createBodyParts(
+            @NonNull Map<String, Object> params, @NonNull PartEncoders encoders
+    ) {
         // initialize part map for request body
         HashMap<String, RequestBody> bodyParts = new HashMap<String, RequestBody>();
         // collect request body parts
@@ -243,7 +290,7 @@ public class HttpService {
                 boolean isAllowedPart =
                         !TextUtils.isEmpty(key) && value != null && !(value instanceof File);
                 if (isAllowedPart) {
-                    RequestBody part = createBodyPart(String.valueOf(value));
+                    RequestBody part = encoders.encode(value);
                     bodyParts.put(key, part);
                 }
             }
@@ -290,6 +337,21 @@ public class HttpService {
      */
     public static synchronized List<MultipartBody.Part> createParts(
             @NonNull Map<String, Object> params
+    ) {
+        return createParts(params, PartEncoders.defaults());
+    }
+
+    /**
+     * Helper method to convert map of values to list of multipart parts,
+     * encoding non file values with given part encoders.
+     *
+     * @param params   {@link Map}
+     * @param encoders valid part encoders
+     * @return {@link okhttp3.MultipartBody.Part}
+     * @since 0.9.0
+     */
+    public static synchronized List<MultipartBody.Part> createParts(
+            @NonNull Map<String, Object> params, @NonNull PartEncoders encoders
     ) {
         // initialize multipart list
         List<MultipartBody.Part> parts = new ArrayList<MultipartBody.Part>();
@@ -299,7 +361,7 @@ public class HttpService {
                 boolean isAllowedPart =
                         !TextUtils.isEmpty(key) && value != null;
                 if (isAllowedPart) {
-                    MultipartBody.Part part = createPart(key, value);
+                    MultipartBody.Part part = createPart(key, value, encoders);
                     parts.add(part);
                 }
             }
@@ -333,11 +395,27 @@ public class HttpService {
      */
     public static synchronized MultipartBody.Part createPart(
             @NonNull String name, @NonNull Object value
+    ) {
+        return createPart(name, value, PartEncoders.defaults());
+    }
+
+    /**
+     * Create {@link okhttp3.MultipartBody.Part} for a given name and value,
+     * encoding non file values with given part encoders
+     *
+     * @param name     valid part name
+     * @param value    valid part value
+     * @param encoders valid part encoders
+     * @return {@link okhttp3.MultipartBody.Part}
+     * @since 0.9.0
+     */
+    public static synchronized MultipartBody.Part createPart(
+            @NonNull String name, @NonNull Object value, @NonNull PartEncoders encoders
     ) {
         if (value instanceof File) {
             return createFilePart(name, (File) value);
         } else {
-            return createBodyPart(name, value);
+            return encoders.part(name, value);
         }
     }
 
@@ -352,8 +430,7 @@ public class HttpService {
     public static synchronized MultipartBody.Part createBodyPart(
             @NonNull String name, @NonNull Object value
     ) {
-        MultipartBody.Part part =
-                MultipartBody.Part.createFormData(name, String.valueOf(value));
+        MultipartBody.Part part = PartEncoders.defaults().part(name, value);
         return part;
     }
 
@@ -372,7 +449,7 @@ public class HttpService {
         // create file RequestBody
         String mimeType = mimeTypeFor(file);
         MediaType mediaType = MediaType.parse(mimeType);
-        RequestBody bodyFile = RequestBody.create(file, mediaType);
+        RequestBody bodyFile = new FileRequestBody(file, mediaType);
 
         // create MultipartBody.Part to send actual file name
         MultipartBody.Part part =
@@ -418,4 +495,398 @@ public class HttpService {
             return "";
         }
     }
+
+    /**
+     * Sensible retrofit http service builder
+     *
+     * @since 0.9.0
+     */
+    public static class Builder<S> {
+        private final Class<S> service;
+        private final String baseUrl;
+        private AuthProvider authProvider;
+        private Map<String, String> headers;
+        private Long connectTimeout;
+        private Long readTimeout;
+        private Long writeTimeout;
+        private long callTimeout;
+        private Executor callbackExecutor;
+        private OfflineQueue offlineQueue;
+        private PriorityDispatcher priorityDispatcher;
+        private EndpointPool endpoints;
+        private ServiceWarmer warmer;
+        private TrafficLogger logger;
+        private TrafficRecorder recorder;
+        private Long maxResponseSize;
+        private File spillDirectory;
+        private long spillThreshold;
+        private NegotiatingConverterFactory.Builder formats;
+        private final List<CallAdapter.Factory> callAdapterFactories =
+                new ArrayList<CallAdapter.Factory>();
+
+        Builder(@NonNull Class<S> service, @NonNull String baseUrl) {
+            this.service = service;
+            this.baseUrl = baseUrl;
+        }
+
+        /**
+         * Set authentication provider
+         *
+         * @param authProvider valid authentication provider
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> authProvider(@Nullable AuthProvider authProvider) {
+            this.authProvider = authProvider;
+            return this;
+        }
+
+        /**
+         * Set authentication token(key)
+         *
+         * @param authToken valid api authentication token(key)
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> authToken(@Nullable final String authToken) {
+            this.authProvider = new AuthProvider() {
+                @Override
+                public String getToken() {
+                    return authToken;
+                }
+            };
+            return this;
+        }
+
+        /**
+         * Set http headers to apply on every request
+         *
+         * @param headers valid http headers
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> headers(@Nullable Map<String, String> headers) {
+            this.headers = headers;
+            return this;
+        }
+
+        /**
+         * Set request(connect, read, write) timeout
+         *
+         * @param timeout valid timeout (in seconds). The default is 10 seconds.
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> timeout(@Nullable Long timeout) {
+            this.connectTimeout = timeout;
+            this.readTimeout = timeout;
+            this.writeTimeout = timeout;
+            return this;
+        }
+
+        /**
+         * Set connect timeout
+         *
+         * @param connectTimeout valid connect timeout (in seconds). The default is 10 seconds.
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> connectTimeout(@Nullable Long connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * Set read timeout
+         *
+         * @param readTimeout valid read timeout (in seconds). The default is 10 seconds.
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> readTimeout(@Nullable Long readTimeout) {
+            this.readTimeout = readTimeout;
+            return this;
+        }
+
+        /**
+         * Set write timeout
+         *
+         * @param writeTimeout valid write timeout (in seconds). The default is 10 seconds.
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> writeTimeout(@Nullable Long writeTimeout) {
+            this.writeTimeout = writeTimeout;
+            return this;
+        }
+
+        /**
+         * Set deadline of whole calls, covering failovers, retries, redirects and
+         * reading response bodies. Service methods may override it with
+         * {@link com.github.lykmapipo.retrofit.timeout.Timeout}, and single calls
+         * may shorten it with a {@link com.github.lykmapipo.retrofit.timeout.Deadline}
+         * tag. Calls past their deadline fail with a
+         * {@link com.github.lykmapipo.retrofit.timeout.DeadlineExceededException}.
+         *
+         * @param callTimeout valid call timeout. The default is no deadline.
+         * @param unit        timeout unit
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> callTimeout(long callTimeout, @NonNull TimeUnit unit) {
+            this.callTimeout = unit.toMillis(callTimeout);
+            return this;
+        }
+
+        /**
+         * Set executor on which {@link retrofit2.Callback} methods of {@link retrofit2.Call}
+         * are invoked. The default is the android main thread.
+         *
+         * @param callbackExecutor valid executor
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> callbackExecutor(@NonNull Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+            return this;
+        }
+
+        /**
+         * Dispatch asynchronous calls in priority order, see
+         * {@link com.github.lykmapipo.retrofit.priority.Priority}. Share one dispatcher
+         * between services to prioritize their calls against each other.
+         *
+         * @param priorityDispatcher valid priority dispatcher
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> priorityDispatcher(@Nullable PriorityDispatcher priorityDispatcher) {
+            this.priorityDispatcher = priorityDispatcher;
+            return this;
+        }
+
+        /**
+         * Parse all service methods on a background executor right after creation,
+         * so first calls skip annotation parsing and converter lookup. Share one
+         * warmer between services to collect their
+         * {@link com.github.lykmapipo.retrofit.warmup.WarmUpReport}s.
+         *
+         * @param warmer valid service warmer
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> warmUp(@Nullable ServiceWarmer warmer) {
+            this.warmer = warmer;
+            return this;
+        }
+
+        /**
+         * Log sampled calls, with redacted credentials, to a rotating file on a
+         * background thread. Share one logger between services to log their calls
+         * to the same file.
+         *
+         * @param logger valid traffic logger
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> logger(@Nullable TrafficLogger logger) {
+            this.logger = logger;
+            return this;
+        }
+
+        /**
+         * Record request and response exchanges, with their timing, for replay
+         * against a local server.
+         *
+         * @param recorder valid traffic recorder
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> recorder(@Nullable TrafficRecorder recorder) {
+            this.recorder = recorder;
+            return this;
+        }
+
+        /**
+         * Set maximum response body size. Larger responses fail with a
+         * {@link com.github.lykmapipo.retrofit.limit.ResponseTooLargeException}.
+         * Service methods may override it with
+         * {@link com.github.lykmapipo.retrofit.limit.MaxResponseSize}.
+         *
+         * @param maxResponseSize valid maximum size (in bytes). The default is no limit.
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> maxResponseSize(@Nullable Long maxResponseSize) {
+            this.maxResponseSize = maxResponseSize;
+            return this;
+        }
+
+        /**
+         * Download response bodies larger than a threshold to temporary files and
+         * convert them from disk, instead of holding them on the heap.
+         *
+         * @param directory valid directory for temporary files e.g. cache directory
+         * @param threshold valid threshold (in bytes)
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> spillToDisk(@NonNull File directory, long threshold) {
+            this.spillDirectory = directory;
+            this.spillThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Set queue in which requests of {@link com.github.lykmapipo.retrofit.offline.Offline}
+         * service methods are stored when they fail to reach the server. The queue
+         * replays through the client of the built service.
+         *
+         * @param offlineQueue valid offline queue
+         * @return builder
+         */
+        @NonNull
+        public Builder<S> offlineQueue(@Nullable OfflineQueue offlineQueue) {
+            this.offlineQueue = offlineQueue;
+            return this;
+        }
+
+        /**
+         * Add a serialization format, e.g. protobuf or MessagePack, next to the default
+         * gson json. The first added format is used for request bodies unless a service
+         * method selects another with {@link com.github.lykmapipo.retrofit.converter.Format},
+         * and responses are decoded by their {@code Content-Type}. The {@code Accept}
+         * header lists the formats in preference order.
+         *
+         * @param mediaType valid media type of the format
+         * @param factory   converter factory of the format
+         * @return builder
+         * @see NegotiatingConverterFactory
+         */
+        @NonNull
+        public Builder<S> addConverterFactory(
+                @NonNull String mediaType, @NonNull Converter.Factory factory
+        ) {
+            if (formats == null) {
+                formats = NegotiatingConverterFactory.builder();
+            }
+            formats.add(mediaType, factory);
+            return this;
+        }
+
+        /**
+         * Add call adapter factory for supporting service method return types other
+         * than {@link retrofit2.Call}. Added factories take precedence over the default
+         * {@link TaskCallAdapterFactory}.
+         *
+         * @param factory valid call adapter factory
+         * @return builder
+         * @see com.github.lykmapipo.retrofit.adapter.FutureCallAdapterFactory
+         * @see com.github.lykmapipo.retrofit.adapter.PublisherCallAdapterFactory
+         */
+        @NonNull
+        public Builder<S> addCallAdapterFactory(@NonNull CallAdapter.Factory factory) {
+            this.callAdapterFactories.add(factory);
+            return this;
+        }
+
+        /**
+         * Create an implementation of the API endpoints defined by the {@code service} interface.
+         *
+         * @return an object of type S from the {@code service} creation
+         */
+        @NonNull
+        public S build() {
+            // build http client with defaults
+            OkHttpClient.Builder httpClientBuilder = httpClient.newBuilder();
+
+            // apply timeouts
+            httpClientBuilder.connectTimeout(connectTimeout != null ? connectTimeout : 10, TimeUnit.SECONDS);
+            httpClientBuilder.readTimeout(readTimeout != null ? readTimeout : 10, TimeUnit.SECONDS);
+            httpClientBuilder.writeTimeout(writeTimeout != null ? writeTimeout : 10, TimeUnit.SECONDS);
+
+            // let the priority dispatcher admit calls
+            if (priorityDispatcher != null) {
+                httpClientBuilder.dispatcher(priorityDispatcher.dispatcher());
+            }
+
+            // apply method timeouts and deadlines around everything else
+            httpClientBuilder.addInterceptor(new TimeoutInterceptor(callTimeout));
+
+            // keep okhttp and failover from resending drained multipart parts
+            httpClientBuilder.addInterceptor(new OneShotPartsInterceptor());
+
+            // queue offline requests before headers and auth, so replays get fresh ones
+            if (offlineQueue != null) {
+                httpClientBuilder.addInterceptor(new OfflineInterceptor(offlineQueue));
+            }
+
+            // route to endpoints inside the offline queue, so it only sees calls all endpoints failed
+            if (endpoints != null) {
+                httpClientBuilder.addInterceptor(endpoints.interceptor());
+            }
+
+            // negotiate formats, keeping gson json as fallback
+            NegotiatingConverterFactory negotiation = null;
+            if (formats != null) {
+                negotiation = formats.build();
+                if (!negotiation.mediaTypes().contains(NegotiatingConverterFactory.JSON)) {
+                    negotiation = formats.add(NegotiatingConverterFactory.JSON, gsonFactory).build();
+                }
+            }
+
+            // add common interceptors
+            httpClientBuilder.addInterceptor(new HeadersInterceptor(
+                    headers, negotiation != null ? negotiation.acceptProvider() : null));
+            httpClientBuilder.addInterceptor(new AuthInterceptor(authProvider));
+            httpClientBuilder.addInterceptor(new ResponseSizeInterceptor(
+                    maxResponseSize != null ? maxResponseSize : 0L, spillDirectory, spillThreshold));
+
+            // log and record last, to see requests as sent
+            if (logger != null) {
+                httpClientBuilder.addInterceptor(logger.interceptor());
+            }
+            if (recorder != null) {
+                httpClientBuilder.addInterceptor(recorder.interceptor());
+            }
+
+            // build client
+            OkHttpClient client = httpClientBuilder.build();
+            if (offlineQueue != null) {
+                offlineQueue.attach(client);
+            }
+            if (endpoints != null) {
+                endpoints.attach(client);
+            }
+
+            // create retrofit client with defaults
+            Retrofit.Builder retrofitBuilder = new Retrofit.Builder();
+            if (warmer != null) {
+                retrofitBuilder.addCallAdapterFactory(warmer.callAdapterFactory());
+            }
+            if (priorityDispatcher != null) {
+                retrofitBuilder.addCallAdapterFactory(priorityDispatcher.callAdapterFactory());
+            }
+            for (CallAdapter.Factory factory : callAdapterFactories) {
+                retrofitBuilder.addCallAdapterFactory(factory);
+            }
+            retrofitBuilder.addCallAdapterFactory(taskFactory);
+            retrofitBuilder.addConverterFactory(negotiation != null ? negotiation : gsonFactory);
+            if (callbackExecutor != null) {
+                retrofitBuilder.callbackExecutor(callbackExecutor);
+            }
+            Retrofit retrofit =
+                    retrofitBuilder
+                            .client(client)
+                            .baseUrl(baseUrl)
+                            .build();
+
+            // create provided service, warm up if requested and return
+            S instance = retrofit.create(service);
+            if (warmer != null) {
+                warmer.warmUp(service, instance);
+            }
+            return instance;
+        }
+    }
 }
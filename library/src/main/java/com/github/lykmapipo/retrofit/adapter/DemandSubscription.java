@@ -0,0 +1,174 @@
+package com.github.lykmapipo.retrofit.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Subscription} that emits items pulled from {@link #poll()} only while
+ * the subscriber has outstanding demand.
+ * <p>
+ * Emission is serialized by a drain loop; when a drain executor is given the
+ * loop always runs on it, otherwise it runs on the thread that signalled
+ * demand or data.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+abstract class DemandSubscription<T> implements Subscription {
+    private final Subscriber<? super T> subscriber;
+    private final Executor executor;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private final Runnable drainTask = new Runnable() {
+        @Override
+        public void run() {
+            drainLoop();
+        }
+    };
+
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+    private volatile Throwable error;
+    private boolean terminated;
+
+    DemandSubscription(@NonNull Subscriber<? super T> subscriber, @Nullable Executor executor) {
+        this.subscriber = subscriber;
+        this.executor = executor;
+    }
+
+    /**
+     * Invoked on every positive request, before draining
+     */
+    abstract void onRequest();
+
+    /**
+     * Invoked once when the subscription is canceled
+     */
+    abstract void onCancel();
+
+    /**
+     * Next item to emit, or null if none is available right now. Only invoked
+     * while there is outstanding demand.
+     */
+    @Nullable
+    abstract T poll() throws Exception;
+
+    /**
+     * Signal that no more items will be produced. Must only be called once all
+     * items have been returned from {@link #poll()}.
+     *
+     * @param error terminal error, or null to complete
+     */
+    final void finish(@Nullable Throwable error) {
+        this.error = error;
+        this.finished = true;
+    }
+
+    final boolean isCancelled() {
+        return cancelled;
+    }
+
+    @Override
+    public final void request(long n) {
+        if (cancelled) {
+            return;
+        }
+        if (n <= 0) {
+            finish(new IllegalArgumentException("Rule 3.9 violated: positive request amount required but was " + n));
+            drain();
+            return;
+        }
+        // add demand, capped at Long.MAX_VALUE (unbounded)
+        for (; ; ) {
+            long current = requested.get();
+            long next = current + n;
+            if (next < 0) {
+                next = Long.MAX_VALUE;
+            }
+            if (requested.compareAndSet(current, next)) {
+                break;
+            }
+        }
+        onRequest();
+        drain();
+    }
+
+    @Override
+    public final void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            onCancel();
+        }
+    }
+
+    /**
+     * Schedule emission of available items
+     */
+    final void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        if (executor != null) {
+            executor.execute(drainTask);
+        } else {
+            drainLoop();
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        for (; ; ) {
+            long r = requested.get();
+            long e = 0L;
+
+            while (e != r && !finished) {
+                if (cancelled) {
+                    return;
+                }
+                T item;
+                try {
+                    item = poll();
+                } catch (Throwable t) {
+                    finish(t);
+                    break;
+                }
+                if (item == null) {
+                    break;
+                }
+                subscriber.onNext(item);
+                e++;
+            }
+
+            if (cancelled) {
+                return;
+            }
+            if (finished && !terminated) {
+                terminated = true;
+                cancelled = true;
+                Throwable failure = error;
+                if (failure != null) {
+                    subscriber.onError(failure);
+                } else {
+                    subscriber.onComplete();
+                }
+                return;
+            }
+
+            if (e != 0L && r != Long.MAX_VALUE) {
+                requested.addAndGet(-e);
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.github.lykmapipo.retrofit.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RequiresApi;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * {@link CallAdapter.Factory} for service methods returning {@link CompletableFuture}.
+ * <p>
+ * Calls are dispatched asynchronously by okhttp and futures are completed
+ * directly on the okhttp dispatcher thread, or on the given callback executor.
+ * Canceling a future cancels its call.
+ *
+ * <pre>
+ * &#64;GET("users")
+ * CompletableFuture&lt;List&lt;User&gt;&gt; list();
+ *
+ * &#64;GET("users")
+ * CompletableFuture&lt;Response&lt;List&lt;User&gt;&gt;&gt; listWithResponse();
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@RequiresApi(24)
+public class FutureCallAdapterFactory extends CallAdapter.Factory {
+    private final Executor callbackExecutor;
+
+    private FutureCallAdapterFactory(@Nullable Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Create factory that completes futures on the okhttp dispatcher thread
+     *
+     * @return future call adapter factory
+     */
+    @NonNull
+    public static FutureCallAdapterFactory create() {
+        return new FutureCallAdapterFactory(null);
+    }
+
+    /**
+     * Create factory that completes futures on the given executor
+     *
+     * @param callbackExecutor valid executor
+     * @return future call adapter factory
+     */
+    @NonNull
+    public static FutureCallAdapterFactory create(@NonNull Executor callbackExecutor) {
+        return new FutureCallAdapterFactory(callbackExecutor);
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(
+            @NonNull Type returnType, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        if (getRawType(returnType) != CompletableFuture.class) {
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)) {
+            throw new IllegalStateException(
+                    "CompletableFuture return type must be parameterized"
+                            + " as CompletableFuture<Foo> or CompletableFuture<? extends Foo>");
+        }
+        Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+
+        if (getRawType(innerType) != Response.class) {
+            return new BodyCallAdapter<Object>(innerType, callbackExecutor);
+        }
+        if (!(innerType instanceof ParameterizedType)) {
+            throw new IllegalStateException(
+                    "Response must be parameterized as Response<Foo> or Response<? extends Foo>");
+        }
+        Type responseType = getParameterUpperBound(0, (ParameterizedType) innerType);
+        return new ResponseCallAdapter<Object>(responseType, callbackExecutor);
+    }
+
+    private static final class BodyCallAdapter<R>
+            implements CallAdapter<R, CompletableFuture<R>> {
+        private final Type responseType;
+        private final Executor callbackExecutor;
+
+        BodyCallAdapter(Type responseType, Executor callbackExecutor) {
+            this.responseType = responseType;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @NonNull
+        @Override
+        public CompletableFuture<R> adapt(@NonNull Call<R> call) {
+            final CallFuture<R> future = new CallFuture<R>(call);
+            call.enqueue(new Dispatch<R>(callbackExecutor) {
+                @Override
+                void complete(Response<R> response, Throwable error) {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else if (response.isSuccessful()) {
+                        future.complete(response.body());
+                    } else {
+                        future.completeExceptionally(new HttpException(response));
+                    }
+                }
+            });
+            return future;
+        }
+    }
+
+    private static final class ResponseCallAdapter<R>
+            implements CallAdapter<R, CompletableFuture<Response<R>>> {
+        private final Type responseType;
+        private final Executor callbackExecutor;
+
+        ResponseCallAdapter(Type responseType, Executor callbackExecutor) {
+            this.responseType = responseType;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @NonNull
+        @Override
+        public CompletableFuture<Response<R>> adapt(@NonNull Call<R> call) {
+            final CallFuture<Response<R>> future = new CallFuture<Response<R>>(call);
+            call.enqueue(new Dispatch<R>(callbackExecutor) {
+                @Override
+                void complete(Response<R> response, Throwable error) {
+                    if (error != null) {
+                        future.completeExceptionally(error);
+                    } else {
+                        future.complete(response);
+                    }
+                }
+            });
+            return future;
+        }
+    }
+
+    /**
+     * Future that cancels its call when canceled
+     */
+    private static final class CallFuture<T> extends CompletableFuture<T> {
+        private final Call<?> call;
+
+        CallFuture(Call<?> call) {
+            this.call = call;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            if (mayInterruptIfRunning) {
+                call.cancel();
+            }
+            return super.cancel(mayInterruptIfRunning);
+        }
+    }
+
+    /**
+     * Callback that completes inline or hops to the callback executor
+     */
+    private abstract static class Dispatch<R> implements Callback<R> {
+        private final Executor callbackExecutor;
+
+        Dispatch(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        abstract void complete(Response<R> response, Throwable error);
+
+        @Override
+        public void onResponse(@NonNull Call<R> call, @NonNull Response<R> response) {
+            dispatch(response, null);
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<R> call, @NonNull Throwable error) {
+            dispatch(null, error);
+        }
+
+        private void dispatch(final Response<R> response, final Throwable error) {
+            if (callbackExecutor == null) {
+                complete(response, error);
+                return;
+            }
+            callbackExecutor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    complete(response, error);
+                }
+            });
+        }
+    }
+}
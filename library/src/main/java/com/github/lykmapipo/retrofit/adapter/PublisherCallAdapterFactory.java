@@ -0,0 +1,322 @@
+package com.github.lykmapipo.retrofit.adapter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.ByteString;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+
+/**
+ * {@link CallAdapter.Factory} for service methods returning Reactive Streams
+ * {@link Publisher}.
+ * <p>
+ * Each subscription enqueues a fresh copy of the call on first demand and
+ * cancels it when the subscription is canceled. {@code Publisher<ByteString>}
+ * streams the response body in chunks, reading only while the subscriber has
+ * outstanding demand; annotate such methods with {@link retrofit2.http.Streaming}
+ * so the body is not buffered up front.
+ *
+ * <pre>
+ * &#64;GET("users")
+ * Publisher&lt;List&lt;User&gt;&gt; list();
+ *
+ * &#64;GET("users")
+ * Publisher&lt;Response&lt;List&lt;User&gt;&gt;&gt; listWithResponse();
+ *
+ * &#64;Streaming
+ * &#64;GET("exports/users")
+ * Publisher&lt;ByteString&gt; export();
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class PublisherCallAdapterFactory extends CallAdapter.Factory {
+    /**
+     * Maximum number of bytes emitted per body chunk
+     */
+    static final long CHUNK_SIZE = 8192L;
+
+    private final Executor callbackExecutor;
+
+    private PublisherCallAdapterFactory(@Nullable Executor callbackExecutor) {
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Create factory that signals subscribers on the okhttp dispatcher thread,
+     * or on the thread requesting more items.
+     *
+     * @return publisher call adapter factory
+     */
+    @NonNull
+    public static PublisherCallAdapterFactory create() {
+        return new PublisherCallAdapterFactory(null);
+    }
+
+    /**
+     * Create factory that signals subscribers, and reads streamed bodies,
+     * on the given executor.
+     *
+     * @param callbackExecutor valid executor
+     * @return publisher call adapter factory
+     */
+    @NonNull
+    public static PublisherCallAdapterFactory create(@NonNull Executor callbackExecutor) {
+        return new PublisherCallAdapterFactory(callbackExecutor);
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(
+            @NonNull Type returnType, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        if (getRawType(returnType) != Publisher.class) {
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)) {
+            throw new IllegalStateException(
+                    "Publisher return type must be parameterized"
+                            + " as Publisher<Foo> or Publisher<? extends Foo>");
+        }
+        Type innerType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        Class<?> rawInnerType = getRawType(innerType);
+
+        if (rawInnerType == ByteString.class) {
+            return new ChunkCallAdapter(callbackExecutor);
+        }
+        if (rawInnerType != Response.class) {
+            return new ResponseCallAdapter<Object>(innerType, false, callbackExecutor);
+        }
+        if (!(innerType instanceof ParameterizedType)) {
+            throw new IllegalStateException(
+                    "Response must be parameterized as Response<Foo> or Response<? extends Foo>");
+        }
+        Type responseType = getParameterUpperBound(0, (ParameterizedType) innerType);
+        return new ResponseCallAdapter<Object>(responseType, true, callbackExecutor);
+    }
+
+    private static final class ResponseCallAdapter<R> implements CallAdapter<R, Publisher<?>> {
+        private final Type responseType;
+        private final boolean wrapResponse;
+        private final Executor callbackExecutor;
+
+        ResponseCallAdapter(Type responseType, boolean wrapResponse, Executor callbackExecutor) {
+            this.responseType = responseType;
+            this.wrapResponse = wrapResponse;
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return responseType;
+        }
+
+        @NonNull
+        @Override
+        public Publisher<?> adapt(@NonNull final Call<R> call) {
+            return new Publisher<Object>() {
+                @Override
+                public void subscribe(Subscriber<? super Object> subscriber) {
+                    if (subscriber == null) {
+                        throw new NullPointerException("Rule 1.9 violated: subscriber is null");
+                    }
+                    ResponseSubscription<R> subscription = new ResponseSubscription<R>(
+                            subscriber, call.clone(), wrapResponse, callbackExecutor);
+                    subscriber.onSubscribe(subscription);
+                }
+            };
+        }
+    }
+
+    private static final class ChunkCallAdapter implements CallAdapter<ResponseBody, Publisher<ByteString>> {
+        private final Executor callbackExecutor;
+
+        ChunkCallAdapter(Executor callbackExecutor) {
+            this.callbackExecutor = callbackExecutor;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return ResponseBody.class;
+        }
+
+        @NonNull
+        @Override
+        public Publisher<ByteString> adapt(@NonNull final Call<ResponseBody> call) {
+            return new Publisher<ByteString>() {
+                @Override
+                public void subscribe(Subscriber<? super ByteString> subscriber) {
+                    if (subscriber == null) {
+                        throw new NullPointerException("Rule 1.9 violated: subscriber is null");
+                    }
+                    ChunkSubscription subscription = new ChunkSubscription(
+                            subscriber, call.clone(), callbackExecutor);
+                    subscriber.onSubscribe(subscription);
+                }
+            };
+        }
+    }
+
+    /**
+     * Emit a single body or response once the call completes
+     */
+    private static final class ResponseSubscription<R> extends DemandSubscription<Object>
+            implements Callback<R> {
+        private final Call<R> call;
+        private final boolean wrapResponse;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private volatile Object value;
+
+        ResponseSubscription(Subscriber<? super Object> subscriber, Call<R> call,
+                             boolean wrapResponse, Executor executor) {
+            super(subscriber, executor);
+            this.call = call;
+            this.wrapResponse = wrapResponse;
+        }
+
+        @Override
+        void onRequest() {
+            if (started.compareAndSet(false, true)) {
+                call.enqueue(this);
+            }
+        }
+
+        @Override
+        void onCancel() {
+            call.cancel();
+        }
+
+        @Nullable
+        @Override
+        Object poll() {
+            Object item = value;
+            if (item != null) {
+                value = null;
+                finish(null);
+            }
+            return item;
+        }
+
+        @Override
+        public void onResponse(@NonNull Call<R> call, @NonNull Response<R> response) {
+            if (wrapResponse) {
+                value = response;
+            } else if (!response.isSuccessful()) {
+                finish(new HttpException(response));
+            } else if (response.body() != null) {
+                value = response.body();
+            } else {
+                // no content, complete empty
+                finish(null);
+            }
+            drain();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<R> call, @NonNull Throwable error) {
+            finish(error);
+            drain();
+        }
+    }
+
+    /**
+     * Emit response body chunks on demand
+     */
+    private static final class ChunkSubscription extends DemandSubscription<ByteString>
+            implements Callback<ResponseBody> {
+        private final Call<ResponseBody> call;
+        private final AtomicBoolean started = new AtomicBoolean();
+        private final Buffer buffer = new Buffer();
+        private volatile ResponseBody body;
+
+        ChunkSubscription(Subscriber<? super ByteString> subscriber, Call<ResponseBody> call,
+                          Executor executor) {
+            super(subscriber, executor);
+            this.call = call;
+        }
+
+        @Override
+        void onRequest() {
+            if (started.compareAndSet(false, true)) {
+                call.enqueue(this);
+            }
+        }
+
+        @Override
+        void onCancel() {
+            call.cancel();
+            close();
+        }
+
+        @Nullable
+        @Override
+        ByteString poll() throws Exception {
+            ResponseBody current = body;
+            if (current == null) {
+                return null;
+            }
+            BufferedSource source = current.source();
+            try {
+                if (source.read(buffer, CHUNK_SIZE) == -1L) {
+                    close();
+                    finish(null);
+                    return null;
+                }
+            } catch (Exception e) {
+                close();
+                throw e;
+            }
+            return buffer.readByteString();
+        }
+
+        @Override
+        public void onResponse(@NonNull Call<ResponseBody> call, @NonNull Response<ResponseBody> response) {
+            if (!response.isSuccessful()) {
+                finish(new HttpException(response));
+            } else if (response.body() == null) {
+                finish(null);
+            } else {
+                body = response.body();
+                if (isCancelled()) {
+                    close();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onFailure(@NonNull Call<ResponseBody> call, @NonNull Throwable error) {
+            finish(error);
+            drain();
+        }
+
+        private void close() {
+            ResponseBody current = body;
+            if (current != null) {
+                current.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Running set of {@link Call}s submitted to a {@link BatchExecutor}.
+ * <p>
+ * At most {@code concurrency} calls are in flight at any time; results are
+ * published in completion order through {@link #next()}, {@link #await()} and
+ * the optional {@link BatchCallback}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class Batch<T> {
+    private static final Object END = new Object();
+
+    private final List<Call<T>> calls;
+    private final Executor executor;
+    private final int concurrency;
+    private final boolean failFast;
+    private final BatchCallback<T> callback;
+
+    private final List<BatchResult<T>> results;
+    private final LinkedBlockingQueue<Object> completions = new LinkedBlockingQueue<Object>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicBoolean canceled = new AtomicBoolean();
+    private final AtomicBoolean finished = new AtomicBoolean();
+    private final AtomicReference<BatchResult<T>> failure = new AtomicReference<BatchResult<T>>();
+    private final AtomicReference<BatchException> callbackFailure = new AtomicReference<BatchException>();
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    Batch(@NonNull List<Call<T>> calls, @NonNull Executor executor,
+          int concurrency, boolean failFast, @Nullable BatchCallback<T> callback) {
+        this.calls = calls;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.failFast = failFast;
+        this.callback = callback;
+        this.results = Collections.synchronizedList(new ArrayList<BatchResult<T>>(calls.size()));
+    }
+
+    /**
+     * Start the first window of calls
+     */
+    void start() {
+        if (calls.isEmpty()) {
+            finish();
+            return;
+        }
+        for (int i = 0; i < concurrency; i++) {
+            if (!scheduleNext()) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Number of calls in this batch
+     *
+     * @return batch size
+     */
+    public int size() {
+        return calls.size();
+    }
+
+    /**
+     * Cancel the batch. In flight calls are canceled and pending calls are
+     * never started.
+     */
+    public void cancel() {
+        if (canceled.compareAndSet(false, true)) {
+            cancelCalls();
+            // nothing in flight means nobody else will complete the batch
+            if (running.get() == 0) {
+                finish();
+            }
+        }
+    }
+
+    /**
+     * Check if the batch was canceled
+     *
+     * @return true if canceled
+     */
+    public boolean isCanceled() {
+        return canceled.get();
+    }
+
+    /**
+     * Check if all started calls have completed
+     *
+     * @return true if done
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * First failed result of a fail fast batch
+     *
+     * @return failed result or null
+     */
+    @Nullable
+    public BatchResult<T> getFailure() {
+        return failure.get();
+    }
+
+    /**
+     * Snapshot of results received so far, in completion order
+     *
+     * @return results
+     */
+    @NonNull
+    public List<BatchResult<T>> getResults() {
+        synchronized (results) {
+            return new ArrayList<BatchResult<T>>(results);
+        }
+    }
+
+    /**
+     * Block until the next result is available.
+     *
+     * @return next result in completion order, or null when the batch is done
+     * and every result has been taken
+     * @throws InterruptedException if interrupted while waiting
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public BatchResult<T> next() throws InterruptedException {
+        Object completion = completions.take();
+        if (completion == END) {
+            // keep the marker for other consumers
+            completions.offer(END);
+            return null;
+        }
+        return (BatchResult<T>) completion;
+    }
+
+    /**
+     * Block until the batch is done.
+     *
+     * @return results in completion order
+     * @throws InterruptedException if interrupted while waiting
+     * @throws BatchException       if a fail fast batch had a failed call, or
+     *                              the callback threw on a result
+     */
+    @NonNull
+    public List<BatchResult<T>> await() throws InterruptedException, BatchException {
+        done.await();
+        return resultsOrThrow();
+    }
+
+    /**
+     * Block until the batch is done or the timeout elapses.
+     *
+     * @param timeout maximum time to wait
+     * @param unit    timeout unit
+     * @return results in completion order
+     * @throws InterruptedException if interrupted while waiting
+     * @throws TimeoutException     if the batch is not done in time
+     * @throws BatchException       if a fail fast batch had a failed call, or
+     *                              the callback threw on a result
+     */
+    @NonNull
+    public List<BatchResult<T>> await(long timeout, @NonNull TimeUnit unit)
+            throws InterruptedException, TimeoutException, BatchException {
+        if (!done.await(timeout, unit)) {
+            throw new TimeoutException("Batch not done after " + timeout + " " + unit);
+        }
+        return resultsOrThrow();
+    }
+
+    private List<BatchResult<T>> resultsOrThrow() throws BatchException {
+        BatchResult<T> failed = failure.get();
+        if (failed != null) {
+            throw new BatchException(failed);
+        }
+        BatchException callbackFailed = callbackFailure.get();
+        if (callbackFailed != null) {
+            throw callbackFailed;
+        }
+        return getResults();
+    }
+
+    private boolean scheduleNext() {
+        if (canceled.get() || failure.get() != null) {
+            return false;
+        }
+        final int index = next.getAndIncrement();
+        if (index >= calls.size()) {
+            return false;
+        }
+        running.incrementAndGet();
+        try {
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    execute(index);
+                }
+            });
+        } catch (RuntimeException e) {
+            complete(new BatchResult<T>(index, calls.get(index), null, e));
+        }
+        return true;
+    }
+
+    private void execute(int index) {
+        Call<T> call = calls.get(index);
+        Response<T> response = null;
+        Throwable error = null;
+        try {
+            response = call.execute();
+        } catch (Throwable t) {
+            error = t;
+        }
+        complete(new BatchResult<T>(index, call, response, error));
+    }
+
+    private void complete(BatchResult<T> result) {
+        results.add(result);
+        completions.offer(result);
+        if (callback != null) {
+            try {
+                callback.onResult(result);
+            } catch (Throwable t) {
+                // keep the batch running, report the first one on await
+                callbackFailure.compareAndSet(null, new BatchException(result, t));
+            }
+        }
+
+        // fail fast: stop scheduling and cancel in flight calls
+        if (failFast && !result.isSuccessful() && failure.compareAndSet(null, result)) {
+            cancelCalls();
+        }
+
+        scheduleNext();
+
+        if (running.decrementAndGet() == 0) {
+            boolean stopped = canceled.get() || failure.get() != null;
+            if (stopped || next.get() >= calls.size()) {
+                finish();
+            }
+        }
+    }
+
+    private void cancelCalls() {
+        for (Call<T> call : calls) {
+            call.cancel();
+        }
+    }
+
+    private void finish() {
+        if (finished.compareAndSet(false, true)) {
+            completions.offer(END);
+            done.countDown();
+            if (callback != null) {
+                try {
+                    callback.onComplete(this);
+                } catch (Throwable t) {
+                    // waiters are already released, nothing left to report to
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Receive {@link Batch} results as they complete.
+ * <p>
+ * Callbacks are invoked on the threads executing the calls, so implementations
+ * must be thread safe and should not block.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public abstract class BatchCallback<T> {
+    /**
+     * Invoked once per call, in completion order. Anything thrown here does
+     * not stop the batch, the first one is reported by {@link Batch#await()}.
+     *
+     * @param result call result
+     */
+    public void onResult(@NonNull BatchResult<T> result) {
+    }
+
+    /**
+     * Invoked once after the last result, or after the batch is canceled
+     * or has failed fast. Anything thrown here is ignored.
+     *
+     * @param batch completed batch
+     */
+    public void onComplete(@NonNull Batch<T> batch) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+/**
+ * Thrown by a fail fast {@link Batch} when one of its calls fails, or by any
+ * {@link Batch} when its {@link BatchCallback} threw on a result
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class BatchException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final BatchResult<?> result;
+
+    public BatchException(@NonNull BatchResult<?> result) {
+        super(messageOf(result), result.getError());
+        this.result = result;
+    }
+
+    public BatchException(@NonNull BatchResult<?> result, @NonNull Throwable callbackError) {
+        super("Batch callback failed on call " + result.getIndex(), callbackError);
+        this.result = result;
+    }
+
+    /**
+     * First failed call result, or the result the callback threw on
+     *
+     * @return failed result
+     */
+    @NonNull
+    public BatchResult<?> getResult() {
+        return result;
+    }
+
+    private static String messageOf(BatchResult<?> result) {
+        if (result.getResponse() != null) {
+            return "Batch call " + result.getIndex() + " failed with http "
+                    + result.getResponse().code();
+        }
+        return "Batch call " + result.getIndex() + " failed";
+    }
+}
@@ -0,0 +1,185 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+
+/**
+ * Execute many independent {@link Call}s with a bounded concurrency.
+ * <p>
+ * Calls are executed synchronously on the configured {@link Executor}, so the
+ * concurrency bound is exact and independent of the okhttp dispatcher limits.
+ * Any executor works, e.g. a virtual thread per task executor on runtimes
+ * that support them; the default is a shared pool of daemon threads.
+ *
+ * <pre>
+ * Batch&lt;User&gt; batch = BatchExecutor.create(8).execute(calls);
+ * for (BatchResult&lt;User&gt; result; (result = batch.next()) != null; ) {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class BatchExecutor {
+    /**
+     * Default number of calls in flight per batch
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    private static ExecutorService defaultExecutor;
+
+    private final int concurrency;
+    private final boolean failFast;
+    private final Executor executor;
+
+    private BatchExecutor(Builder builder) {
+        this.concurrency = builder.concurrency;
+        this.failFast = builder.failFast;
+        this.executor = builder.executor != null ? builder.executor : defaultExecutor();
+    }
+
+    /**
+     * Create a collect all batch executor with default concurrency
+     *
+     * @return batch executor
+     */
+    @NonNull
+    public static BatchExecutor create() {
+        return builder().build();
+    }
+
+    /**
+     * Create a collect all batch executor
+     *
+     * @param concurrency maximum number of calls in flight
+     * @return batch executor
+     */
+    @NonNull
+    public static BatchExecutor create(int concurrency) {
+        return builder().concurrency(concurrency).build();
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Execute given calls
+     *
+     * @param calls calls to execute
+     * @return running batch
+     */
+    @NonNull
+    public <T> Batch<T> execute(@NonNull Collection<? extends Call<T>> calls) {
+        return execute(calls, null);
+    }
+
+    /**
+     * Execute given calls and receive their results as they complete
+     *
+     * @param calls    calls to execute
+     * @param callback batch callback
+     * @return running batch
+     */
+    @NonNull
+    public <T> Batch<T> execute(
+            @NonNull Collection<? extends Call<T>> calls,
+            @Nullable BatchCallback<T> callback
+    ) {
+        // already executed calls can not be re-executed, use a fresh copy
+        List<Call<T>> prepared = new ArrayList<Call<T>>(calls.size());
+        for (Call<T> call : calls) {
+            prepared.add(call.isExecuted() ? call.clone() : call);
+        }
+
+        Batch<T> batch = new Batch<T>(prepared, executor, concurrency, failFast, callback);
+        batch.start();
+        return batch;
+    }
+
+    private static synchronized ExecutorService defaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "retrofit-batch-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+
+    public static class Builder {
+        private int concurrency = DEFAULT_CONCURRENCY;
+        private boolean failFast = false;
+        private Executor executor;
+
+        Builder() {
+        }
+
+        /**
+         * Maximum number of calls in flight. The default is 4.
+         *
+         * @param concurrency valid concurrency bound
+         * @return builder
+         */
+        @NonNull
+        public Builder concurrency(int concurrency) {
+            if (concurrency < 1) {
+                throw new IllegalArgumentException("concurrency < 1: " + concurrency);
+            }
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Stop and cancel the batch on the first failed call instead of
+         * collecting all results. The default is false.
+         *
+         * @param failFast fail fast flag
+         * @return builder
+         */
+        @NonNull
+        public Builder failFast(boolean failFast) {
+            this.failFast = failFast;
+            return this;
+        }
+
+        /**
+         * Executor to run calls on
+         *
+         * @param executor valid executor
+         * @return builder
+         */
+        @NonNull
+        public Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        @NonNull
+        public BatchExecutor build() {
+            return new BatchExecutor(this);
+        }
+    }
+}
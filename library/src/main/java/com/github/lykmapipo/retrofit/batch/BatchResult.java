@@ -0,0 +1,87 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Outcome of a single {@link Call} executed as part of a {@link Batch}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class BatchResult<T> {
+    private final int index;
+    private final Call<T> call;
+    private final Response<T> response;
+    private final Throwable error;
+
+    BatchResult(int index, @NonNull Call<T> call,
+                @Nullable Response<T> response, @Nullable Throwable error) {
+        this.index = index;
+        this.call = call;
+        this.response = response;
+        this.error = error;
+    }
+
+    /**
+     * Position of the call in the submitted collection
+     *
+     * @return call index
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Executed call
+     *
+     * @return call
+     */
+    @NonNull
+    public Call<T> getCall() {
+        return call;
+    }
+
+    /**
+     * Http response, null when the call failed with an error
+     *
+     * @return response
+     */
+    @Nullable
+    public Response<T> getResponse() {
+        return response;
+    }
+
+    /**
+     * Error raised when executing the call, null when a response was received
+     *
+     * @return error
+     */
+    @Nullable
+    public Throwable getError() {
+        return error;
+    }
+
+    /**
+     * Body of a successful response
+     *
+     * @return response body or null
+     */
+    @Nullable
+    public T getBody() {
+        return response != null ? response.body() : null;
+    }
+
+    /**
+     * Check if the call received a 2xx response
+     *
+     * @return true if successful
+     */
+    public boolean isSuccessful() {
+        return error == null && response != null && response.isSuccessful();
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Select the serialization format of the annotated service method, overriding
+ * the service default of a {@link NegotiatingConverterFactory}. The format is
+ * used to encode request bodies and is preferred in the {@code Accept} header.
+ *
+ * <pre>
+ * &#64;Format(NegotiatingConverterFactory.MSGPACK)
+ * &#64;POST("telemetry")
+ * Call&lt;Void&gt; report(&#64;Body List&lt;Event&gt; events);
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Format {
+    /**
+     * Media type of a format registered in the {@link NegotiatingConverterFactory}
+     *
+     * @return media type
+     */
+    String value();
+}
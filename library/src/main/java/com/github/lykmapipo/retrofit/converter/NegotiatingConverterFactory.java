@@ -0,0 +1,291 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.retrofit.provider.AcceptProvider;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import retrofit2.Converter;
+import retrofit2.Invocation;
+import retrofit2.Retrofit;
+
+/**
+ * {@link Converter.Factory} that selects a converter by media type.
+ * <p>
+ * Each registered format pairs a media type with a converter factory, e.g.
+ * retrofit's protobuf or wire converters, or its jackson converter over a
+ * MessagePack or CBOR object mapper. Request bodies use the {@link Format}
+ * of the service method, else the first registered format. Responses are
+ * decoded by the format matching their {@code Content-Type}, so a server
+ * can answer in any format offered in the {@code Accept} header, see
+ * {@link #accept(Method)}. A format that can not decode the response type
+ * falls back to json, if registered, else to the first format that can.
+ * Response types no format can decode are left to the next converter
+ * factory of retrofit, so they fail when the service method is created.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class NegotiatingConverterFactory extends Converter.Factory {
+    /**
+     * Json media type
+     *
+     * @since 0.9.0
+     */
+    public static final String JSON = "application/json";
+
+    /**
+     * Protocol buffers media type
+     *
+     * @since 0.9.0
+     */
+    public static final String PROTOBUF = "application/x-protobuf";
+
+    /**
+     * MessagePack media type
+     *
+     * @since 0.9.0
+     */
+    public static final String MSGPACK = "application/msgpack";
+
+    /**
+     * CBOR media type
+     *
+     * @since 0.9.0
+     */
+    public static final String CBOR = "application/cbor";
+
+    private final List<String> mediaTypes;
+    private final List<Converter.Factory> factories;
+    private final Map<Method, String> accepts = new ConcurrentHashMap<Method, String>();
+    private final String defaultAccept;
+
+    private NegotiatingConverterFactory(Builder builder) {
+        this.mediaTypes = new ArrayList<String>(builder.mediaTypes);
+        this.factories = new ArrayList<Converter.Factory>(builder.factories);
+        this.defaultAccept = acceptFor(0);
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Registered media types, in preference order
+     *
+     * @return media types
+     */
+    @NonNull
+    public List<String> mediaTypes() {
+        return new ArrayList<String>(mediaTypes);
+    }
+
+    /**
+     * Compute {@code Accept} header of a service method: its {@link Format}
+     * first, then the other registered formats by registration order.
+     *
+     * @param method service method, or null for the service default
+     * @return accept header value
+     */
+    @NonNull
+    public String accept(@Nullable Method method) {
+        if (method == null) {
+            return defaultAccept;
+        }
+        String accept = accepts.get(method);
+        if (accept == null) {
+            accept = acceptFor(indexOf(method.getAnnotations()));
+            accepts.put(method, accept);
+        }
+        return accept;
+    }
+
+    /**
+     * Provider of negotiated {@code Accept} headers, for
+     * {@link com.github.lykmapipo.retrofit.interceptor.HeadersInterceptor}
+     *
+     * @return accept provider
+     */
+    @NonNull
+    public AcceptProvider acceptProvider() {
+        return new AcceptProvider() {
+            @Override
+            public String getAccept(Request request) {
+                Invocation invocation = request.tag(Invocation.class);
+                return accept(invocation != null ? invocation.method() : null);
+            }
+        };
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(
+            @NonNull Type type, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        ResponseConverter converter =
+                new ResponseConverter(type, annotations, retrofit, indexOf(annotations));
+        return converter.fallback >= 0 ? converter : null;
+    }
+
+    @Nullable
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(
+            @NonNull Type type, @NonNull Annotation[] parameterAnnotations,
+            @NonNull Annotation[] methodAnnotations, @NonNull Retrofit retrofit
+    ) {
+        // preferred format first, then fall back by registration order
+        int preferred = indexOf(methodAnnotations);
+        Converter<?, RequestBody> converter = factories.get(preferred)
+                .requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+        for (int i = 0; converter == null && i < factories.size(); i++) {
+            if (i != preferred) {
+                converter = factories.get(i)
+                        .requestBodyConverter(type, parameterAnnotations, methodAnnotations, retrofit);
+            }
+        }
+        return converter;
+    }
+
+    private int indexOf(Annotation[] annotations) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Format) {
+                String mediaType = ((Format) annotation).value();
+                int index = mediaTypes.indexOf(normalize(mediaType));
+                if (index < 0) {
+                    throw new IllegalArgumentException("Unregistered format: " + mediaType);
+                }
+                return index;
+            }
+        }
+        return 0;
+    }
+
+    private int indexOf(@Nullable MediaType contentType) {
+        if (contentType == null) {
+            return -1;
+        }
+        String mediaType = contentType.type() + "/" + contentType.subtype();
+        int index = mediaTypes.indexOf(mediaType.toLowerCase(Locale.US));
+        if (index >= 0) {
+            return index;
+        }
+
+        // structured syntax suffix e.g. application/vnd.api+json
+        String subtype = contentType.subtype().toLowerCase(Locale.US);
+        int plus = subtype.lastIndexOf('+');
+        if (plus >= 0) {
+            String suffix = subtype.substring(plus + 1);
+            for (int i = 0; i < mediaTypes.size(); i++) {
+                if (mediaTypes.get(i).endsWith("/" + suffix)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private String acceptFor(int preferred) {
+        StringBuilder accept = new StringBuilder(mediaTypes.get(preferred));
+        int quality = 9;
+        for (int i = 0; i < mediaTypes.size(); i++) {
+            if (i != preferred) {
+                accept.append(", ").append(mediaTypes.get(i))
+                        .append(";q=0.").append(Math.max(quality--, 1));
+            }
+        }
+        return accept.toString();
+    }
+
+    private static String normalize(String mediaType) {
+        MediaType parsed = MediaType.get(mediaType);
+        return (parsed.type() + "/" + parsed.subtype()).toLowerCase(Locale.US);
+    }
+
+    private final class ResponseConverter implements Converter<ResponseBody, Object> {
+        private final int preferred;
+        private final Converter<?, ?>[] converters;
+        private final int fallback;
+
+        ResponseConverter(Type type, Annotation[] annotations, Retrofit retrofit, int preferred) {
+            this.preferred = preferred;
+            this.converters = new Converter<?, ?>[factories.size()];
+            for (int i = 0; i < converters.length; i++) {
+                converters[i] = factories.get(i).responseBodyConverter(type, annotations, retrofit);
+            }
+
+            // json first, then by registration order
+            int json = mediaTypes.indexOf(JSON);
+            int fallback = json >= 0 && converters[json] != null ? json : -1;
+            for (int i = 0; fallback < 0 && i < converters.length; i++) {
+                if (converters[i] != null) {
+                    fallback = i;
+                }
+            }
+            this.fallback = fallback;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object convert(@NonNull ResponseBody value) throws IOException {
+            int index = indexOf(value.contentType());
+            if (index < 0) {
+                index = preferred;
+            }
+            if (converters[index] == null) {
+                index = fallback;
+            }
+            return ((Converter<ResponseBody, ?>) converters[index]).convert(value);
+        }
+    }
+
+    public static class Builder {
+        private final List<String> mediaTypes = new ArrayList<String>();
+        private final List<Converter.Factory> factories = new ArrayList<Converter.Factory>();
+
+        Builder() {
+        }
+
+        /**
+         * Register a format. The first registered format is the service default.
+         *
+         * @param mediaType valid media type e.g. {@link #MSGPACK}
+         * @param factory   converter factory of the format
+         * @return builder
+         */
+        @NonNull
+        public Builder add(@NonNull String mediaType, @NonNull Converter.Factory factory) {
+            String normalized = normalize(mediaType);
+            if (mediaTypes.contains(normalized)) {
+                throw new IllegalArgumentException("Duplicate format: " + mediaType);
+            }
+            mediaTypes.add(normalized);
+            factories.add(factory);
+            return this;
+        }
+
+        @NonNull
+        public NegotiatingConverterFactory build() {
+            if (factories.isEmpty()) {
+                throw new IllegalStateException("No format registered");
+            }
+            return new NegotiatingConverterFactory(this);
+        }
+    }
+}
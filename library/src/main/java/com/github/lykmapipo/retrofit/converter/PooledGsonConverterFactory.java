@@ -0,0 +1,233 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+
+/**
+ * Gson {@link Converter.Factory} that avoids per body allocations of retrofit's
+ * gson converter, while producing the same bytes on the wire.
+ * <p>
+ * Json is encoded and decoded as UTF-8 through thread local writers and
+ * readers working directly on okio sinks and sources. Request bodies are
+ * serialized into an okio buffer, whose pooled segments are handed to the
+ * network sink without copying. In {@link #streaming()} mode they are instead
+ * serialized straight into the network sink when written, at the cost of an
+ * unknown content length (chunked transfer) and serializing again on retries.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class PooledGsonConverterFactory extends Converter.Factory {
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final ByteString UTF_8_BOM = ByteString.decodeHex("efbbbf");
+    private static final ByteString UTF_16_BE_BOM = ByteString.decodeHex("feff");
+    private static final ByteString UTF_16_LE_BOM = ByteString.decodeHex("fffe");
+
+    private final Gson gson;
+    private final boolean streaming;
+
+    private PooledGsonConverterFactory(Gson gson, boolean streaming) {
+        this.gson = gson;
+        this.streaming = streaming;
+    }
+
+    @NonNull
+    public static PooledGsonConverterFactory create(@NonNull Gson gson) {
+        return new PooledGsonConverterFactory(gson, false);
+    }
+
+    /**
+     * Copy of this factory serializing request bodies while they are written
+     *
+     * @return streaming factory
+     */
+    @NonNull
+    public PooledGsonConverterFactory streaming() {
+        return new PooledGsonConverterFactory(gson, true);
+    }
+
+    @Nullable
+    @Override
+    public Converter<ResponseBody, ?> responseBodyConverter(
+            @NonNull Type type, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        return new ResponseConverter<Object>(gson, adapterFor(type));
+    }
+
+    @Nullable
+    @Override
+    public Converter<?, RequestBody> requestBodyConverter(
+            @NonNull Type type, @NonNull Annotation[] parameterAnnotations,
+            @NonNull Annotation[] methodAnnotations, @NonNull Retrofit retrofit
+    ) {
+        return new RequestConverter<Object>(gson, adapterFor(type), streaming);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TypeAdapter<Object> adapterFor(Type type) {
+        return (TypeAdapter<Object>) gson.getAdapter(TypeToken.get(type));
+    }
+
+    private static <T> void write(
+            Gson gson, TypeAdapter<T> adapter, T value, BufferedSink sink
+    ) throws IOException {
+        Utf8Writer writer = Utf8Writer.acquire(sink);
+        try {
+            JsonWriter jsonWriter = gson.newJsonWriter(writer);
+            adapter.write(jsonWriter, value);
+            jsonWriter.flush();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private static final class RequestConverter<T> implements Converter<T, RequestBody> {
+        private final Gson gson;
+        private final TypeAdapter<T> adapter;
+        private final boolean streaming;
+
+        RequestConverter(Gson gson, TypeAdapter<T> adapter, boolean streaming) {
+            this.gson = gson;
+            this.adapter = adapter;
+            this.streaming = streaming;
+        }
+
+        @Override
+        public RequestBody convert(@NonNull T value) throws IOException {
+            if (streaming) {
+                return new StreamingBody<T>(gson, adapter, value);
+            }
+            Buffer buffer = new Buffer();
+            write(gson, adapter, value, buffer);
+            return new BufferBody(buffer);
+        }
+    }
+
+    private static final class ResponseConverter<T> implements Converter<ResponseBody, T> {
+        private final Gson gson;
+        private final TypeAdapter<T> adapter;
+
+        ResponseConverter(Gson gson, TypeAdapter<T> adapter) {
+            this.gson = gson;
+            this.adapter = adapter;
+        }
+
+        @Override
+        public T convert(@NonNull ResponseBody value) throws IOException {
+            try {
+                BufferedSource source = value.source();
+                if (!isUtf8(value.contentType(), source)) {
+                    return read(gson.newJsonReader(value.charStream()));
+                }
+                if (source.rangeEquals(0, UTF_8_BOM)) {
+                    source.skip(UTF_8_BOM.size());
+                }
+                Utf8Reader reader = Utf8Reader.acquire(source);
+                try {
+                    return read(gson.newJsonReader(reader));
+                } finally {
+                    reader.release();
+                }
+            } finally {
+                value.close();
+            }
+        }
+
+        private T read(JsonReader jsonReader) throws IOException {
+            T result = adapter.read(jsonReader);
+            if (jsonReader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonIOException("JSON document was not fully consumed.");
+            }
+            return result;
+        }
+
+        private static boolean isUtf8(
+                @Nullable MediaType contentType, BufferedSource source
+        ) throws IOException {
+            Charset charset = contentType != null ? contentType.charset(UTF_8) : UTF_8;
+            return UTF_8.equals(charset)
+                    && !source.rangeEquals(0, UTF_16_BE_BOM)
+                    && !source.rangeEquals(0, UTF_16_LE_BOM);
+        }
+    }
+
+    /**
+     * Body of pre serialized json, sharing its segments with the sink
+     */
+    private static final class BufferBody extends RequestBody {
+        private final Buffer buffer;
+
+        BufferBody(Buffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public long contentLength() {
+            return buffer.size();
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            buffer.copyTo(sink.getBuffer(), 0, buffer.size());
+            sink.emitCompleteSegments();
+        }
+    }
+
+    /**
+     * Body serialized while written
+     */
+    private static final class StreamingBody<T> extends RequestBody {
+        private final Gson gson;
+        private final TypeAdapter<T> adapter;
+        private final T value;
+
+        StreamingBody(Gson gson, TypeAdapter<T> adapter, T value) {
+            this.gson = gson;
+            this.adapter = adapter;
+            this.value = value;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return MEDIA_TYPE;
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            write(gson, adapter, value, sink);
+        }
+    }
+}
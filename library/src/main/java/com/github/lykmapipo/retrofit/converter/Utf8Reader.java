@@ -0,0 +1,156 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import okio.BufferedSource;
+
+/**
+ * Reusable {@link Reader} decoding UTF-8 from an okio source through a pooled
+ * byte buffer, without the per body decoder and byte buffer of an
+ * {@link java.io.InputStreamReader}. Malformed input is replaced with U+FFFD.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class Utf8Reader extends Reader {
+    private static final ThreadLocal<Utf8Reader> POOL = new ThreadLocal<Utf8Reader>();
+    private static final char REPLACEMENT = '\uFFFD';
+
+    private final byte[] bytes = new byte[8192];
+    private int pos;
+    private int limit;
+    private char pendingLow;
+    private BufferedSource source;
+
+    private Utf8Reader() {
+    }
+
+    /**
+     * Obtain the reader of the current thread, or a new one if it is in use
+     */
+    static Utf8Reader acquire(@NonNull BufferedSource source) {
+        Utf8Reader reader = POOL.get();
+        if (reader == null) {
+            reader = new Utf8Reader();
+            POOL.set(reader);
+        }
+        if (reader.source != null) {
+            reader = new Utf8Reader();
+        }
+        reader.source = source;
+        reader.pos = 0;
+        reader.limit = 0;
+        reader.pendingLow = 0;
+        return reader;
+    }
+
+    /**
+     * Detach the source, making the reader available again
+     */
+    void release() {
+        source = null;
+    }
+
+    @Override
+    public int read(@NonNull char[] cbuf, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        if (pendingLow != 0) {
+            cbuf[off + n++] = pendingLow;
+            pendingLow = 0;
+        }
+        while (n < len) {
+            // only block for more input when nothing was decoded yet
+            if (pos == limit && (n > 0 || !fill())) {
+                break;
+            }
+
+            int b = bytes[pos] & 0xff;
+            if (b < 0x80) {
+                cbuf[off + n++] = (char) b;
+                pos++;
+                continue;
+            }
+
+            int need = b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 0;
+            if (need == 0 || b > 0xF4) {
+                cbuf[off + n++] = REPLACEMENT;
+                pos++;
+                continue;
+            }
+            while (limit - pos < need && fill()) {
+                // wait for the rest of the sequence
+            }
+            if (limit - pos < need) {
+                cbuf[off + n++] = REPLACEMENT;
+                pos = limit;
+                continue;
+            }
+
+            int codePoint = decode(need);
+            if (codePoint < 0) {
+                cbuf[off + n++] = REPLACEMENT;
+                pos++;
+                continue;
+            }
+            pos += need;
+            if (codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                cbuf[off + n++] = (char) codePoint;
+            } else {
+                cbuf[off + n++] = Character.highSurrogate(codePoint);
+                char low = Character.lowSurrogate(codePoint);
+                if (n < len) {
+                    cbuf[off + n++] = low;
+                } else {
+                    pendingLow = low;
+                }
+            }
+        }
+        return n == 0 ? -1 : n;
+    }
+
+    @Override
+    public void close() {
+        // the source belongs to the response body
+    }
+
+    private int decode(int need) {
+        int codePoint = bytes[pos] & (0xFF >> (need + 1));
+        for (int i = 1; i < need; i++) {
+            int b = bytes[pos + i] & 0xff;
+            if ((b & 0xC0) != 0x80) {
+                return -1;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+        // reject overlong encodings, surrogates and out of range code points
+        boolean overlong = (need == 2 && codePoint < 0x80)
+                || (need == 3 && codePoint < 0x800)
+                || (need == 4 && codePoint < Character.MIN_SUPPLEMENTARY_CODE_POINT);
+        if (overlong || codePoint > Character.MAX_CODE_POINT
+                || (codePoint >= Character.MIN_SURROGATE && codePoint <= Character.MAX_SURROGATE)) {
+            return -1;
+        }
+        return codePoint;
+    }
+
+    private boolean fill() throws IOException {
+        if (pos > 0) {
+            System.arraycopy(bytes, pos, bytes, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        int read = source.read(bytes, limit, bytes.length - limit);
+        if (read == -1) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+}
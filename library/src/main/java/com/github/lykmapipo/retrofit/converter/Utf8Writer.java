@@ -0,0 +1,110 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import okio.BufferedSink;
+
+/**
+ * Reusable {@link Writer} encoding chars as UTF-8 straight into an okio sink,
+ * without the intermediate byte buffer of an {@link java.io.OutputStreamWriter}.
+ * Flushing and closing leave the sink untouched.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class Utf8Writer extends Writer {
+    private static final ThreadLocal<Utf8Writer> POOL = new ThreadLocal<Utf8Writer>();
+
+    private BufferedSink sink;
+    private char pendingHigh;
+
+    private Utf8Writer() {
+    }
+
+    /**
+     * Obtain the writer of the current thread, or a new one if it is in use
+     */
+    static Utf8Writer acquire(@NonNull BufferedSink sink) {
+        Utf8Writer writer = POOL.get();
+        if (writer == null) {
+            writer = new Utf8Writer();
+            POOL.set(writer);
+        }
+        if (writer.sink != null) {
+            writer = new Utf8Writer();
+        }
+        writer.sink = sink;
+        return writer;
+    }
+
+    /**
+     * Detach the sink, making the writer available again
+     */
+    void release() throws IOException {
+        if (pendingHigh != 0) {
+            sink.writeByte('?');
+            pendingHigh = 0;
+        }
+        sink = null;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        char ch = (char) c;
+        if (pendingHigh != 0) {
+            writePair(ch);
+        } else if (Character.isHighSurrogate(ch)) {
+            pendingHigh = ch;
+        } else if (ch < 0x80) {
+            sink.writeByte(ch);
+        } else {
+            sink.writeUtf8CodePoint(ch);
+        }
+    }
+
+    @Override
+    public void write(@NonNull String str, int off, int len) throws IOException {
+        int end = off + len;
+        if (len > 0 && pendingHigh != 0) {
+            writePair(str.charAt(off++));
+        }
+        if (off < end && Character.isHighSurrogate(str.charAt(end - 1))) {
+            pendingHigh = str.charAt(--end);
+        }
+        if (off < end) {
+            sink.writeUtf8(str, off, end);
+        }
+    }
+
+    @Override
+    public void write(@NonNull char[] cbuf, int off, int len) throws IOException {
+        for (int i = off; i < off + len; i++) {
+            write(cbuf[i]);
+        }
+    }
+
+    @Override
+    public void flush() {
+        // bytes are already in the sink, its owner flushes it
+    }
+
+    @Override
+    public void close() {
+        // the sink belongs to the request body
+    }
+
+    private void writePair(char low) throws IOException {
+        char high = pendingHigh;
+        pendingHigh = 0;
+        if (Character.isLowSurrogate(low)) {
+            sink.writeUtf8CodePoint(Character.toCodePoint(high, low));
+        } else {
+            sink.writeByte('?');
+            write(low);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.lykmapipo.retrofit.failover;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.HttpUrl;
+
+/**
+ * Mutable routing state of one base url, guarded by its {@link EndpointPool}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class Endpoint {
+    final HttpUrl baseUrl;
+    final String prefix;
+
+    double latencyMillis;
+    double errorRate;
+    boolean measured;
+    int inFlight;
+    int consecutiveFailures;
+    long ejectedUntilNanos;
+
+    long requests;
+    long failures;
+    long failovers;
+
+    Endpoint(@NonNull HttpUrl baseUrl) {
+        this.baseUrl = baseUrl;
+        this.prefix = baseUrl.toString();
+    }
+
+    boolean isEjected(long nowNanos) {
+        return ejectedUntilNanos != 0L && ejectedUntilNanos - nowNanos > 0;
+    }
+
+    /**
+     * Routing cost, lower is better: smoothed latency weighted by outstanding
+     * calls and inflated by the smoothed error rate.
+     */
+    double score() {
+        double penalty = Math.max(1.0 - errorRate, 0.05);
+        return (latencyMillis + 1.0) * (inFlight + 1) / penalty;
+    }
+}
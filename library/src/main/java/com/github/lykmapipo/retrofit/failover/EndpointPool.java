@@ -0,0 +1,377 @@
+package com.github.lykmapipo.retrofit.failover;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Equivalent base urls of a service, with calls routed to the healthiest one.
+ * <p>
+ * Every endpoint keeps an exponentially weighted moving average (EWMA) of its
+ * latency and error rate. A call goes to the endpoint with the lowest score,
+ * i.e. smoothed latency times outstanding calls, inflated by the error rate;
+ * endpoints without samples score best so they are probed. After
+ * consecutive failures an endpoint is ejected for a while (passive health
+ * checking), and an optional periodic request to a health path of each
+ * endpoint restores or ejects it (active health checking). Failed calls of
+ * idempotent requests are retried on the next best endpoint, see
+ * {@link FailoverInterceptor}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class EndpointPool {
+    /**
+     * Default weight of a new sample in moving averages
+     *
+     * @since 0.9.0
+     */
+    public static final double DEFAULT_SMOOTHING = 0.3;
+
+    /**
+     * Default number of consecutive failures ejecting an endpoint
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_EJECT_AFTER = 3;
+
+    /**
+     * Default time an endpoint stays ejected
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_EJECT_DURATION = 30000L;
+
+    private final List<Endpoint> endpoints;
+    private final double smoothing;
+    private final int ejectAfter;
+    private final long ejectDurationNanos;
+    private final String healthPath;
+    private final long healthIntervalMillis;
+    private Call.Factory client;
+    private ScheduledExecutorService scheduler;
+
+    private EndpointPool(Builder builder) {
+        this.endpoints = new ArrayList<Endpoint>(builder.endpoints);
+        this.smoothing = builder.smoothing;
+        this.ejectAfter = builder.ejectAfter;
+        this.ejectDurationNanos = builder.ejectDurationNanos;
+        this.healthPath = builder.healthPath;
+        this.healthIntervalMillis = builder.healthIntervalMillis;
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Base url services are created with, rewritten per call to the selected endpoint
+     *
+     * @return first base url
+     */
+    @NonNull
+    public String primary() {
+        return endpoints.get(0).prefix;
+    }
+
+    /**
+     * Interceptor routing calls of services created with the pool
+     *
+     * @return failover interceptor
+     */
+    @NonNull
+    public Interceptor interceptor() {
+        return new FailoverInterceptor(this);
+    }
+
+    /**
+     * Set client used for active health checks and start them when configured.
+     * {@link com.github.lykmapipo.retrofit.HttpService} attaches the client of
+     * services created with the pool.
+     *
+     * @param client valid call factory
+     */
+    public synchronized void attach(@NonNull Call.Factory client) {
+        this.client = client;
+        if (healthPath != null && healthIntervalMillis > 0 && scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "EndpointPool health check");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            scheduler.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    checkHealth();
+                }
+            }, healthIntervalMillis, healthIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Request the health path of every endpoint once using the attached client.
+     * Endpoints answering with a successful status are restored, others are
+     * counted as failed.
+     */
+    public void checkHealth() {
+        Call.Factory factory;
+        synchronized (this) {
+            factory = client;
+        }
+        if (factory == null || healthPath == null) {
+            return;
+        }
+        for (Endpoint endpoint : endpoints) {
+            HttpUrl url = endpoint.baseUrl.resolve(healthPath);
+            if (url == null) {
+                continue;
+            }
+            Request request = new Request.Builder()
+                    .url(url)
+                    .tag(HealthCheck.class, HealthCheck.INSTANCE)
+                    .build();
+            long start = System.nanoTime();
+            boolean healthy;
+            try {
+                Response response = factory.newCall(request).execute();
+                healthy = response.isSuccessful();
+                response.close();
+            } catch (IOException e) {
+                healthy = false;
+            }
+            if (healthy) {
+                restore(endpoint, System.nanoTime() - start);
+            } else {
+                release(endpoint, 0L, false, false);
+            }
+        }
+    }
+
+    /**
+     * Stop active health checks
+     */
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Routing metrics per endpoint, in the order base urls were added
+     *
+     * @return endpoint stats
+     */
+    @NonNull
+    public synchronized List<EndpointStats> stats() {
+        long now = System.nanoTime();
+        List<EndpointStats> snapshot = new ArrayList<EndpointStats>(endpoints.size());
+        for (Endpoint endpoint : endpoints) {
+            snapshot.add(new EndpointStats(endpoint, now));
+        }
+        return snapshot;
+    }
+
+    int size() {
+        return endpoints.size();
+    }
+
+    /**
+     * Select the best endpoint not yet tried and mark a call outstanding on it.
+     * Ejected endpoints are only used when every other endpoint was tried.
+     */
+    @Nullable
+    synchronized Endpoint acquire(@NonNull Collection<Endpoint> tried) {
+        long now = System.nanoTime();
+        Endpoint best = null;
+        Endpoint fallback = null;
+        for (Endpoint endpoint : endpoints) {
+            if (tried.contains(endpoint)) {
+                continue;
+            }
+            if (endpoint.isEjected(now)) {
+                // prefer the endpoint returning soonest
+                if (fallback == null || endpoint.ejectedUntilNanos - fallback.ejectedUntilNanos < 0) {
+                    fallback = endpoint;
+                }
+            } else if (best == null || endpoint.score() < best.score()) {
+                best = endpoint;
+            }
+        }
+        Endpoint selected = best != null ? best : fallback;
+        if (selected != null) {
+            selected.inFlight++;
+            selected.requests++;
+        }
+        return selected;
+    }
+
+    /**
+     * Record the outcome of a call on an endpoint
+     */
+    synchronized void release(
+            @NonNull Endpoint endpoint, long latencyNanos, boolean success, boolean outstanding
+    ) {
+        if (outstanding) {
+            endpoint.inFlight--;
+        }
+        endpoint.errorRate += smoothing * ((success ? 0.0 : 1.0) - endpoint.errorRate);
+        if (success) {
+            sample(endpoint, latencyNanos);
+            endpoint.consecutiveFailures = 0;
+            endpoint.ejectedUntilNanos = 0L;
+        } else {
+            endpoint.failures++;
+            endpoint.consecutiveFailures++;
+            if (endpoint.consecutiveFailures >= ejectAfter) {
+                endpoint.ejectedUntilNanos = System.nanoTime() + ejectDurationNanos;
+                endpoint.consecutiveFailures = 0;
+            }
+        }
+    }
+
+    /**
+     * Release a canceled call without recording an outcome
+     */
+    synchronized void abandon(@NonNull Endpoint endpoint) {
+        endpoint.inFlight--;
+    }
+
+    synchronized void failedOver(@NonNull Endpoint endpoint) {
+        endpoint.failovers++;
+    }
+
+    private synchronized void restore(Endpoint endpoint, long latencyNanos) {
+        endpoint.errorRate -= smoothing * endpoint.errorRate;
+        endpoint.consecutiveFailures = 0;
+        endpoint.ejectedUntilNanos = 0L;
+        sample(endpoint, latencyNanos);
+    }
+
+    private void sample(Endpoint endpoint, long latencyNanos) {
+        double millis = latencyNanos / 1000000.0;
+        if (endpoint.measured) {
+            endpoint.latencyMillis += smoothing * (millis - endpoint.latencyMillis);
+        } else {
+            endpoint.latencyMillis = millis;
+            endpoint.measured = true;
+        }
+    }
+
+    /**
+     * Request tag of health checks, which are never rerouted
+     */
+    static final class HealthCheck {
+        static final HealthCheck INSTANCE = new HealthCheck();
+    }
+
+    /**
+     * Endpoint pool builder
+     *
+     * @since 0.9.0
+     */
+    public static class Builder {
+        private final List<Endpoint> endpoints = new ArrayList<Endpoint>();
+        private double smoothing = DEFAULT_SMOOTHING;
+        private int ejectAfter = DEFAULT_EJECT_AFTER;
+        private long ejectDurationNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_EJECT_DURATION);
+        private String healthPath;
+        private long healthIntervalMillis;
+
+        Builder() {
+        }
+
+        /**
+         * Add equivalent base url. The first added base url is preferred
+         * until latencies are measured.
+         *
+         * @param baseUrl valid base url, ending with {@code /}
+         * @return builder
+         */
+        @NonNull
+        public Builder add(@NonNull String baseUrl) {
+            HttpUrl url = HttpUrl.get(baseUrl);
+            if (!url.encodedPath().endsWith("/")) {
+                throw new IllegalArgumentException("baseUrl must end in /: " + baseUrl);
+            }
+            endpoints.add(new Endpoint(url));
+            return this;
+        }
+
+        /**
+         * Set weight of a new sample in latency and error rate moving averages
+         *
+         * @param smoothing valid weight, greater than 0 and at most 1
+         * @return builder
+         */
+        @NonNull
+        public Builder smoothing(double smoothing) {
+            if (smoothing <= 0 || smoothing > 1) {
+                throw new IllegalArgumentException("smoothing must be in (0, 1]: " + smoothing);
+            }
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Eject endpoints failing consecutively. Ejected endpoints receive calls
+         * again once the duration elapses or a health check succeeds.
+         *
+         * @param failures valid number of consecutive failures
+         * @param duration valid ejection duration
+         * @param unit     duration unit
+         * @return builder
+         */
+        @NonNull
+        public Builder ejection(int failures, long duration, @NonNull TimeUnit unit) {
+            if (failures < 1) {
+                throw new IllegalArgumentException("failures < 1: " + failures);
+            }
+            this.ejectAfter = failures;
+            this.ejectDurationNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * Periodically request a health path of every endpoint
+         *
+         * @param path     valid path, relative to each base url
+         * @param interval valid interval between checks
+         * @param unit     interval unit
+         * @return builder
+         */
+        @NonNull
+        public Builder healthCheck(@NonNull String path, long interval, @NonNull TimeUnit unit) {
+            this.healthPath = path;
+            this.healthIntervalMillis = unit.toMillis(interval);
+            return this;
+        }
+
+        @NonNull
+        public EndpointPool build() {
+            if (endpoints.isEmpty()) {
+                throw new IllegalStateException("base url required");
+            }
+            return new EndpointPool(this);
+        }
+    }
+}
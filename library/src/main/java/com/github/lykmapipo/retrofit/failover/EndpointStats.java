@@ -0,0 +1,114 @@
+package com.github.lykmapipo.retrofit.failover;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Routing metrics of one base url of an {@link EndpointPool}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class EndpointStats {
+    private final String baseUrl;
+    private final boolean healthy;
+    private final double latencyMillis;
+    private final double errorRate;
+    private final int inFlight;
+    private final long requests;
+    private final long failures;
+    private final long failovers;
+
+    EndpointStats(Endpoint endpoint, long nowNanos) {
+        this.baseUrl = endpoint.prefix;
+        this.healthy = !endpoint.isEjected(nowNanos);
+        this.latencyMillis = endpoint.latencyMillis;
+        this.errorRate = endpoint.errorRate;
+        this.inFlight = endpoint.inFlight;
+        this.requests = endpoint.requests;
+        this.failures = endpoint.failures;
+        this.failovers = endpoint.failovers;
+    }
+
+    @NonNull
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Whether the endpoint currently receives calls, i.e. is not ejected
+     *
+     * @return true if healthy
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Exponentially weighted moving average of time to response headers
+     *
+     * @return smoothed latency in milliseconds
+     */
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Exponentially weighted moving average of failed calls, between 0 and 1
+     *
+     * @return smoothed error rate
+     */
+    public double getErrorRate() {
+        return errorRate;
+    }
+
+    /**
+     * Number of calls currently outstanding on the endpoint
+     *
+     * @return outstanding calls
+     */
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Number of calls routed to the endpoint
+     *
+     * @return routed calls
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Number of calls failed with an i/o error or server error
+     *
+     * @return failed calls
+     */
+    public long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Number of failed calls retried on another endpoint
+     *
+     * @return failed over calls
+     */
+    public long getFailovers() {
+        return failovers;
+    }
+
+    @Override
+    public String toString() {
+        return "EndpointStats{" +
+                "baseUrl='" + baseUrl + '\'' +
+                ", healthy=" + healthy +
+                ", latencyMillis=" + latencyMillis +
+                ", errorRate=" + errorRate +
+                ", inFlight=" + inFlight +
+                ", requests=" + requests +
+                ", failures=" + failures +
+                ", failovers=" + failovers +
+                '}';
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.lykmapipo.retrofit.failover;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.limit.ResponseTooLargeException;
+import com.github.lykmapipo.retrofit.offline.OfflineQueue;
+import com.github.lykmapipo.retrofit.timeout.Deadline;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+
+/**
+ * Http interceptor routing each call to the best endpoint of an
+ * {@link EndpointPool}, and retrying failed idempotent calls on the others.
+ * <p>
+ * Requests are rewritten from the primary base url to the selected one. A
+ * call fails on an i/o error or a server error status; it is then retried on
+ * the next best endpoint if its method is idempotent ({@code GET},
+ * {@code HEAD}, {@code OPTIONS}, {@code PUT}, {@code DELETE}) or it carries
+ * an {@code Idempotency-Key} header, and its body can be sent again. The
+ * last failure is returned once every endpoint was tried or the call's
+ * {@link Deadline} passed.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class FailoverInterceptor implements Interceptor {
+    private final EndpointPool pool;
+
+    public FailoverInterceptor(@NonNull EndpointPool pool) {
+        this.pool = pool;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        String url = request.url().toString();
+        String primary = pool.primary();
+        if (request.tag(EndpointPool.HealthCheck.class) != null || !url.startsWith(primary)) {
+            return chain.proceed(request);
+        }
+
+        String path = url.substring(primary.length());
+        boolean retryable = isIdempotent(request);
+        List<Endpoint> tried = new ArrayList<Endpoint>(pool.size());
+        while (true) {
+            Endpoint endpoint = pool.acquire(tried);
+            if (endpoint == null) {
+                // every endpoint tried, nothing left to report
+                throw new IOException("no endpoint available");
+            }
+            tried.add(endpoint);
+            Deadline deadline = Deadline.of(request);
+            boolean last = !retryable || tried.size() >= pool.size()
+                    || (deadline != null && deadline.isExpired());
+
+            Request routed = request.newBuilder().url(endpoint.prefix + path).build();
+            long start = System.nanoTime();
+            Response response;
+            try {
+                response = chain.proceed(routed);
+            } catch (IOException e) {
+                if (chain.call().isCanceled()) {
+                    // canceled by the caller, not a failure of the endpoint
+                    pool.abandon(endpoint);
+                    throw e;
+                }
+                if (e instanceof ResponseTooLargeException) {
+                    // the endpoint answered, the body is too large anywhere
+                    pool.release(endpoint, System.nanoTime() - start, true, true);
+                    throw e;
+                }
+                pool.release(endpoint, 0L, false, true);
+                if (last) {
+                    throw e;
+                }
+                pool.failedOver(endpoint);
+                continue;
+            }
+
+            boolean failed = response.code() >= 500;
+            pool.release(endpoint, System.nanoTime() - start, !failed, true);
+            if (!failed || last || !isRetryableStatus(response.code())) {
+                return response;
+            }
+            response.close();
+            pool.failedOver(endpoint);
+        }
+    }
+
+    private static boolean isIdempotent(Request request) {
+        RequestBody body = request.body();
+        if (body != null && body.isOneShot()) {
+            return false;
+        }
+        String method = request.method();
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)
+                || "PUT".equals(method) || "DELETE".equals(method)
+                || request.header(OfflineQueue.IDEMPOTENCY_KEY) != null;
+    }
+
+    private static boolean isRetryableStatus(int code) {
+        return code == 502 || code == 503 || code == 504;
+    }
+}
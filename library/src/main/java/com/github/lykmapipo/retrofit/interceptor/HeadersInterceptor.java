@@ -4,6 +4,8 @@ import android.text.TextUtils;
 
 import androidx.annotation.Nullable;
 
+import com.github.lykmapipo.retrofit.provider.AcceptProvider;
+
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -22,11 +24,19 @@ import okhttp3.Response;
 public class HeadersInterceptor implements Interceptor {
 
     private Map<String, String> providedHeaders;
+    private AcceptProvider acceptProvider;
 
     public HeadersInterceptor(@Nullable Map<String, String> providedHeaders) {
         this.providedHeaders = providedHeaders;
     }
 
+    public HeadersInterceptor(
+            @Nullable Map<String, String> providedHeaders, @Nullable AcceptProvider acceptProvider
+    ) {
+        this.providedHeaders = providedHeaders;
+        this.acceptProvider = acceptProvider;
+    }
+
     public HeadersInterceptor() {
     }
 
@@ -39,6 +49,14 @@ public class HeadersInterceptor implements Interceptor {
         defaultHeaders.put("Content-Type", "application/json");
         defaultHeaders.put("Accept", "application/json");
 
+        // use negotiated accept
+        if (acceptProvider != null) {
+            String accept = acceptProvider.getAccept(original);
+            if (!TextUtils.isEmpty(accept)) {
+                defaultHeaders.put("Accept", accept);
+            }
+        }
+
         // merge custom providedHeaders
         if (providedHeaders != null && !providedHeaders.isEmpty()) {
             defaultHeaders.putAll(providedHeaders);
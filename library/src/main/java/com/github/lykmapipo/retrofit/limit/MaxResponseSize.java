@@ -0,0 +1,34 @@
+package com.github.lykmapipo.retrofit.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Limit the response body size of the annotated service method, overriding
+ * the service default. Larger responses fail with a
+ * {@link ResponseTooLargeException}.
+ *
+ * <pre>
+ * &#64;MaxResponseSize(256 * 1024)
+ * &#64;GET("users")
+ * Call&lt;List&lt;User&gt;&gt; list();
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface MaxResponseSize {
+    /**
+     * Maximum body size in bytes, or zero for no limit
+     *
+     * @return maximum size
+     */
+    long value();
+}
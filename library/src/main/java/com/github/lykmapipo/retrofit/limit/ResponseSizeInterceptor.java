@@ -0,0 +1,184 @@
+package com.github.lykmapipo.retrofit.limit;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.retrofit.stream.EventStream;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * Http interceptor that guards response body sizes and optionally spills
+ * large bodies to disk before they are converted.
+ * <p>
+ * A body whose {@code Content-Length} exceeds the limit of its service method,
+ * see {@link MaxResponseSize}, fails before it is read; other bodies fail as
+ * soon as more bytes than the limit are read. When spilling is enabled,
+ * bodies above the threshold are downloaded to a temporary file, which is
+ * deleted once the body is closed, and converted from there. Event streams,
+ * {@link EventStream} requests and {@link Streaming} methods are left alone
+ * unless explicitly annotated, and are never spilled.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class ResponseSizeInterceptor implements Interceptor {
+    private static final long SEGMENT_SIZE = 8192L;
+
+    private final long maxSize;
+    private final File spillDirectory;
+    private final long spillThreshold;
+
+    public ResponseSizeInterceptor(long maxSize) {
+        this(maxSize, null, 0L);
+    }
+
+    public ResponseSizeInterceptor(
+            long maxSize, @Nullable File spillDirectory, long spillThreshold
+    ) {
+        this.maxSize = maxSize;
+        this.spillDirectory = spillDirectory;
+        this.spillThreshold = spillThreshold;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        Invocation invocation = request.tag(Invocation.class);
+        Method method = invocation != null ? invocation.method() : null;
+        MaxResponseSize annotation =
+                method != null ? method.getAnnotation(MaxResponseSize.class) : null;
+        boolean streaming = EventStream.isStream(request)
+                || (method != null && method.getAnnotation(Streaming.class) != null);
+
+        Response response = chain.proceed(request);
+        ResponseBody body = response.body();
+        if (body == null || (annotation == null && (streaming || isStream(body.contentType())))) {
+            return response;
+        }
+
+        long limit = annotation != null ? annotation.value() : maxSize;
+        boolean spill = spillDirectory != null && !streaming;
+        if (limit <= 0 && !spill) {
+            return response;
+        }
+
+        // fail early on declared length
+        long length = body.contentLength();
+        if (limit > 0 && length > limit) {
+            response.close();
+            throw new ResponseTooLargeException(limit, length);
+        }
+
+        BufferedSource source = limit > 0
+                ? Okio.buffer(new LimitedSource(body.source(), limit)) : body.source();
+        ResponseBody guarded = spill && (length < 0 || length > spillThreshold)
+                ? spill(source, body.contentType())
+                : ResponseBody.create(source, body.contentType(), length);
+        return response.newBuilder().body(guarded).build();
+    }
+
+    private ResponseBody spill(BufferedSource source, MediaType contentType) throws IOException {
+        File file = null;
+        try {
+            // keep bodies of unknown length in memory until over threshold
+            Buffer head = new Buffer();
+            while (head.size() <= spillThreshold) {
+                if (source.read(head, SEGMENT_SIZE) == -1) {
+                    source.close();
+                    return ResponseBody.create(head, contentType, head.size());
+                }
+            }
+
+            file = File.createTempFile("retrofit-", ".body", spillDirectory);
+            BufferedSink sink = Okio.buffer(Okio.sink(file));
+            try {
+                sink.writeAll(head);
+                sink.writeAll(source);
+            } finally {
+                sink.close();
+            }
+            source.close();
+            return ResponseBody.create(
+                    Okio.buffer(new SpilledSource(file)), contentType, file.length());
+        } catch (IOException e) {
+            source.close();
+            if (file != null) {
+                file.delete();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isStream(@Nullable MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String subtype = contentType.subtype();
+        return "event-stream".equalsIgnoreCase(subtype) || "x-ndjson".equalsIgnoreCase(subtype);
+    }
+
+    /**
+     * Source failing once more than a limit of bytes is read
+     */
+    private static final class LimitedSource extends ForwardingSource {
+        private final long limit;
+        private long count;
+
+        LimitedSource(Source delegate, long limit) {
+            super(delegate);
+            this.limit = limit;
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            long read = super.read(sink, byteCount);
+            if (read > 0) {
+                count += read;
+                if (count > limit) {
+                    throw new ResponseTooLargeException(limit, -1L);
+                }
+            }
+            return read;
+        }
+    }
+
+    /**
+     * Source of a spilled body, deleting its file when closed
+     */
+    private static final class SpilledSource extends ForwardingSource {
+        private final File file;
+
+        SpilledSource(File file) throws IOException {
+            super(Okio.source(file));
+            this.file = file;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                file.delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.github.lykmapipo.retrofit.limit;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a response body exceeds its maximum size
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class ResponseTooLargeException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final long maxSize;
+    private final long size;
+
+    public ResponseTooLargeException(long maxSize, long size) {
+        super("Response body of " + (size < 0 ? "more than " + maxSize : size)
+                + " bytes exceeds maximum of " + maxSize + " bytes");
+        this.maxSize = maxSize;
+        this.size = size;
+    }
+
+    /**
+     * Maximum body size in bytes
+     *
+     * @return maximum size
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Declared body size in bytes, or -1 when detected while reading
+     *
+     * @return body size
+     */
+    public long getSize() {
+        return size;
+    }
+}
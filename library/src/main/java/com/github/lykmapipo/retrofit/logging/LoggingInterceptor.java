@@ -0,0 +1,125 @@
+package com.github.lykmapipo.retrofit.logging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.retrofit.offline.RequestCodec;
+import com.github.lykmapipo.retrofit.stream.EventStream;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import retrofit2.Invocation;
+import retrofit2.http.Streaming;
+
+/**
+ * Http interceptor capturing sampled calls for a {@link TrafficLogger}.
+ * <p>
+ * Unsampled calls pass straight through. For sampled calls only raw data is
+ * captured on the calling thread: immutable headers, request bodies of known
+ * size within the body cap, and a peek of at most the body cap of response
+ * bodies. Formatting, redaction and writing happen on the logger's writer.
+ * Event streams and {@link Streaming} responses are not peeked.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class LoggingInterceptor implements Interceptor {
+    private final TrafficLogger logger;
+
+    public LoggingInterceptor(@NonNull TrafficLogger logger) {
+        this.logger = logger;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        if (!logger.sample()) {
+            return chain.proceed(request);
+        }
+
+        long maxBodySize = logger.maxBodySize();
+        TrafficRecord record = new TrafficRecord();
+        record.timestamp = System.currentTimeMillis();
+        record.method = request.method();
+        record.url = request.url().toString();
+        record.requestHeaders = request.headers();
+        RequestBody requestBody = request.body();
+        if (requestBody != null) {
+            record.requestContentType = requestBody.contentType();
+            record.requestBodySize = requestBody.contentLength();
+            if (maxBodySize > 0 && record.requestBodySize >= 0
+                    && record.requestBodySize <= maxBodySize
+                    && !RequestCodec.isOneShot(requestBody) && !requestBody.isDuplex()) {
+                Buffer buffer = new Buffer();
+                requestBody.writeTo(buffer);
+                record.requestBody = buffer.readByteArray();
+            }
+        }
+
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = chain.proceed(request);
+        } catch (IOException e) {
+            record.durationNanos = System.nanoTime() - start;
+            record.error = e.toString();
+            logger.log(record);
+            throw e;
+        }
+        record.durationNanos = System.nanoTime() - start;
+        record.code = response.code();
+        record.responseHeaders = response.headers();
+
+        ResponseBody responseBody = response.body();
+        if (responseBody != null) {
+            record.responseContentType = responseBody.contentType();
+            record.responseBodySize = responseBody.contentLength();
+            if (maxBodySize > 0 && !isStreaming(request, record.responseContentType)) {
+                try {
+                    record.responseBody = response.peekBody(maxBodySize).bytes();
+                } catch (IOException e) {
+                    // reported to the caller when the body is read
+                }
+            }
+        }
+        logger.log(record);
+        return response;
+    }
+
+    /**
+     * Check if a response is streamed, i.e. it answers an {@link EventStream}
+     * request, its service method is annotated with {@link Streaming} or it
+     * is an event or ndjson stream. Peeking such
+     * a response blocks until the stream ends or the peek size is read.
+     *
+     * @param request     valid request
+     * @param contentType response content type
+     * @return true if the response is streamed
+     * @since 0.9.0
+     */
+    public static boolean isStreaming(@NonNull Request request, @Nullable MediaType contentType) {
+        if (EventStream.isStream(request)) {
+            return true;
+        }
+        Invocation invocation = request.tag(Invocation.class);
+        Method method = invocation != null ? invocation.method() : null;
+        if (method != null && method.getAnnotation(Streaming.class) != null) {
+            return true;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        String subtype = contentType.subtype();
+        return "event-stream".equalsIgnoreCase(subtype) || "x-ndjson".equalsIgnoreCase(subtype);
+    }
+}
@@ -0,0 +1,523 @@
+package com.github.lykmapipo.retrofit.logging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import okhttp3.Headers;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okio.BufferedSink;
+import okio.ByteString;
+import okio.Okio;
+
+/**
+ * Logs sampled http traffic to a rotating local file, off the calling thread.
+ * <p>
+ * {@link LoggingInterceptor} captures a sample of calls, with request and
+ * response bodies capped to a maximum size, and hands each record to a
+ * lock-free ring buffer. Callers never block: records are dropped and
+ * counted when the buffer is full. A background writer formats records as
+ * json lines, redacting configured headers, query parameters and body
+ * fields, and rotates the log file once it reaches its maximum size.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class TrafficLogger {
+    /**
+     * Default number of records buffered for the writer
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    /**
+     * Default number of body bytes logged
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_MAX_BODY_SIZE = 4096L;
+
+    /**
+     * Default log file size triggering rotation
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_MAX_FILE_SIZE = 1024L * 1024L;
+
+    /**
+     * Default number of rotated log files kept
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_MAX_FILES = 3;
+
+    /**
+     * Replacement of redacted values
+     *
+     * @since 0.9.0
+     */
+    public static final String REDACTED = "[redacted]";
+
+    /**
+     * Lower case names of credential and cookie headers, always redacted
+     *
+     * @since 0.9.0
+     */
+    public static final Set<String> SENSITIVE_HEADERS = Collections.unmodifiableSet(
+            new HashSet<String>(Arrays.asList(
+                    "authorization", "proxy-authorization", "cookie", "set-cookie")));
+
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final File file;
+    private final double sampleRate;
+    private final long maxBodySize;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final Set<String> redactedHeaders;
+    private final Set<String> redactedFields;
+    private final Pattern jsonFields;
+    private final Pattern formFields;
+
+    private final RingBuffer<TrafficRecord> buffer;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final Thread writer;
+    private volatile long flushed;
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    private TrafficLogger(Builder builder) {
+        this.file = builder.file;
+        this.sampleRate = builder.sampleRate;
+        this.maxBodySize = builder.maxBodySize;
+        this.maxFileSize = builder.maxFileSize;
+        this.maxFiles = builder.maxFiles;
+        this.redactedHeaders = new HashSet<String>(builder.redactedHeaders);
+        this.redactedFields = new HashSet<String>(builder.redactedFields);
+        if (redactedFields.isEmpty()) {
+            this.jsonFields = null;
+            this.formFields = null;
+        } else {
+            StringBuilder names = new StringBuilder();
+            for (String field : redactedFields) {
+                names.append(names.length() > 0 ? "|" : "").append(Pattern.quote(field));
+            }
+            this.jsonFields = Pattern.compile(
+                    "(\"(?:" + names + ")\"\\s*:\\s*)(\"(?:[^\"\\\\]|\\\\.)*\"|[^,}\\]\\s]+)");
+            this.formFields = Pattern.compile("((?:^|&)(?:" + names + ")=)[^&]*");
+        }
+        this.buffer = new RingBuffer<TrafficRecord>(builder.bufferSize);
+        this.writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "TrafficLogger writer");
+        this.writer.setDaemon(true);
+        this.writer.setPriority(Thread.MIN_PRIORITY);
+        this.writer.start();
+    }
+
+    @NonNull
+    public static Builder builder(@NonNull File file) {
+        return new Builder(file);
+    }
+
+    /**
+     * Interceptor logging calls of services created with the logger
+     *
+     * @return logging interceptor
+     */
+    @NonNull
+    public Interceptor interceptor() {
+        return new LoggingInterceptor(this);
+    }
+
+    /**
+     * Number of records written to the log file
+     *
+     * @return written records
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * Number of records dropped because the buffer was full or the log
+     * file could not be written
+     *
+     * @return dropped records
+     */
+    public long getDropped() {
+        return dropped.get() + failed.get();
+    }
+
+    /**
+     * Wait until records logged so far are written and flushed
+     *
+     * @param timeout valid timeout
+     * @param unit    timeout unit
+     * @return true if flushed before timeout
+     */
+    public boolean flush(long timeout, @NonNull TimeUnit unit) {
+        long target = accepted.get();
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        LockSupport.unpark(writer);
+        while (flushed + failed.get() < target) {
+            if (deadline - System.nanoTime() <= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting records and let the writer drain the buffer and exit
+     */
+    public void close() {
+        closed = true;
+        LockSupport.unpark(writer);
+    }
+
+    boolean sample() {
+        return !closed && (sampleRate >= 1.0
+                || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate));
+    }
+
+    long maxBodySize() {
+        return maxBodySize;
+    }
+
+    /**
+     * Hand record to the writer, never blocking
+     */
+    void log(@NonNull TrafficRecord record) {
+        if (closed || !buffer.offer(record)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        accepted.incrementAndGet();
+        if (idle) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void drain() {
+        BufferedSink sink = null;
+        long size = 0L;
+        while (true) {
+            TrafficRecord record = buffer.poll();
+            if (record != null) {
+                try {
+                    if (sink == null) {
+                        File parent = file.getParentFile();
+                        if (parent != null) {
+                            parent.mkdirs();
+                        }
+                        size = file.length();
+                        sink = Okio.buffer(Okio.appendingSink(file));
+                    }
+                    ByteString line = ByteString.encodeUtf8(format(record).toString());
+                    sink.write(line).writeByte('\n');
+                    size += line.size() + 1;
+                    written.incrementAndGet();
+                    if (size >= maxFileSize) {
+                        sink.close();
+                        sink = null;
+                        rotate();
+                    }
+                } catch (IOException e) {
+                    failed.incrementAndGet();
+                    sink = closeQuietly(sink);
+                }
+                continue;
+            }
+
+            // buffer drained, flush and wait for more
+            if (sink != null) {
+                try {
+                    sink.flush();
+                } catch (IOException e) {
+                    sink = closeQuietly(sink);
+                }
+            }
+            flushed = written.get();
+            if (closed) {
+                closeQuietly(sink);
+                return;
+            }
+            idle = true;
+            LockSupport.parkNanos(this, IDLE_NANOS);
+            idle = false;
+        }
+    }
+
+    private void rotate() {
+        File oldest = new File(file.getPath() + "." + maxFiles);
+        oldest.delete();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            File rotated = new File(file.getPath() + "." + i);
+            if (rotated.exists()) {
+                rotated.renameTo(new File(file.getPath() + "." + (i + 1)));
+            }
+        }
+        if (maxFiles > 0) {
+            file.renameTo(new File(file.getPath() + ".1"));
+        } else {
+            file.delete();
+        }
+    }
+
+    private JsonObject format(TrafficRecord record) {
+        JsonObject json = new JsonObject();
+        json.addProperty("timestamp", record.timestamp);
+        json.addProperty("method", record.method);
+        json.addProperty("url", redact(record.url));
+        json.addProperty("durationMillis", record.durationNanos / 1000000.0);
+        json.add("requestHeaders", format(record.requestHeaders));
+        addBody(json, "requestBody", record.requestBody, record.requestBodySize, record.requestContentType);
+        if (record.error != null) {
+            json.addProperty("error", record.error);
+            return json;
+        }
+        json.addProperty("code", record.code);
+        json.add("responseHeaders", format(record.responseHeaders));
+        addBody(json, "responseBody", record.responseBody, record.responseBodySize, record.responseContentType);
+        return json;
+    }
+
+    /**
+     * Replace values of headers with {@link #REDACTED}
+     *
+     * @param headers valid headers
+     * @param names   lower case names of redacted headers
+     * @return redacted headers
+     * @since 0.9.0
+     */
+    @NonNull
+    public static Headers redact(@NonNull Headers headers, @NonNull Set<String> names) {
+        Headers.Builder builder = null;
+        for (String name : headers.names()) {
+            if (names.contains(name.toLowerCase(Locale.ENGLISH))) {
+                if (builder == null) {
+                    builder = headers.newBuilder();
+                }
+                builder.set(name, REDACTED);
+            }
+        }
+        return builder != null ? builder.build() : headers;
+    }
+
+    private JsonObject format(@Nullable Headers headers) {
+        JsonObject json = new JsonObject();
+        if (headers == null) {
+            return json;
+        }
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            String name = headers.name(i);
+            boolean redacted = redactedHeaders.contains(name.toLowerCase(Locale.ENGLISH));
+            json.addProperty(name, redacted ? REDACTED : headers.value(i));
+        }
+        return json;
+    }
+
+    private void addBody(
+            JsonObject json, String name, @Nullable byte[] body, long size, @Nullable MediaType contentType
+    ) {
+        if (size >= 0) {
+            json.addProperty(name + "Size", size);
+        }
+        if (body == null) {
+            return;
+        }
+        if (!isText(contentType)) {
+            json.addProperty(name, "(" + body.length + " binary bytes)");
+            return;
+        }
+        Charset charset = contentType != null ? contentType.charset(UTF_8) : UTF_8;
+        json.addProperty(name, redactBody(new String(body, charset)));
+        boolean truncated = size < 0 ? body.length >= maxBodySize : body.length < size;
+        if (truncated) {
+            json.addProperty(name + "Truncated", true);
+        }
+    }
+
+    private String redact(String url) {
+        if (redactedFields.isEmpty()) {
+            return url;
+        }
+        HttpUrl parsed = HttpUrl.parse(url);
+        if (parsed == null || parsed.querySize() == 0) {
+            return url;
+        }
+        HttpUrl.Builder builder = parsed.newBuilder();
+        for (String name : parsed.queryParameterNames()) {
+            if (redactedFields.contains(name)) {
+                builder.setQueryParameter(name, REDACTED);
+            }
+        }
+        return builder.build().toString();
+    }
+
+    private String redactBody(String body) {
+        if (jsonFields == null) {
+            return body;
+        }
+        Matcher json = jsonFields.matcher(body);
+        String redacted = json.replaceAll("$1\"" + Matcher.quoteReplacement(REDACTED) + "\"");
+        return formFields.matcher(redacted).replaceAll("$1" + Matcher.quoteReplacement(REDACTED));
+    }
+
+    private static boolean isText(@Nullable MediaType contentType) {
+        if (contentType == null) {
+            return true;
+        }
+        String subtype = contentType.subtype().toLowerCase(Locale.ENGLISH);
+        return "text".equalsIgnoreCase(contentType.type())
+                || subtype.contains("json") || subtype.contains("xml")
+                || subtype.equals("x-www-form-urlencoded");
+    }
+
+    @Nullable
+    private static BufferedSink closeQuietly(@Nullable BufferedSink sink) {
+        if (sink != null) {
+            try {
+                sink.close();
+            } catch (IOException ignore) {
+                // already failing
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Traffic logger builder
+     *
+     * @since 0.9.0
+     */
+    public static class Builder {
+        private final File file;
+        private double sampleRate = 1.0;
+        private long maxBodySize = DEFAULT_MAX_BODY_SIZE;
+        private long maxFileSize = DEFAULT_MAX_FILE_SIZE;
+        private int maxFiles = DEFAULT_MAX_FILES;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private final Set<String> redactedHeaders = new HashSet<String>();
+        private final Set<String> redactedFields = new HashSet<String>();
+
+        Builder(@NonNull File file) {
+            this.file = file;
+            this.redactedHeaders.addAll(SENSITIVE_HEADERS);
+        }
+
+        /**
+         * Set fraction of calls logged
+         *
+         * @param sampleRate valid rate, from 0 (none) to 1 (all). The default is 1.
+         * @return builder
+         */
+        @NonNull
+        public Builder sampleRate(double sampleRate) {
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("sampleRate must be in [0, 1]: " + sampleRate);
+            }
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Set number of request and response body bytes logged. Request bodies
+         * of unknown or larger size are not captured.
+         *
+         * @param maxBodySize valid size (in bytes), zero to log no bodies
+         * @return builder
+         */
+        @NonNull
+        public Builder maxBodySize(long maxBodySize) {
+            this.maxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Set log file rotation
+         *
+         * @param maxFileSize valid size (in bytes) triggering rotation
+         * @param maxFiles    valid number of rotated files kept
+         * @return builder
+         */
+        @NonNull
+        public Builder rotation(long maxFileSize, int maxFiles) {
+            this.maxFileSize = maxFileSize;
+            this.maxFiles = maxFiles;
+            return this;
+        }
+
+        /**
+         * Set number of records buffered for the writer, beyond which records
+         * are dropped
+         *
+         * @param bufferSize valid size, rounded up to a power of two
+         * @return builder
+         */
+        @NonNull
+        public Builder bufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Redact value of a header. {@code Authorization}, {@code Proxy-Authorization},
+         * {@code Cookie} and {@code Set-Cookie} are always redacted.
+         *
+         * @param name valid header name
+         * @return builder
+         */
+        @NonNull
+        public Builder redactHeader(@NonNull String name) {
+            this.redactedHeaders.add(name.toLowerCase(Locale.ENGLISH));
+            return this;
+        }
+
+        /**
+         * Redact value of a query parameter, json body field or form body field
+         *
+         * @param name valid field name
+         * @return builder
+         */
+        @NonNull
+        public Builder redactField(@NonNull String name) {
+            this.redactedFields.add(name);
+            return this;
+        }
+
+        @NonNull
+        public TrafficLogger build() {
+            return new TrafficLogger(this);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.lykmapipo.retrofit.logging;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+
+/**
+ * Raw data of one logged call, captured on the calling thread and formatted
+ * by the writer thread
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class TrafficRecord {
+    long timestamp;
+    String method;
+    String url;
+    Headers requestHeaders;
+    MediaType requestContentType;
+    byte[] requestBody;
+    long requestBodySize = -1L;
+    int code;
+    Headers responseHeaders;
+    MediaType responseContentType;
+    byte[] responseBody;
+    long responseBodySize = -1L;
+    long durationNanos;
+    String error;
+}
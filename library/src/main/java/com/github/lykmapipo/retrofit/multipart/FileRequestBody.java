@@ -0,0 +1,62 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * {@link RequestBody} streamed from a {@link File} when written, keeping
+ * a reference to its file.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class FileRequestBody extends RequestBody {
+    private final File file;
+    private final MediaType contentType;
+
+    public FileRequestBody(@NonNull File file, @Nullable MediaType contentType) {
+        this.file = file;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Body file
+     *
+     * @return file
+     */
+    @NonNull
+    public File file() {
+        return file;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return file.length();
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        Source source = Okio.source(file);
+        try {
+            sink.writeAll(source);
+        } finally {
+            source.close();
+        }
+    }
+}
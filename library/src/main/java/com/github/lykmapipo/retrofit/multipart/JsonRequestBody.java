@@ -0,0 +1,49 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+
+/**
+ * {@link RequestBody} serialized with gson straight into the sink when written
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class JsonRequestBody extends RequestBody {
+    private static final MediaType MEDIA_TYPE = MediaType.get("application/json; charset=UTF-8");
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Gson gson;
+    private final Object value;
+
+    public JsonRequestBody(@NonNull Gson gson, @NonNull Object value) {
+        this.gson = gson;
+        this.value = value;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return MEDIA_TYPE;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        // leave the sink open, it belongs to the multipart body
+        Writer writer = new OutputStreamWriter(sink.outputStream(), UTF_8);
+        gson.toJson(value, writer);
+        writer.flush();
+    }
+}
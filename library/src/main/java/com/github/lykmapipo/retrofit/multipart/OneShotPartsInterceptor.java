@@ -0,0 +1,76 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.retrofit.offline.RequestCodec;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+
+/**
+ * Http interceptor marking multipart bodies with a one shot part, e.g. a
+ * streamed {@link SourceRequestBody}, as one shot.
+ * <p>
+ * A {@link MultipartBody} never reports itself one shot, so okhttp would
+ * write it again on connection retries, redirects and authentication
+ * follow ups, sending a drained part without error. Marked bodies fail
+ * those instead.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class OneShotPartsInterceptor implements Interceptor {
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        RequestBody body = request.body();
+        if (body instanceof MultipartBody && RequestCodec.isOneShot(body)) {
+            request = request.newBuilder()
+                    .method(request.method(), new OneShotBody(body))
+                    .build();
+        }
+        return chain.proceed(request);
+    }
+
+    /**
+     * Body reporting itself one shot, delegating everything else
+     */
+    private static final class OneShotBody extends RequestBody {
+        private final RequestBody delegate;
+
+        OneShotBody(RequestBody delegate) {
+            this.delegate = delegate;
+        }
+
+        @Nullable
+        @Override
+        public MediaType contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public long contentLength() throws IOException {
+            return delegate.contentLength();
+        }
+
+        @Override
+        public boolean isOneShot() {
+            return true;
+        }
+
+        @Override
+        public void writeTo(@NonNull BufferedSink sink) throws IOException {
+            delegate.writeTo(sink);
+        }
+    }
+}
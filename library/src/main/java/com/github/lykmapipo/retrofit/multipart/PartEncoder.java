@@ -0,0 +1,31 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import okhttp3.RequestBody;
+
+/**
+ * Encode values of a type into multipart part bodies. Bodies should defer
+ * reading their value until written, so large values stream into the
+ * multipart sink instead of being copied on the heap.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public abstract class PartEncoder<T> {
+    @NonNull
+    public abstract RequestBody encode(@NonNull T value);
+
+    /**
+     * File name of the part, if any
+     *
+     * @param value valid value
+     * @return file name or null
+     */
+    @Nullable
+    public String filename(@NonNull T value) {
+        return null;
+    }
+}
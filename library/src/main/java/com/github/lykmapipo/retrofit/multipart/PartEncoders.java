@@ -0,0 +1,291 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import android.content.ContentResolver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.common.Common;
+import com.google.gson.Gson;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * Registry of typed {@link PartEncoder}s used to build multipart parts.
+ * <p>
+ * Text values ({@link CharSequence}, {@link Number}, {@link Boolean},
+ * {@link Character} and enums) are sent as plain form fields. {@code byte[]} is sent
+ * without copying, {@link InputStream} and {@link Source} stream into the
+ * multipart sink when written, and a content {@link Uri} streams from the
+ * {@link ContentResolver} registered with {@link Builder#contentResolver(ContentResolver)}.
+ * Types registered with {@link Builder#json(Class)} are serialized with gson while
+ * the body is written. Any other value is sent as a form field of its
+ * {@code toString()}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class PartEncoders {
+    /**
+     * Binary media type
+     *
+     * @since 0.9.0
+     */
+    public static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+    private static PartEncoders defaults;
+
+    private final List<Class<?>> types;
+    private final List<PartEncoder<?>> encoders;
+    private final Map<Class<?>, PartEncoder<?>> resolved =
+            new ConcurrentHashMap<Class<?>, PartEncoder<?>>();
+
+    private static final PartEncoder<Object> TEXT = new PartEncoder<Object>() {
+        @NonNull
+        @Override
+        public RequestBody encode(@NonNull Object value) {
+            return RequestBody.create(String.valueOf(value), MultipartBody.FORM);
+        }
+    };
+
+    private PartEncoders(Builder builder) {
+        this.types = new ArrayList<Class<?>>(builder.types);
+        this.types.addAll(builder.builtInTypes);
+        this.encoders = new ArrayList<PartEncoder<?>>();
+        PartEncoder<Object> json = json(builder.gson != null ? builder.gson : Common.gson());
+        for (PartEncoder<?> encoder : builder.encoders) {
+            this.encoders.add(encoder != null ? encoder : json);
+        }
+        this.encoders.addAll(builder.builtInEncoders);
+    }
+
+    /**
+     * Shared encoders with built in types, without content {@link Uri} support
+     * and json types
+     *
+     * @return default encoders
+     */
+    @NonNull
+    public static synchronized PartEncoders defaults() {
+        if (defaults == null) {
+            defaults = builder().build();
+        }
+        return defaults;
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Create part body of a value
+     *
+     * @param value valid value
+     * @return part body
+     * @throws IllegalArgumentException if value is a {@link Uri} and no content
+     *                                  resolver is registered
+     */
+    @NonNull
+    public RequestBody encode(@NonNull Object value) {
+        return encoderFor(value).encode(value);
+    }
+
+    /**
+     * Create named part of a value
+     *
+     * @param name  valid part name
+     * @param value valid value
+     * @return multipart part
+     * @throws IllegalArgumentException if value is a {@link Uri} and no content
+     *                                  resolver is registered
+     */
+    @NonNull
+    public MultipartBody.Part part(@NonNull String name, @NonNull Object value) {
+        PartEncoder<Object> encoder = encoderFor(value);
+        if (encoder == TEXT) {
+            return MultipartBody.Part.createFormData(name, String.valueOf(value));
+        }
+        return MultipartBody.Part.createFormData(
+                name, encoder.filename(value), encoder.encode(value));
+    }
+
+    @NonNull
+    @SuppressWarnings("unchecked")
+    private PartEncoder<Object> encoderFor(Object value) {
+        Class<?> type = value.getClass();
+        PartEncoder<?> encoder = resolved.get(type);
+        if (encoder == null) {
+            encoder = TEXT;
+            for (int i = 0; i < types.size(); i++) {
+                if (types.get(i).isAssignableFrom(type)) {
+                    encoder = encoders.get(i);
+                    break;
+                }
+            }
+            resolved.put(type, encoder);
+        }
+        return (PartEncoder<Object>) encoder;
+    }
+
+    private static PartEncoder<Object> json(final Gson gson) {
+        return new PartEncoder<Object>() {
+            @NonNull
+            @Override
+            public RequestBody encode(@NonNull Object value) {
+                return new JsonRequestBody(gson, value);
+            }
+        };
+    }
+
+    public static class Builder {
+        private final List<Class<?>> types = new ArrayList<Class<?>>();
+        private final List<PartEncoder<?>> encoders = new ArrayList<PartEncoder<?>>();
+        private final List<Class<?>> builtInTypes = new ArrayList<Class<?>>();
+        private final List<PartEncoder<?>> builtInEncoders = new ArrayList<PartEncoder<?>>();
+        private Gson gson;
+
+        Builder() {
+            builtIn(CharSequence.class, TEXT);
+            builtIn(Number.class, TEXT);
+            builtIn(Boolean.class, TEXT);
+            builtIn(Character.class, TEXT);
+            builtIn(Enum.class, TEXT);
+            builtIn(byte[].class, new PartEncoder<byte[]>() {
+                @NonNull
+                @Override
+                public RequestBody encode(@NonNull byte[] value) {
+                    return RequestBody.create(value, OCTET_STREAM);
+                }
+            });
+            builtIn(Source.class, new PartEncoder<Source>() {
+                @NonNull
+                @Override
+                public RequestBody encode(@NonNull Source value) {
+                    return new SourceRequestBody(value, OCTET_STREAM, -1L);
+                }
+            });
+            builtIn(InputStream.class, new PartEncoder<InputStream>() {
+                @NonNull
+                @Override
+                public RequestBody encode(@NonNull InputStream value) {
+                    return new SourceRequestBody(Okio.source(value), OCTET_STREAM, -1L);
+                }
+            });
+            // sending a uri string instead of its content is never intended
+            builtIn(Uri.class, new PartEncoder<Uri>() {
+                @NonNull
+                @Override
+                public RequestBody encode(@NonNull Uri value) {
+                    throw new IllegalArgumentException(
+                            "No content resolver registered to encode Uri part: " + value);
+                }
+            });
+        }
+
+        /**
+         * Register encoder of a type and its subtypes. Encoders registered first,
+         * then built in ones, take precedence.
+         *
+         * @param type    valid value type
+         * @param encoder valid encoder
+         * @return builder
+         */
+        @NonNull
+        public <T> Builder add(@NonNull Class<T> type, @NonNull PartEncoder<? super T> encoder) {
+            types.add(type);
+            encoders.add(encoder);
+            return this;
+        }
+
+        /**
+         * Serialize values of a type and its subtypes as json with gson, in
+         * registration order with {@link #add(Class, PartEncoder)}
+         *
+         * @param type valid value type
+         * @return builder
+         */
+        @NonNull
+        public Builder json(@NonNull Class<?> type) {
+            types.add(type);
+            // resolved to the json encoder on build, once gson is known
+            encoders.add(null);
+            return this;
+        }
+
+        /**
+         * Gson used to serialize json types. The default is the shared gson instance.
+         *
+         * @param gson valid gson
+         * @return builder
+         */
+        @NonNull
+        public Builder gson(@NonNull Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        /**
+         * Stream content {@link Uri} values using a content resolver
+         *
+         * @param resolver valid content resolver
+         * @return builder
+         */
+        @NonNull
+        public Builder contentResolver(@NonNull final ContentResolver resolver) {
+            return add(Uri.class, new PartEncoder<Uri>() {
+                @NonNull
+                @Override
+                public RequestBody encode(@NonNull Uri value) {
+                    return new UriRequestBody(resolver, value);
+                }
+
+                @Nullable
+                @Override
+                public String filename(@NonNull Uri value) {
+                    return displayName(resolver, value);
+                }
+            });
+        }
+
+        @NonNull
+        public PartEncoders build() {
+            return new PartEncoders(this);
+        }
+
+        private void builtIn(Class<?> type, PartEncoder<?> encoder) {
+            builtInTypes.add(type);
+            builtInEncoders.add(encoder);
+        }
+
+        @Nullable
+        private static String displayName(ContentResolver resolver, Uri uri) {
+            Cursor cursor = resolver.query(
+                    uri, new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null);
+            if (cursor != null) {
+                try {
+                    if (cursor.moveToFirst() && !cursor.isNull(0)) {
+                        return cursor.getString(0);
+                    }
+                } finally {
+                    cursor.close();
+                }
+            }
+            return uri.getLastPathSegment();
+        }
+    }
+}
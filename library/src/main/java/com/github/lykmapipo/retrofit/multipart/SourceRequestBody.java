@@ -0,0 +1,58 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Source;
+
+/**
+ * One shot {@link RequestBody} streamed from a {@link Source} when written.
+ * The source is closed once written.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class SourceRequestBody extends RequestBody {
+    private final Source source;
+    private final MediaType contentType;
+    private final long contentLength;
+
+    public SourceRequestBody(
+            @NonNull Source source, @Nullable MediaType contentType, long contentLength
+    ) {
+        this.source = source;
+        this.contentType = contentType;
+        this.contentLength = contentLength;
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        return contentLength;
+    }
+
+    @Override
+    public boolean isOneShot() {
+        return true;
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        try {
+            sink.writeAll(source);
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import android.content.ContentResolver;
+import android.content.res.AssetFileDescriptor;
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.BufferedSink;
+import okio.Okio;
+import okio.Source;
+
+/**
+ * {@link RequestBody} streamed from a content {@link Uri} when written
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class UriRequestBody extends RequestBody {
+    private final ContentResolver resolver;
+    private final Uri uri;
+    private final MediaType contentType;
+
+    public UriRequestBody(@NonNull ContentResolver resolver, @NonNull Uri uri) {
+        this.resolver = resolver;
+        this.uri = uri;
+        String type = resolver.getType(uri);
+        this.contentType = MediaType.parse(type != null ? type : "application/octet-stream");
+    }
+
+    @Nullable
+    @Override
+    public MediaType contentType() {
+        return contentType;
+    }
+
+    @Override
+    public long contentLength() {
+        AssetFileDescriptor descriptor = null;
+        try {
+            descriptor = resolver.openAssetFileDescriptor(uri, "r");
+            return descriptor != null ? descriptor.getLength() : -1L;
+        } catch (FileNotFoundException e) {
+            return -1L;
+        } finally {
+            if (descriptor != null) {
+                try {
+                    descriptor.close();
+                } catch (IOException e) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    @Override
+    public void writeTo(@NonNull BufferedSink sink) throws IOException {
+        InputStream in = resolver.openInputStream(uri);
+        if (in == null) {
+            throw new FileNotFoundException("Unable to open " + uri);
+        }
+        Source source = Okio.source(in);
+        try {
+            sink.writeAll(source);
+        } finally {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Queue requests of the annotated service method in an {@link OfflineQueue}
+ * when they can not reach the server, instead of failing.
+ *
+ * <pre>
+ * &#64;Offline
+ * &#64;POST("users")
+ * Call&lt;User&gt; create(&#64;Body User user);
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Offline {
+}
@@ -0,0 +1,75 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.limit.ResponseTooLargeException;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import retrofit2.Invocation;
+
+/**
+ * Http interceptor that queues requests of {@link Offline} service methods in
+ * an {@link OfflineQueue} when they fail to reach the server.
+ * <p>
+ * Queued requests complete with an empty {@code 204 No Content} response
+ * carrying the {@link OfflineQueue#QUEUED_HEADER} header, see
+ * {@link OfflineQueue#isQueued(retrofit2.Response)}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class OfflineInterceptor implements Interceptor {
+
+    private final OfflineQueue queue;
+
+    public OfflineInterceptor(@NonNull OfflineQueue queue) {
+        this.queue = queue;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+
+        // ignore non offline and replayed requests
+        Invocation invocation = request.tag(Invocation.class);
+        if (invocation == null || invocation.method().getAnnotation(Offline.class) == null) {
+            return chain.proceed(request);
+        }
+
+        // ensure idempotency key, so replays can be deduplicated by the server
+        if (request.header(OfflineQueue.IDEMPOTENCY_KEY) == null) {
+            request = request.newBuilder()
+                    .header(OfflineQueue.IDEMPOTENCY_KEY, UUID.randomUUID().toString())
+                    .build();
+        }
+
+        try {
+            return chain.proceed(request);
+        } catch (IOException e) {
+            // streamed bodies are consumed and can not be replayed, and
+            // oversized responses did reach the server
+            if (chain.call().isCanceled() || RequestCodec.isOneShot(request.body())
+                    || e instanceof ResponseTooLargeException) {
+                throw e;
+            }
+            QueuedRequest queued = queue.enqueue(request);
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(204)
+                    .message("Queued")
+                    .header(OfflineQueue.QUEUED_HEADER, queued.getId())
+                    .body(ResponseBody.create(new byte[0], null))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.common.Common;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Durable queue of write requests that could not reach the server, backed by
+ * an append-only log file.
+ * <p>
+ * Each queued request and each acknowledgement is appended as one json line,
+ * so a crash never loses acknowledged state. {@link #replay(int)} sends queued
+ * requests in order once connectivity returns, and the log is compacted after
+ * acknowledgement. Requests are deduplicated by their {@code Idempotency-Key}
+ * header, which is also sent on every replay so servers can drop duplicates.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class OfflineQueue {
+    /**
+     * Header carrying the idempotency key of queued requests
+     *
+     * @since 0.9.0
+     */
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    /**
+     * Header set on the synthetic response of a queued request
+     *
+     * @since 0.9.0
+     */
+    public static final String QUEUED_HEADER = "X-Offline-Queued";
+
+    /**
+     * Default number of concurrent writes during replay
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_CONCURRENCY = 2;
+
+    private static final String ADD = "add";
+    private static final String ACK = "ack";
+
+    private final File file;
+    private final Map<String, QueuedRequest> pending = new LinkedHashMap<String, QueuedRequest>();
+    private final Map<String, String> keys = new LinkedHashMap<String, String>();
+    private Call.Factory client;
+    private BufferedSink log;
+    private int acknowledged;
+
+    /**
+     * Open or create queue log file
+     *
+     * @param file valid log file
+     * @throws IOException if the log can not be read
+     */
+    public OfflineQueue(@NonNull File file) throws IOException {
+        this.file = file;
+        load();
+    }
+
+    /**
+     * Check if a response is the synthetic response of a queued request
+     *
+     * @param response valid response
+     * @return true if the request was queued
+     */
+    public static boolean isQueued(@NonNull retrofit2.Response<?> response) {
+        return response.headers().get(QUEUED_HEADER) != null;
+    }
+
+    /**
+     * Set client used by {@link #replay(int)}. {@link com.github.lykmapipo.retrofit.HttpService}
+     * attaches the client of services created with an offline queue, so replays
+     * go through the same headers and authentication interceptors.
+     *
+     * @param client valid call factory
+     */
+    public synchronized void attach(@NonNull Call.Factory client) {
+        this.client = client;
+    }
+
+    /**
+     * Queued requests in replay order
+     *
+     * @return queued requests
+     */
+    @NonNull
+    public synchronized List<QueuedRequest> pending() {
+        return new ArrayList<QueuedRequest>(pending.values());
+    }
+
+    /**
+     * Number of queued requests
+     *
+     * @return queue size
+     */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /**
+     * Queue a request. A request whose idempotency key is already queued is not
+     * queued again. Tags are not kept, so a replayed request is not queued again
+     * by the {@link Offline} interceptor when it still fails.
+     *
+     * @param request valid request, with an {@code Idempotency-Key} header
+     * @return queued request
+     * @throws IOException if the request can not be persisted
+     */
+    @NonNull
+    public synchronized QueuedRequest enqueue(@NonNull Request request) throws IOException {
+        String key = request.header(IDEMPOTENCY_KEY);
+        if (key == null) {
+            key = UUID.randomUUID().toString();
+            request = request.newBuilder().header(IDEMPOTENCY_KEY, key).build();
+        }
+
+        String existing = keys.get(key);
+        if (existing != null) {
+            return pending.get(existing);
+        }
+
+        request = new Request.Builder()
+                .url(request.url())
+                .headers(request.headers())
+                .method(request.method(), request.body())
+                .build();
+        QueuedRequest queued = new QueuedRequest(UUID.randomUUID().toString(), key, request);
+        JsonObject record = RequestCodec.encode(request);
+        record.addProperty("op", ADD);
+        record.addProperty("id", queued.getId());
+        record.addProperty("key", key);
+        append(record);
+
+        pending.put(queued.getId(), queued);
+        keys.put(key, queued.getId());
+        return queued;
+    }
+
+    /**
+     * Replay queued requests using the attached client
+     *
+     * @param concurrency maximum number of concurrent writes
+     * @return replay result
+     * @throws IOException          if acknowledgements can not be persisted
+     * @throws InterruptedException if interrupted while waiting for writes
+     */
+    @NonNull
+    public ReplayResult replay(int concurrency) throws IOException, InterruptedException {
+        Call.Factory current;
+        synchronized (this) {
+            current = client;
+        }
+        if (current == null) {
+            throw new IllegalStateException("No client attached to offline queue");
+        }
+        return replay(current, concurrency);
+    }
+
+    /**
+     * Replay queued requests in order, with at most {@code concurrency} writes in
+     * flight. Replay stops starting new requests on the first connectivity error
+     * or 5xx response; those requests stay queued in order. Requests rejected
+     * with a 4xx response are dropped, since retrying them can not succeed.
+     *
+     * @param client      valid call factory
+     * @param concurrency maximum number of concurrent writes
+     * @return replay result
+     * @throws IOException          if acknowledgements can not be persisted
+     * @throws InterruptedException if interrupted while waiting for writes
+     */
+    @NonNull
+    public ReplayResult replay(
+            @NonNull Call.Factory client, int concurrency
+    ) throws IOException, InterruptedException {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("concurrency < 1: " + concurrency);
+        }
+
+        final Semaphore permits = new Semaphore(concurrency);
+        final AtomicBoolean stopped = new AtomicBoolean();
+        final AtomicInteger delivered = new AtomicInteger();
+        final AtomicInteger dropped = new AtomicInteger();
+        final IOException[] ackError = new IOException[1];
+
+        for (final QueuedRequest queued : pending()) {
+            permits.acquire();
+            if (stopped.get()) {
+                permits.release();
+                break;
+            }
+
+            // file parts are referenced, not copied: they may be gone by now
+            if (RequestCodec.hasMissingFile(queued.getRequest().body())) {
+                acknowledge(queued);
+                dropped.incrementAndGet();
+                permits.release();
+                continue;
+            }
+
+            client.newCall(queued.getRequest()).enqueue(new Callback() {
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    try {
+                        int code = response.code();
+                        if (code >= 500) {
+                            stopped.set(true);
+                        } else {
+                            acknowledge(queued);
+                            if (response.isSuccessful()) {
+                                delivered.incrementAndGet();
+                            } else {
+                                dropped.incrementAndGet();
+                            }
+                        }
+                    } catch (IOException e) {
+                        stopped.set(true);
+                        ackError[0] = e;
+                    } finally {
+                        response.close();
+                        permits.release();
+                    }
+                }
+
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException e) {
+                    stopped.set(true);
+                    permits.release();
+                }
+            });
+        }
+
+        // wait for in flight writes
+        permits.acquire(concurrency);
+        permits.release(concurrency);
+
+        compact();
+        if (ackError[0] != null) {
+            throw ackError[0];
+        }
+        return new ReplayResult(delivered.get(), dropped.get(), size());
+    }
+
+    /**
+     * Rewrite the log with queued requests only, dropping acknowledged ones.
+     *
+     * @throws IOException if the log can not be rewritten
+     */
+    public synchronized void compact() throws IOException {
+        if (acknowledged == 0) {
+            return;
+        }
+        closeLog();
+
+        File temp = new File(file.getPath() + ".tmp");
+        BufferedSink sink = Okio.buffer(Okio.sink(temp));
+        try {
+            for (QueuedRequest queued : pending.values()) {
+                JsonObject record = RequestCodec.encode(queued.getRequest());
+                record.addProperty("op", ADD);
+                record.addProperty("id", queued.getId());
+                record.addProperty("key", queued.getIdempotencyKey());
+                sink.writeUtf8(record.toString()).writeByte('\n');
+            }
+        } finally {
+            sink.close();
+        }
+        if (!temp.renameTo(file)) {
+            throw new IOException("Failed to replace " + file);
+        }
+        acknowledged = 0;
+    }
+
+    /**
+     * Close the log file
+     *
+     * @throws IOException if the log can not be closed
+     */
+    public synchronized void close() throws IOException {
+        closeLog();
+    }
+
+    private synchronized void acknowledge(QueuedRequest queued) throws IOException {
+        if (pending.remove(queued.getId()) == null) {
+            return;
+        }
+        keys.remove(queued.getIdempotencyKey());
+        JsonObject record = new JsonObject();
+        record.addProperty("op", ACK);
+        record.addProperty("id", queued.getId());
+        append(record);
+        acknowledged++;
+    }
+
+    private void append(JsonObject record) throws IOException {
+        if (log == null) {
+            FileOutputStream out = new FileOutputStream(file, true);
+            log = Okio.buffer(Okio.sink(out));
+        }
+        log.writeUtf8(record.toString()).writeByte('\n');
+        log.flush();
+    }
+
+    private void closeLog() throws IOException {
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    private void load() throws IOException {
+        if (!file.exists()) {
+            return;
+        }
+        BufferedSource source = Okio.buffer(Okio.source(file));
+        try {
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                JsonObject record = parse(line);
+                if (record == null) {
+                    continue;
+                }
+                try {
+                    apply(record);
+                } catch (RuntimeException e) {
+                    // skip malformed records, as torn ones
+                }
+            }
+        } finally {
+            source.close();
+        }
+    }
+
+    private void apply(JsonObject record) {
+        String op = record.get("op").getAsString();
+        String id = record.get("id").getAsString();
+        if (ADD.equals(op)) {
+            String key = record.get("key").getAsString();
+            pending.put(id, new QueuedRequest(id, key, RequestCodec.decode(record)));
+            keys.put(key, id);
+        } else if (ACK.equals(op)) {
+            QueuedRequest queued = pending.remove(id);
+            if (queued != null) {
+                keys.remove(queued.getIdempotencyKey());
+            }
+            acknowledged++;
+        }
+    }
+
+    @Nullable
+    private static JsonObject parse(String line) {
+        try {
+            JsonObject record = Common.gson().fromJson(line, JsonObject.class);
+            return record != null && record.has("op") && record.has("id") ? record : null;
+        } catch (RuntimeException e) {
+            // torn write of the last record
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.Request;
+
+/**
+ * Request persisted in an {@link OfflineQueue}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class QueuedRequest {
+    private final String id;
+    private final String idempotencyKey;
+    private final Request request;
+
+    QueuedRequest(@NonNull String id, @NonNull String idempotencyKey, @NonNull Request request) {
+        this.id = id;
+        this.idempotencyKey = idempotencyKey;
+        this.request = request;
+    }
+
+    /**
+     * Queue entry id
+     *
+     * @return id
+     */
+    @NonNull
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Idempotency key sent with the original request and every replay
+     *
+     * @return idempotency key
+     */
+    @NonNull
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+
+    /**
+     * Request to replay
+     *
+     * @return request
+     */
+    @NonNull
+    public Request getRequest() {
+        return request;
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.lykmapipo.retrofit.offline;
+
+/**
+ * Outcome of an {@link OfflineQueue} replay
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class ReplayResult {
+    private final int delivered;
+    private final int dropped;
+    private final int remaining;
+
+    ReplayResult(int delivered, int dropped, int remaining) {
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.remaining = remaining;
+    }
+
+    /**
+     * Number of requests acknowledged by the server
+     *
+     * @return delivered requests
+     */
+    public int getDelivered() {
+        return delivered;
+    }
+
+    /**
+     * Number of requests removed without delivery, because the server rejected
+     * them with a 4xx response or their files no longer exist
+     *
+     * @return dropped requests
+     */
+    public int getDropped() {
+        return dropped;
+    }
+
+    /**
+     * Number of requests still queued, e.g. after losing connectivity again
+     *
+     * @return remaining requests
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+}
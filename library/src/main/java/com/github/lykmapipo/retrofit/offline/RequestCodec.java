@@ -0,0 +1,172 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.retrofit.multipart.FileRequestBody;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.IOException;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.ByteString;
+
+/**
+ * Encode requests to and from json log records. File backed bodies and parts
+ * are stored by file path, other bodies by their bytes.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public final class RequestCodec {
+    private RequestCodec() {
+    }
+
+    @NonNull
+    static JsonObject encode(@NonNull Request request) throws IOException {
+        JsonObject json = new JsonObject();
+        json.addProperty("method", request.method());
+        json.addProperty("url", request.url().toString());
+        json.add("headers", encodeHeaders(request.headers()));
+        RequestBody body = request.body();
+        if (body != null) {
+            json.add("body", encodeBody(body));
+        }
+        return json;
+    }
+
+    @NonNull
+    static Request decode(@NonNull JsonObject json) {
+        JsonElement body = json.get("body");
+        return new Request.Builder()
+                .url(json.get("url").getAsString())
+                .headers(decodeHeaders(json.getAsJsonArray("headers")))
+                .method(json.get("method").getAsString(),
+                        body != null && body.isJsonObject() ? decodeBody(body.getAsJsonObject()) : null)
+                .build();
+    }
+
+    /**
+     * Check if a body, or any part of a multipart body, can be written only
+     * once, e.g. a streamed part
+     *
+     * @param body request body
+     * @return true if writing the body would drain it
+     * @since 0.9.0
+     */
+    public static boolean isOneShot(@Nullable RequestBody body) {
+        if (body instanceof MultipartBody) {
+            for (MultipartBody.Part part : ((MultipartBody) body).parts()) {
+                if (isOneShot(part.body())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return body != null && body.isOneShot();
+    }
+
+    /**
+     * Check if a file backed body or part no longer exists
+     */
+    static boolean hasMissingFile(@Nullable RequestBody body) {
+        if (body instanceof FileRequestBody) {
+            return !((FileRequestBody) body).file().exists();
+        }
+        if (body instanceof MultipartBody) {
+            for (MultipartBody.Part part : ((MultipartBody) body).parts()) {
+                if (hasMissingFile(part.body())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static JsonObject encodeBody(RequestBody body) throws IOException {
+        JsonObject json = new JsonObject();
+        MediaType contentType = body.contentType();
+        if (contentType != null) {
+            json.addProperty("contentType", contentType.toString());
+        }
+
+        if (body instanceof MultipartBody) {
+            MultipartBody multipart = (MultipartBody) body;
+            json.addProperty("boundary", multipart.boundary());
+            json.addProperty("type", multipart.type().toString());
+            JsonArray parts = new JsonArray();
+            for (MultipartBody.Part part : multipart.parts()) {
+                JsonObject encoded = encodeBody(part.body());
+                if (part.headers() != null) {
+                    encoded.add("headers", encodeHeaders(part.headers()));
+                }
+                parts.add(encoded);
+            }
+            json.add("parts", parts);
+        } else if (body instanceof FileRequestBody) {
+            json.addProperty("file", ((FileRequestBody) body).file().getAbsolutePath());
+        } else {
+            Buffer buffer = new Buffer();
+            body.writeTo(buffer);
+            json.addProperty("data", buffer.readByteString().base64());
+        }
+        return json;
+    }
+
+    private static RequestBody decodeBody(JsonObject json) {
+        MediaType contentType = json.has("contentType")
+                ? MediaType.parse(json.get("contentType").getAsString()) : null;
+
+        if (json.has("parts")) {
+            MultipartBody.Builder builder =
+                    new MultipartBody.Builder(json.get("boundary").getAsString());
+            MediaType type = MediaType.parse(json.get("type").getAsString());
+            if (type != null) {
+                builder.setType(type);
+            }
+            for (JsonElement element : json.getAsJsonArray("parts")) {
+                JsonObject part = element.getAsJsonObject();
+                Headers headers = part.has("headers")
+                        ? decodeHeaders(part.getAsJsonArray("headers")) : null;
+                builder.addPart(MultipartBody.Part.create(headers, decodeBody(part)));
+            }
+            return builder.build();
+        }
+        if (json.has("file")) {
+            return new FileRequestBody(new File(json.get("file").getAsString()), contentType);
+        }
+        ByteString data = ByteString.decodeBase64(json.get("data").getAsString());
+        return RequestBody.create(data != null ? data : ByteString.EMPTY, contentType);
+    }
+
+    private static JsonArray encodeHeaders(Headers headers) {
+        JsonArray json = new JsonArray();
+        for (int i = 0; i < headers.size(); i++) {
+            JsonArray header = new JsonArray();
+            header.add(headers.name(i));
+            header.add(headers.value(i));
+            json.add(header);
+        }
+        return json;
+    }
+
+    private static Headers decodeHeaders(@Nullable JsonArray json) {
+        Headers.Builder headers = new Headers.Builder();
+        if (json != null) {
+            for (JsonElement element : json) {
+                JsonArray header = element.getAsJsonArray();
+                headers.add(header.get(0).getAsString(), header.get(1).getAsString());
+            }
+        }
+        return headers.build();
+    }
+}
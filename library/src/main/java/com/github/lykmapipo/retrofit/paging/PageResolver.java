@@ -0,0 +1,39 @@
+package com.github.lykmapipo.retrofit.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.List;
+
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Extract items and the next page call from a page response.
+ *
+ * @param <P> page(response body) type
+ * @param <T> item type
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public interface PageResolver<P, T> {
+    /**
+     * Obtain items of a page
+     *
+     * @param page valid page body
+     * @return page items
+     */
+    @NonNull
+    List<T> items(@Nullable P page);
+
+    /**
+     * Obtain call for the page after the given one
+     *
+     * @param previous call of the received page
+     * @param response successful page response
+     * @return next page call, or null if this is the last page
+     */
+    @Nullable
+    Call<P> next(@NonNull Call<P> previous, @NonNull Response<P> response);
+}
@@ -0,0 +1,183 @@
+package com.github.lykmapipo.retrofit.paging;
+
+import android.text.TextUtils;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+import okhttp3.HttpUrl;
+import retrofit2.Call;
+import retrofit2.Response;
+
+/**
+ * Common {@link PageResolver}s for list endpoints
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public final class PageResolvers {
+    private PageResolvers() {
+    }
+
+    /**
+     * Fetch a page from its absolute url
+     */
+    public interface UrlFetcher<P> {
+        /**
+         * Create page call, e.g. from a {@code @GET Call<P> page(@Url String url)}
+         * service method.
+         *
+         * @param url valid page url
+         * @return page call
+         */
+        @NonNull
+        Call<P> fetch(@NonNull String url);
+    }
+
+    /**
+     * Fetch a page at an offset
+     */
+    public interface OffsetFetcher<P> {
+        /**
+         * Create page call, e.g. from a
+         * {@code @GET Call<P> page(@Query("offset") int offset, @Query("limit") int limit)}
+         * service method.
+         *
+         * @param offset valid item offset
+         * @param limit  valid page size
+         * @return page call
+         */
+        @NonNull
+        Call<P> fetch(int offset, int limit);
+    }
+
+    /**
+     * Follow {@code rel="next"} urls of the {@code Link} response header.
+     *
+     * @param fetcher valid url fetcher
+     * @return link header page resolver
+     */
+    @NonNull
+    public static <T> PageResolver<List<T>, T> linkHeader(@NonNull final UrlFetcher<List<T>> fetcher) {
+        return new PageResolver<List<T>, T>() {
+            @NonNull
+            @Override
+            public List<T> items(@Nullable List<T> page) {
+                return itemsOf(page);
+            }
+
+            @Nullable
+            @Override
+            public Call<List<T>> next(@NonNull Call<List<T>> previous, @NonNull Response<List<T>> response) {
+                String next = nextLink(response.headers().get("Link"));
+                if (TextUtils.isEmpty(next)) {
+                    return null;
+                }
+                // resolve relative links against the page url
+                HttpUrl url = response.raw().request().url().resolve(next);
+                return url != null ? fetcher.fetch(url.toString()) : null;
+            }
+        };
+    }
+
+    /**
+     * Page by offset and limit, stopping on the first page with less than
+     * {@code limit} items. The resolver tracks the current offset, so use a
+     * new one per {@link Pager}.
+     *
+     * @param fetcher valid offset fetcher
+     * @param limit   valid page size
+     * @return offset page resolver
+     */
+    @NonNull
+    public static <T> PageResolver<List<T>, T> offset(
+            @NonNull final OffsetFetcher<List<T>> fetcher, final int limit
+    ) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit < 1: " + limit);
+        }
+        return new PageResolver<List<T>, T>() {
+            private int offset = 0;
+
+            @NonNull
+            @Override
+            public List<T> items(@Nullable List<T> page) {
+                return itemsOf(page);
+            }
+
+            @Nullable
+            @Override
+            public Call<List<T>> next(@NonNull Call<List<T>> previous, @NonNull Response<List<T>> response) {
+                List<T> items = itemsOf(response.body());
+                if (items.size() < limit) {
+                    return null;
+                }
+                offset += items.size();
+                return fetcher.fetch(offset, limit);
+            }
+        };
+    }
+
+    /**
+     * Obtain {@code rel="next"} url from a {@code Link} header value, e.g.
+     * {@code <https://api.example.com/v1/users?page=2>; rel="next", <...>; rel="last"}
+     *
+     * @param link link header value
+     * @return next url or null
+     */
+    @Nullable
+    public static String nextLink(@Nullable String link) {
+        if (TextUtils.isEmpty(link)) {
+            return null;
+        }
+        int index = 0;
+        while (true) {
+            // urls are enclosed in angle brackets and may themselves contain commas
+            int start = link.indexOf('<', index);
+            int end = start >= 0 ? link.indexOf('>', start + 1) : -1;
+            if (end < 0) {
+                return null;
+            }
+
+            // parameters run up to the comma closing this link, outside quotes
+            int close = end + 1;
+            boolean quoted = false;
+            for (; close < link.length(); close++) {
+                char c = link.charAt(close);
+                if (c == '"') {
+                    quoted = !quoted;
+                } else if (c == ',' && !quoted) {
+                    break;
+                }
+            }
+
+            if (isNext(link.substring(end + 1, close))) {
+                return link.substring(start + 1, end).trim();
+            }
+            index = close;
+        }
+    }
+
+    private static boolean isNext(String params) {
+        for (String segment : params.split(";")) {
+            String[] param = segment.trim().split("=", 2);
+            if (param.length == 2 && "rel".equalsIgnoreCase(param[0].trim())) {
+                String rels = param[1].trim().replace("\"", "");
+                for (String rel : rels.split("\\s+")) {
+                    if ("next".equalsIgnoreCase(rel)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static <T> List<T> itemsOf(@Nullable List<T> page) {
+        return page != null ? page : Collections.<T>emptyList();
+    }
+}
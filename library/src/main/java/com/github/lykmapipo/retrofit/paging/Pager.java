@@ -0,0 +1,304 @@
+package com.github.lykmapipo.retrofit.paging;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import retrofit2.Call;
+import retrofit2.HttpException;
+import retrofit2.Response;
+
+/**
+ * Lazy iterable over the items of a paged list endpoint.
+ * <p>
+ * Pages are fetched on a background executor while the caller consumes the
+ * current one, with at most {@code prefetch} pages buffered ahead. Iteration
+ * starts the first call; closing the pager cancels in flight and pending pages.
+ *
+ * <pre>
+ * Pager&lt;List&lt;User&gt;, User&gt; pager = Pager.create(
+ *     service.list(),
+ *     PageResolvers.linkHeader(new PageResolvers.UrlFetcher&lt;List&lt;User&gt;&gt;() {
+ *         public Call&lt;List&lt;User&gt;&gt; fetch(String url) {
+ *             return service.page(url);
+ *         }
+ *     })
+ * );
+ * try {
+ *     for (User user : pager) {
+ *         ...
+ *     }
+ * } finally {
+ *     pager.close();
+ * }
+ * </pre>
+ *
+ * @param <P> page(response body) type
+ * @param <T> item type
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class Pager<P, T> implements Iterable<T>, Closeable {
+    /**
+     * Default number of pages buffered ahead of the consumer
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_PREFETCH = 2;
+
+    private static final Object END = new Object();
+    private static ExecutorService defaultExecutor;
+
+    private final Call<P> first;
+    private final PageResolver<P, T> resolver;
+    private final Executor executor;
+    private final BlockingQueue<Object> pages;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Call<P> current;
+    private Thread fetcher;
+
+    private Pager(Builder<P, T> builder) {
+        this.first = builder.first;
+        this.resolver = builder.resolver;
+        this.executor = builder.executor != null ? builder.executor : defaultExecutor();
+        this.pages = new ArrayBlockingQueue<Object>(builder.prefetch);
+    }
+
+    /**
+     * Create pager with default prefetch
+     *
+     * @param first    first page call
+     * @param resolver valid page resolver
+     * @return pager
+     */
+    @NonNull
+    public static <P, T> Pager<P, T> create(
+            @NonNull Call<P> first, @NonNull PageResolver<P, T> resolver
+    ) {
+        return builder(first, resolver).build();
+    }
+
+    @NonNull
+    public static <P, T> Builder<P, T> builder(
+            @NonNull Call<P> first, @NonNull PageResolver<P, T> resolver
+    ) {
+        return new Builder<P, T>(first, resolver);
+    }
+
+    /**
+     * Iterate over all items, fetching pages as needed. A pager can only be
+     * iterated once.
+     *
+     * @return item iterator
+     * @throws PagerException from {@code hasNext()} if a page fails
+     */
+    @NonNull
+    @Override
+    public Iterator<T> iterator() {
+        if (!started.compareAndSet(false, true)) {
+            throw new IllegalStateException("Pager already iterated");
+        }
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                fetch();
+            }
+        });
+        return new ItemIterator();
+    }
+
+    /**
+     * Stop paging. Cancels the in flight page call and releases buffered pages.
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            Call<P> call = current;
+            if (call != null) {
+                call.cancel();
+            }
+            synchronized (this) {
+                if (fetcher != null) {
+                    fetcher.interrupt();
+                }
+            }
+            // release buffered pages and wake up a waiting consumer
+            pages.clear();
+            pages.offer(END);
+        }
+    }
+
+    /**
+     * Check if paging was stopped
+     *
+     * @return true if closed
+     */
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    private void fetch() {
+        synchronized (this) {
+            fetcher = Thread.currentThread();
+        }
+        try {
+            Call<P> call = first;
+            while (call != null && !closed.get()) {
+                current = call;
+                Response<P> response = call.execute();
+                if (!response.isSuccessful()) {
+                    throw new HttpException(response);
+                }
+                List<T> items = resolver.items(response.body());
+                Call<P> next = resolver.next(call, response);
+                // blocks while prefetch pages are buffered
+                publish(items);
+                call = next;
+            }
+            publish(END);
+        } catch (InterruptedException e) {
+            // closed while waiting for the consumer
+        } catch (Throwable t) {
+            try {
+                publish(t);
+            } catch (InterruptedException ignored) {
+                // closed while waiting for the consumer
+            }
+        } finally {
+            current = null;
+            synchronized (this) {
+                fetcher = null;
+                // do not leak a close() interrupt into the executor thread
+                Thread.interrupted();
+            }
+        }
+    }
+
+    private void publish(Object page) throws InterruptedException {
+        while (!closed.get()) {
+            if (pages.offer(page, 100, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    private static synchronized ExecutorService defaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "retrofit-pager-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+
+    private final class ItemIterator implements Iterator<T> {
+        private Iterator<T> page;
+        private boolean done;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean hasNext() {
+            while (!done && (page == null || !page.hasNext())) {
+                if (closed.get()) {
+                    done = true;
+                    break;
+                }
+                Object next;
+                try {
+                    next = pages.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PagerException("Interrupted while waiting for page", e);
+                }
+                if (next == END) {
+                    done = true;
+                } else if (next instanceof Throwable) {
+                    done = true;
+                    throw new PagerException("Failed to fetch page", (Throwable) next);
+                } else {
+                    page = ((List<T>) next).iterator();
+                }
+            }
+            return !done;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.next();
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("remove");
+        }
+    }
+
+    public static class Builder<P, T> {
+        private final Call<P> first;
+        private final PageResolver<P, T> resolver;
+        private int prefetch = DEFAULT_PREFETCH;
+        private Executor executor;
+
+        Builder(@NonNull Call<P> first, @NonNull PageResolver<P, T> resolver) {
+            this.first = first;
+            this.resolver = resolver;
+        }
+
+        /**
+         * Maximum number of pages buffered ahead of the consumer. The default is 2.
+         *
+         * @param prefetch valid prefetch size
+         * @return builder
+         */
+        @NonNull
+        public Builder<P, T> prefetch(int prefetch) {
+            if (prefetch < 1) {
+                throw new IllegalArgumentException("prefetch < 1: " + prefetch);
+            }
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        /**
+         * Executor to fetch pages on
+         *
+         * @param executor valid executor
+         * @return builder
+         */
+        @NonNull
+        public Builder<P, T> executor(@Nullable Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        @NonNull
+        public Pager<P, T> build() {
+            return new Pager<P, T>(this);
+        }
+    }
+}
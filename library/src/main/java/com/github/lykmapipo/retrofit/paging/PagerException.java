@@ -0,0 +1,18 @@
+package com.github.lykmapipo.retrofit.paging;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Thrown by a {@link Pager} iterator when fetching a page failed
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class PagerException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PagerException(@NonNull String message, @NonNull Throwable cause) {
+        super(message, cause);
+    }
+}
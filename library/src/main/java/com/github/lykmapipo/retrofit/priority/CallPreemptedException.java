@@ -0,0 +1,30 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import java.io.IOException;
+
+/**
+ * Delivered to queued calls canceled by a {@link PriorityDispatcher} to make
+ * room for higher priority calls. Preempted calls were never sent.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class CallPreemptedException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final int priority;
+
+    public CallPreemptedException(int priority) {
+        super("Call of priority " + priority + " preempted by higher priority calls");
+        this.priority = priority;
+    }
+
+    /**
+     * Priority of the preempted call
+     *
+     * @return priority
+     */
+    public int getPriority() {
+        return priority;
+    }
+}
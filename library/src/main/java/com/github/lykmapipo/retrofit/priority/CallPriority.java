@@ -0,0 +1,45 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Request tag setting the dispatch priority of a single call, overriding
+ * {@link Priority} of its service method.
+ *
+ * <pre>
+ * &#64;GET("users")
+ * Call&lt;List&lt;User&gt;&gt; list(&#64;Tag CallPriority priority);
+ *
+ * service.list(CallPriority.of(Priority.HIGH));
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public final class CallPriority {
+    private final int value;
+
+    private CallPriority(int value) {
+        this.value = value;
+    }
+
+    @NonNull
+    public static CallPriority of(int value) {
+        return new CallPriority(value);
+    }
+
+    /**
+     * Priority, higher values are dispatched first
+     *
+     * @return priority
+     */
+    public int getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "CallPriority(" + value + ")";
+    }
+}
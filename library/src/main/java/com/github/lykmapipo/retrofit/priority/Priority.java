@@ -0,0 +1,48 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Dispatch priority of the annotated service method's calls, see
+ * {@link PriorityDispatcher}. A {@link CallPriority} request tag overrides it.
+ *
+ * <pre>
+ * &#64;Priority(Priority.LOW)
+ * &#64;GET("catalog/prefetch")
+ * Call&lt;Catalog&gt; prefetch();
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Priority {
+    /**
+     * Background work e.g. prefetching
+     */
+    int LOW = 0;
+
+    /**
+     * Default priority
+     */
+    int NORMAL = 5;
+
+    /**
+     * User initiated work
+     */
+    int HIGH = 10;
+
+    /**
+     * Priority, higher values are dispatched first
+     *
+     * @return priority
+     */
+    int value();
+}
@@ -0,0 +1,101 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * {@link Call} whose asynchronous dispatch goes through a {@link PriorityDispatcher}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class PriorityCall<T> implements Call<T> {
+    private final Call<T> delegate;
+    private final int defaultPriority;
+    private final PriorityDispatcher dispatcher;
+    private volatile boolean canceled;
+    private boolean executed;
+
+    PriorityCall(Call<T> delegate, int defaultPriority, PriorityDispatcher dispatcher) {
+        this.delegate = delegate;
+        this.defaultPriority = defaultPriority;
+        this.dispatcher = dispatcher;
+    }
+
+    Call<T> delegate() {
+        return delegate;
+    }
+
+    int priority() {
+        CallPriority tag = delegate.request().tag(CallPriority.class);
+        return tag != null ? tag.getValue() : defaultPriority;
+    }
+
+    String host() {
+        return delegate.request().url().host();
+    }
+
+    @Override
+    public void enqueue(@NonNull Callback<T> callback) {
+        synchronized (this) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+        }
+        if (canceled) {
+            callback.onFailure(this, new IOException("Canceled"));
+            return;
+        }
+        dispatcher.enqueue(this, callback);
+    }
+
+    @NonNull
+    @Override
+    public Response<T> execute() throws IOException {
+        synchronized (this) {
+            if (executed) {
+                throw new IllegalStateException("Already executed.");
+            }
+            executed = true;
+        }
+        return delegate.execute();
+    }
+
+    @Override
+    public synchronized boolean isExecuted() {
+        return executed;
+    }
+
+    @Override
+    public void cancel() {
+        canceled = true;
+        delegate.cancel();
+        dispatcher.cancel(this);
+    }
+
+    @Override
+    public boolean isCanceled() {
+        return canceled || delegate.isCanceled();
+    }
+
+    @NonNull
+    @Override
+    @SuppressWarnings("CloneDoesntCallSuperClone")
+    public Call<T> clone() {
+        return new PriorityCall<T>(delegate.clone(), defaultPriority, dispatcher);
+    }
+
+    @NonNull
+    @Override
+    public Request request() {
+        return delegate.request();
+    }
+}
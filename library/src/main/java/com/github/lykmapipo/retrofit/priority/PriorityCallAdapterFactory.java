@@ -0,0 +1,61 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+
+/**
+ * {@link CallAdapter.Factory} wrapping service calls in {@link PriorityCall}s,
+ * then adapting them with the next matching factory.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class PriorityCallAdapterFactory extends CallAdapter.Factory {
+    private final PriorityDispatcher dispatcher;
+
+    PriorityCallAdapterFactory(PriorityDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(
+            @NonNull Type returnType, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        int priority = Priority.NORMAL;
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Priority) {
+                priority = ((Priority) annotation).value();
+            }
+        }
+        CallAdapter<?, ?> delegate = retrofit.nextCallAdapter(this, returnType, annotations);
+        return adapter(delegate, priority);
+    }
+
+    private <R, T> CallAdapter<R, T> adapter(
+            final CallAdapter<R, T> delegate, final int priority
+    ) {
+        return new CallAdapter<R, T>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @NonNull
+            @Override
+            public T adapt(@NonNull Call<R> call) {
+                return delegate.adapt(new PriorityCall<R>(call, priority, dispatcher));
+            }
+        };
+    }
+}
@@ -0,0 +1,421 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Dispatcher;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Admits asynchronous calls to the network in priority order, in place of
+ * okhttp's first in first out {@link Dispatcher} queue.
+ * <p>
+ * Calls wait in a queue until fewer than {@code maxRequests} calls, and fewer
+ * than {@code maxRequestsPerHost} calls to their host, are running. The
+ * queued call of highest effective priority is admitted next, where waiting
+ * for each aging interval adds one to its priority so low priority calls are
+ * never starved. With preemption enabled, queued calls of lower priority are
+ * canceled with a {@link CallPreemptedException} when a higher priority call
+ * arrives at a full queue. Synchronous {@link Call#execute()} bypasses the
+ * queue.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class PriorityDispatcher {
+    /**
+     * Default maximum number of running calls
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_MAX_REQUESTS = 64;
+
+    /**
+     * Default maximum number of running calls per host
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_MAX_REQUESTS_PER_HOST = 5;
+
+    /**
+     * Default wait time raising a queued call's priority by one
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_AGING_INTERVAL = 2000L;
+
+    private final int maxRequests;
+    private final int maxRequestsPerHost;
+    private final long agingIntervalNanos;
+    private final int maxQueued;
+    private final Dispatcher dispatcher;
+
+    private final LinkedList<Entry<?>> queue = new LinkedList<Entry<?>>();
+    private final Map<String, Integer> runningPerHost = new HashMap<String, Integer>();
+    private final Map<Integer, long[]> stats = new TreeMap<Integer, long[]>();
+    private int running;
+
+    private PriorityDispatcher(Builder builder) {
+        this.maxRequests = builder.maxRequests;
+        this.maxRequestsPerHost = builder.maxRequestsPerHost;
+        this.agingIntervalNanos = builder.agingIntervalNanos;
+        this.maxQueued = builder.maxQueued;
+
+        // admission happens here, let okhttp run whatever is admitted
+        this.dispatcher = new Dispatcher();
+        this.dispatcher.setMaxRequests(Integer.MAX_VALUE);
+        this.dispatcher.setMaxRequestsPerHost(Integer.MAX_VALUE);
+    }
+
+    @NonNull
+    public static PriorityDispatcher create() {
+        return builder().build();
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Okhttp dispatcher to use for clients of prioritized services
+     *
+     * @return okhttp dispatcher
+     */
+    @NonNull
+    public Dispatcher dispatcher() {
+        return dispatcher;
+    }
+
+    /**
+     * Call adapter factory applying priorities to service calls. It must come
+     * before other call adapter factories.
+     *
+     * @return call adapter factory
+     */
+    @NonNull
+    public CallAdapter.Factory callAdapterFactory() {
+        return new PriorityCallAdapterFactory(this);
+    }
+
+    /**
+     * Number of calls waiting in queue
+     *
+     * @return queued calls
+     */
+    public synchronized int queuedCallsCount() {
+        return queue.size();
+    }
+
+    /**
+     * Number of admitted calls still running
+     *
+     * @return running calls
+     */
+    public synchronized int runningCallsCount() {
+        return running;
+    }
+
+    /**
+     * Queue wait time metrics per priority, ordered by priority
+     *
+     * @return wait stats
+     */
+    @NonNull
+    public synchronized List<WaitStats> waitStats() {
+        List<WaitStats> snapshot = new ArrayList<WaitStats>(stats.size());
+        for (Map.Entry<Integer, long[]> entry : stats.entrySet()) {
+            long[] value = entry.getValue();
+            snapshot.add(new WaitStats(
+                    entry.getKey(), value[0], value[1],
+                    TimeUnit.NANOSECONDS.toMillis(value[2]),
+                    TimeUnit.NANOSECONDS.toMillis(value[3])));
+        }
+        return snapshot;
+    }
+
+    <T> void enqueue(PriorityCall<T> call, Callback<T> callback) {
+        Entry<T> entry = new Entry<T>(call, callback, call.priority(), call.host());
+        List<Entry<?>> canceled = new ArrayList<Entry<?>>();
+        List<Entry<?>> preempted = new ArrayList<Entry<?>>();
+        List<Entry<?>> admitted;
+        synchronized (this) {
+            entry.enqueuedAt = System.nanoTime();
+            purge(canceled);
+            if (call.isCanceled()) {
+                // canceled after its own check, before it could be found here
+                canceled.add(entry);
+            } else {
+                if (maxQueued > 0) {
+                    preempt(entry, preempted);
+                }
+                queue.add(entry);
+            }
+            admitted = promote();
+        }
+        fail(canceled);
+        for (Entry<?> victim : preempted) {
+            victim.preempt();
+        }
+        start(admitted);
+    }
+
+    <T> void cancel(PriorityCall<T> call) {
+        Entry<?> canceled = null;
+        synchronized (this) {
+            for (Iterator<Entry<?>> it = queue.iterator(); it.hasNext(); ) {
+                Entry<?> entry = it.next();
+                if (entry.call == call) {
+                    it.remove();
+                    canceled = entry;
+                    break;
+                }
+            }
+        }
+        if (canceled != null) {
+            canceled.fail(new IOException("Canceled"));
+        }
+    }
+
+    private void finished(Entry<?> entry) {
+        List<Entry<?>> canceled = new ArrayList<Entry<?>>();
+        List<Entry<?>> admitted;
+        synchronized (this) {
+            running--;
+            int count = runningPerHost.get(entry.host) - 1;
+            if (count == 0) {
+                runningPerHost.remove(entry.host);
+            } else {
+                runningPerHost.put(entry.host, count);
+            }
+            purge(canceled);
+            admitted = promote();
+        }
+        fail(canceled);
+        start(admitted);
+    }
+
+    /**
+     * Remove queued calls canceled without their entry being found, so they
+     * neither take a running slot nor count towards preemption
+     */
+    private void purge(List<Entry<?>> canceled) {
+        for (Iterator<Entry<?>> it = queue.iterator(); it.hasNext(); ) {
+            Entry<?> entry = it.next();
+            if (entry.call.isCanceled()) {
+                it.remove();
+                canceled.add(entry);
+            }
+        }
+    }
+
+    private List<Entry<?>> promote() {
+        List<Entry<?>> admitted = new ArrayList<Entry<?>>();
+        long now = System.nanoTime();
+        while (running < maxRequests && !queue.isEmpty()) {
+            Entry<?> next = null;
+            long best = Long.MIN_VALUE;
+            for (Entry<?> entry : queue) {
+                Integer hostCount = runningPerHost.get(entry.host);
+                if (hostCount != null && hostCount >= maxRequestsPerHost) {
+                    continue;
+                }
+                // earlier entries win ties, keeping fifo order within a priority
+                long effective = effectivePriority(entry, now);
+                if (effective > best) {
+                    best = effective;
+                    next = entry;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+
+            queue.remove(next);
+            running++;
+            Integer hostCount = runningPerHost.get(next.host);
+            runningPerHost.put(next.host, hostCount == null ? 1 : hostCount + 1);
+
+            long wait = now - next.enqueuedAt;
+            long[] value = statsOf(next.priority);
+            value[0]++;
+            value[2] += wait;
+            value[3] = Math.max(value[3], wait);
+            admitted.add(next);
+        }
+        return admitted;
+    }
+
+    private void preempt(Entry<?> arriving, List<Entry<?>> preempted) {
+        long now = System.nanoTime();
+        while (queue.size() >= maxQueued) {
+            Entry<?> victim = null;
+            for (Entry<?> entry : queue) {
+                if (entry.priority < arriving.priority && (victim == null
+                        || effectivePriority(entry, now) <= effectivePriority(victim, now))) {
+                    victim = entry;
+                }
+            }
+            if (victim == null) {
+                return;
+            }
+            queue.remove(victim);
+            statsOf(victim.priority)[1]++;
+            preempted.add(victim);
+        }
+    }
+
+    private long effectivePriority(Entry<?> entry, long now) {
+        long aging = agingIntervalNanos > 0 ? (now - entry.enqueuedAt) / agingIntervalNanos : 0L;
+        return entry.priority + aging;
+    }
+
+    private long[] statsOf(int priority) {
+        // dispatched, preempted, total wait, max wait
+        long[] value = stats.get(priority);
+        if (value == null) {
+            value = new long[4];
+            stats.put(priority, value);
+        }
+        return value;
+    }
+
+    private void fail(List<Entry<?>> canceled) {
+        for (Entry<?> entry : canceled) {
+            entry.fail(new IOException("Canceled"));
+        }
+    }
+
+    private void start(List<Entry<?>> admitted) {
+        for (Entry<?> entry : admitted) {
+            entry.start();
+        }
+    }
+
+    private final class Entry<T> {
+        final PriorityCall<T> call;
+        final Callback<T> callback;
+        final int priority;
+        final String host;
+        long enqueuedAt;
+
+        Entry(PriorityCall<T> call, Callback<T> callback, int priority, String host) {
+            this.call = call;
+            this.callback = callback;
+            this.priority = priority;
+            this.host = host;
+        }
+
+        void start() {
+            call.delegate().enqueue(new Callback<T>() {
+                @Override
+                public void onResponse(@NonNull Call<T> ignored, @NonNull Response<T> response) {
+                    finished(Entry.this);
+                    callback.onResponse(call, response);
+                }
+
+                @Override
+                public void onFailure(@NonNull Call<T> ignored, @NonNull Throwable t) {
+                    finished(Entry.this);
+                    callback.onFailure(call, t);
+                }
+            });
+        }
+
+        void preempt() {
+            call.delegate().cancel();
+            fail(new CallPreemptedException(priority));
+        }
+
+        void fail(Throwable error) {
+            callback.onFailure(call, error);
+        }
+    }
+
+    public static class Builder {
+        private int maxRequests = DEFAULT_MAX_REQUESTS;
+        private int maxRequestsPerHost = DEFAULT_MAX_REQUESTS_PER_HOST;
+        private long agingIntervalNanos = TimeUnit.MILLISECONDS.toNanos(DEFAULT_AGING_INTERVAL);
+        private int maxQueued;
+
+        Builder() {
+        }
+
+        /**
+         * Maximum number of running calls
+         *
+         * @param maxRequests valid maximum
+         * @return builder
+         */
+        @NonNull
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("maxRequests < 1: " + maxRequests);
+            }
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * Maximum number of running calls per host
+         *
+         * @param maxRequestsPerHost valid maximum
+         * @return builder
+         */
+        @NonNull
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequestsPerHost < 1: " + maxRequestsPerHost);
+            }
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * Wait time raising a queued call's priority by one, or zero to disable aging
+         *
+         * @param interval valid interval
+         * @param unit     interval unit
+         * @return builder
+         */
+        @NonNull
+        public Builder agingInterval(long interval, @NonNull TimeUnit unit) {
+            this.agingIntervalNanos = unit.toNanos(interval);
+            return this;
+        }
+
+        /**
+         * Cancel queued calls of lower priority when a call arrives at a queue
+         * of {@code maxQueued} calls. Disabled by default.
+         *
+         * @param maxQueued valid queue size
+         * @return builder
+         */
+        @NonNull
+        public Builder preemption(int maxQueued) {
+            if (maxQueued < 1) {
+                throw new IllegalArgumentException("maxQueued < 1: " + maxQueued);
+            }
+            this.maxQueued = maxQueued;
+            return this;
+        }
+
+        @NonNull
+        public PriorityDispatcher build() {
+            return new PriorityDispatcher(this);
+        }
+    }
+}
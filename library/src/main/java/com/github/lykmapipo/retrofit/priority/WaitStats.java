@@ -0,0 +1,80 @@
+package com.github.lykmapipo.retrofit.priority;
+
+/**
+ * Queue wait time metrics of calls of one priority
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class WaitStats {
+    private final int priority;
+    private final long dispatched;
+    private final long preempted;
+    private final long totalWaitMillis;
+    private final long maxWaitMillis;
+
+    WaitStats(int priority, long dispatched, long preempted, long totalWaitMillis, long maxWaitMillis) {
+        this.priority = priority;
+        this.dispatched = dispatched;
+        this.preempted = preempted;
+        this.totalWaitMillis = totalWaitMillis;
+        this.maxWaitMillis = maxWaitMillis;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Number of calls dispatched to the network
+     *
+     * @return dispatched calls
+     */
+    public long getDispatched() {
+        return dispatched;
+    }
+
+    /**
+     * Number of queued calls canceled to make room for higher priority calls
+     *
+     * @return preempted calls
+     */
+    public long getPreempted() {
+        return preempted;
+    }
+
+    /**
+     * Total time dispatched calls waited in queue
+     *
+     * @return total wait in milliseconds
+     */
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    /**
+     * Longest time a dispatched call waited in queue
+     *
+     * @return maximum wait in milliseconds
+     */
+    public long getMaxWaitMillis() {
+        return maxWaitMillis;
+    }
+
+    /**
+     * Average time dispatched calls waited in queue
+     *
+     * @return average wait in milliseconds
+     */
+    public long getAverageWaitMillis() {
+        return dispatched > 0 ? totalWaitMillis / dispatched : 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "WaitStats{priority=" + priority + ", dispatched=" + dispatched
+                + ", preempted=" + preempted + ", averageWaitMillis=" + getAverageWaitMillis()
+                + ", maxWaitMillis=" + maxWaitMillis + "}";
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.lykmapipo.retrofit.provider;
+
+import okhttp3.Request;
+
+/**
+ * Http accept header provider
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public abstract class AcceptProvider {
+    public abstract String getAccept(Request request);
+}
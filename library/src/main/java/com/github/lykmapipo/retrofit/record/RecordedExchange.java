@@ -0,0 +1,132 @@
+package com.github.lykmapipo.retrofit.record;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+
+/**
+ * One request and response exchange recorded by a {@link TrafficRecorder}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class RecordedExchange {
+    private final long offsetNanos;
+    private final String method;
+    private final String url;
+    private final Headers requestHeaders;
+    private final String requestContentType;
+    private final byte[] requestBody;
+    private final int code;
+    private final Headers responseHeaders;
+    private final String responseContentType;
+    private final byte[] responseBody;
+    private final long durationNanos;
+
+    RecordedExchange(
+            long offsetNanos, String method, String url,
+            Headers requestHeaders, String requestContentType, byte[] requestBody,
+            int code, Headers responseHeaders, String responseContentType, byte[] responseBody,
+            long durationNanos
+    ) {
+        this.offsetNanos = offsetNanos;
+        this.method = method;
+        this.url = url;
+        this.requestHeaders = requestHeaders;
+        this.requestContentType = requestContentType;
+        this.requestBody = requestBody;
+        this.code = code;
+        this.responseHeaders = responseHeaders;
+        this.responseContentType = responseContentType;
+        this.responseBody = responseBody;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Time the request was sent, since the recording started
+     *
+     * @param unit valid unit
+     * @return send offset
+     */
+    public long getOffset(@NonNull TimeUnit unit) {
+        return unit.convert(offsetNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @NonNull
+    public String getMethod() {
+        return method;
+    }
+
+    @NonNull
+    public String getUrl() {
+        return url;
+    }
+
+    @NonNull
+    public Headers getRequestHeaders() {
+        return requestHeaders;
+    }
+
+    @Nullable
+    public String getRequestContentType() {
+        return requestContentType;
+    }
+
+    /**
+     * Request body bytes, or null if there was none or it could not be recorded
+     *
+     * @return request body
+     */
+    @Nullable
+    public byte[] getRequestBody() {
+        return requestBody;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    @NonNull
+    public Headers getResponseHeaders() {
+        return responseHeaders;
+    }
+
+    @Nullable
+    public String getResponseContentType() {
+        return responseContentType;
+    }
+
+    /**
+     * Response body bytes, up to the recorder's maximum body size
+     *
+     * @return response body
+     */
+    @Nullable
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    /**
+     * Time from sending the request to receiving response headers
+     *
+     * @param unit valid unit
+     * @return exchange duration
+     */
+    public long getDuration(@NonNull TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "RecordedExchange{" +
+                "method='" + method + '\'' +
+                ", url='" + url + '\'' +
+                ", code=" + code +
+                ", durationMillis=" + getDuration(TimeUnit.MILLISECONDS) +
+                '}';
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.lykmapipo.retrofit.record;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ByteString;
+
+/**
+ * Compact binary encoding of recorded exchanges.
+ * <p>
+ * A recording starts with a magic number and a version, followed by one
+ * record per exchange. Numbers are unsigned variable length integers,
+ * strings and byte arrays are length prefixed, with lengths shifted by one
+ * so zero marks null.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class RecordingCodec {
+    static final int MAGIC = 0x52524543; // RREC
+    static final int VERSION = 1;
+
+    private RecordingCodec() {
+    }
+
+    static void writeHeader(@NonNull BufferedSink sink) throws IOException {
+        sink.writeInt(MAGIC);
+        sink.writeByte(VERSION);
+    }
+
+    static void readHeader(@NonNull BufferedSource source) throws IOException {
+        if (source.readInt() != MAGIC) {
+            throw new IOException("not a traffic recording");
+        }
+        int version = source.readByte();
+        if (version != VERSION) {
+            throw new IOException("unsupported recording version " + version);
+        }
+    }
+
+    static void write(@NonNull BufferedSink sink, @NonNull RecordedExchange exchange) throws IOException {
+        writeVarLong(sink, exchange.getOffset(TimeUnit.NANOSECONDS));
+        writeString(sink, exchange.getMethod());
+        writeString(sink, exchange.getUrl());
+        writeHeaders(sink, exchange.getRequestHeaders());
+        writeString(sink, exchange.getRequestContentType());
+        writeBytes(sink, exchange.getRequestBody());
+        writeVarLong(sink, exchange.getCode());
+        writeHeaders(sink, exchange.getResponseHeaders());
+        writeString(sink, exchange.getResponseContentType());
+        writeBytes(sink, exchange.getResponseBody());
+        writeVarLong(sink, exchange.getDuration(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Read next exchange
+     *
+     * @return exchange or null at end of recording
+     */
+    @Nullable
+    static RecordedExchange read(@NonNull BufferedSource source) throws IOException {
+        if (source.exhausted()) {
+            return null;
+        }
+        long offset = readVarLong(source);
+        String method = readString(source);
+        String url = readString(source);
+        Headers requestHeaders = readHeaders(source);
+        String requestContentType = readString(source);
+        byte[] requestBody = readBytes(source);
+        int code = (int) readVarLong(source);
+        Headers responseHeaders = readHeaders(source);
+        String responseContentType = readString(source);
+        byte[] responseBody = readBytes(source);
+        long duration = readVarLong(source);
+        return new RecordedExchange(
+                offset, method, url, requestHeaders, requestContentType, requestBody,
+                code, responseHeaders, responseContentType, responseBody, duration);
+    }
+
+    private static void writeHeaders(BufferedSink sink, Headers headers) throws IOException {
+        writeVarLong(sink, headers.size());
+        for (int i = 0, size = headers.size(); i < size; i++) {
+            writeString(sink, headers.name(i));
+            writeString(sink, headers.value(i));
+        }
+    }
+
+    private static Headers readHeaders(BufferedSource source) throws IOException {
+        Headers.Builder builder = new Headers.Builder();
+        for (long i = 0, size = readVarLong(source); i < size; i++) {
+            builder.addUnsafeNonAscii(readString(source), readString(source));
+        }
+        return builder.build();
+    }
+
+    private static void writeString(BufferedSink sink, @Nullable String value) throws IOException {
+        if (value == null) {
+            writeVarLong(sink, 0);
+            return;
+        }
+        ByteString bytes = ByteString.encodeUtf8(value);
+        writeVarLong(sink, bytes.size() + 1L);
+        sink.write(bytes);
+    }
+
+    @Nullable
+    private static String readString(BufferedSource source) throws IOException {
+        long length = readVarLong(source);
+        return length == 0 ? null : source.readUtf8(length - 1);
+    }
+
+    private static void writeBytes(BufferedSink sink, @Nullable byte[] value) throws IOException {
+        if (value == null) {
+            writeVarLong(sink, 0);
+            return;
+        }
+        writeVarLong(sink, value.length + 1L);
+        sink.write(value);
+    }
+
+    @Nullable
+    private static byte[] readBytes(BufferedSource source) throws IOException {
+        long length = readVarLong(source);
+        return length == 0 ? null : source.readByteArray(length - 1);
+    }
+
+    private static void writeVarLong(BufferedSink sink, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            sink.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        sink.writeByte((int) value);
+    }
+
+    private static long readVarLong(BufferedSource source) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = source.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("malformed varint");
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.lykmapipo.retrofit.record;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.logging.LoggingInterceptor;
+import com.github.lykmapipo.retrofit.offline.RequestCodec;
+
+import java.io.IOException;
+
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+
+/**
+ * Http interceptor recording exchanges for a {@link TrafficRecorder}. Request
+ * bodies are recorded when their size is known and within the recorder's
+ * maximum body size, and they can be written more than once. Response bodies
+ * are peeked up to the maximum body size without consuming them, except for
+ * streamed responses. Sensitive headers are redacted before recording.
+ * Failed exchanges are not recorded.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class RecordingInterceptor implements Interceptor {
+    private final TrafficRecorder recorder;
+
+    public RecordingInterceptor(@NonNull TrafficRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        long maxBodySize = recorder.maxBodySize();
+        RequestBody requestBody = request.body();
+        byte[] requestBytes = null;
+        long requestBodySize = requestBody != null ? requestBody.contentLength() : -1L;
+        if (requestBodySize >= 0 && requestBodySize <= maxBodySize
+                && !RequestCodec.isOneShot(requestBody) && !requestBody.isDuplex()) {
+            Buffer buffer = new Buffer();
+            requestBody.writeTo(buffer);
+            requestBytes = buffer.readByteArray();
+        }
+
+        long start = System.nanoTime();
+        Response response = chain.proceed(request);
+        long duration = System.nanoTime() - start;
+
+        ResponseBody responseBody = response.body();
+        byte[] responseBytes = null;
+        MediaType responseType = null;
+        if (responseBody != null) {
+            responseType = responseBody.contentType();
+            if (!LoggingInterceptor.isStreaming(request, responseType)) {
+                try {
+                    responseBytes = response.peekBody(maxBodySize).bytes();
+                } catch (IOException e) {
+                    // reported to the caller when the body is read
+                }
+            }
+        }
+
+        MediaType requestType = requestBody != null ? requestBody.contentType() : null;
+        try {
+            recorder.record(new RecordedExchange(
+                    start - recorder.startNanos(), request.method(), request.url().toString(),
+                    recorder.redact(request.headers()),
+                    requestType != null ? requestType.toString() : null, requestBytes,
+                    response.code(), recorder.redact(response.headers()),
+                    responseType != null ? responseType.toString() : null, responseBytes,
+                    duration));
+        } catch (IOException ignore) {
+            // recording is best effort, never fail the call
+        }
+        return response;
+    }
+}
@@ -0,0 +1,168 @@
+package com.github.lykmapipo.retrofit.record;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.logging.TrafficLogger;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
+
+/**
+ * Records request and response exchanges of services, with their timing,
+ * to a compact binary file, so production traffic patterns can be replayed
+ * against a local server.
+ * <p>
+ * Each exchange keeps its send offset from the start of the recording, its
+ * duration, headers and bodies up to a maximum size. Credential and cookie
+ * headers, see {@link TrafficLogger#SENSITIVE_HEADERS}, and any other
+ * configured headers are redacted. Recordings are read back with
+ * {@link #read(File)}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class TrafficRecorder {
+    /**
+     * Default number of body bytes recorded
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_MAX_BODY_SIZE = 1024L * 1024L;
+
+    private final BufferedSink sink;
+    private final long maxBodySize;
+    private final long startNanos;
+    private final Set<String> redactedHeaders;
+    private int recorded;
+    private boolean closed;
+
+    /**
+     * Create recording file, replacing an existing one
+     *
+     * @param file valid recording file
+     * @throws IOException if the file can not be written
+     */
+    public TrafficRecorder(@NonNull File file) throws IOException {
+        this(file, DEFAULT_MAX_BODY_SIZE);
+    }
+
+    /**
+     * Create recording file, replacing an existing one
+     *
+     * @param file        valid recording file
+     * @param maxBodySize valid number of body bytes recorded
+     * @throws IOException if the file can not be written
+     */
+    public TrafficRecorder(@NonNull File file, long maxBodySize) throws IOException {
+        this(file, maxBodySize, Collections.<String>emptySet());
+    }
+
+    /**
+     * Create recording file, replacing an existing one
+     *
+     * @param file            valid recording file
+     * @param maxBodySize     valid number of body bytes recorded
+     * @param redactedHeaders names of headers redacted in addition to
+     *                        {@link TrafficLogger#SENSITIVE_HEADERS}
+     * @throws IOException if the file can not be written
+     */
+    public TrafficRecorder(
+            @NonNull File file, long maxBodySize, @NonNull Set<String> redactedHeaders
+    ) throws IOException {
+        this.redactedHeaders = new HashSet<String>(TrafficLogger.SENSITIVE_HEADERS);
+        for (String name : redactedHeaders) {
+            this.redactedHeaders.add(name.toLowerCase(Locale.ENGLISH));
+        }
+        this.sink = Okio.buffer(Okio.sink(file));
+        this.maxBodySize = maxBodySize;
+        this.startNanos = System.nanoTime();
+        RecordingCodec.writeHeader(sink);
+    }
+
+    /**
+     * Read all exchanges of a recording, in recorded order
+     *
+     * @param file valid recording file
+     * @return recorded exchanges
+     * @throws IOException if the file is not a valid recording
+     */
+    @NonNull
+    public static List<RecordedExchange> read(@NonNull File file) throws IOException {
+        List<RecordedExchange> exchanges = new ArrayList<RecordedExchange>();
+        BufferedSource source = Okio.buffer(Okio.source(file));
+        try {
+            RecordingCodec.readHeader(source);
+            RecordedExchange exchange;
+            while ((exchange = RecordingCodec.read(source)) != null) {
+                exchanges.add(exchange);
+            }
+        } finally {
+            source.close();
+        }
+        return exchanges;
+    }
+
+    /**
+     * Interceptor recording calls of services created with the recorder
+     *
+     * @return recording interceptor
+     */
+    @NonNull
+    public Interceptor interceptor() {
+        return new RecordingInterceptor(this);
+    }
+
+    /**
+     * Number of exchanges recorded
+     *
+     * @return recorded exchanges
+     */
+    public synchronized int size() {
+        return recorded;
+    }
+
+    /**
+     * Stop recording and flush the recording file
+     *
+     * @throws IOException if the file can not be written
+     */
+    public synchronized void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            sink.close();
+        }
+    }
+
+    long maxBodySize() {
+        return maxBodySize;
+    }
+
+    long startNanos() {
+        return startNanos;
+    }
+
+    Headers redact(Headers headers) {
+        return TrafficLogger.redact(headers, redactedHeaders);
+    }
+
+    synchronized void record(@NonNull RecordedExchange exchange) throws IOException {
+        if (closed) {
+            return;
+        }
+        RecordingCodec.write(sink, exchange);
+        recorded++;
+    }
+}
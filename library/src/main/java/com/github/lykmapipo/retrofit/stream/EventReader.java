@@ -0,0 +1,147 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+
+import okio.BufferedSource;
+
+/**
+ * Incremental readers of streamed response bodies
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+abstract class EventReader {
+    final BufferedSource source;
+
+    EventReader(@NonNull BufferedSource source) {
+        this.source = source;
+    }
+
+    /**
+     * Read next event, blocking until one is complete.
+     *
+     * @return next event, or null at the end of the stream
+     */
+    @Nullable
+    abstract ServerSentEvent next() throws IOException;
+
+    /**
+     * Last event id seen on the stream
+     *
+     * @return last event id or null
+     */
+    @Nullable
+    String lastEventId() {
+        return null;
+    }
+
+    /**
+     * Reconnection time last requested by the server
+     *
+     * @return reconnection time in milliseconds or null
+     */
+    @Nullable
+    Long reconnectTime() {
+        return null;
+    }
+
+    /**
+     * Reads {@code text/event-stream} events
+     */
+    static final class Sse extends EventReader {
+        private String lastEventId;
+        private Long reconnectTime;
+
+        Sse(@NonNull BufferedSource source, @Nullable String lastEventId) {
+            super(source);
+            this.lastEventId = lastEventId;
+        }
+
+        @Nullable
+        @Override
+        ServerSentEvent next() throws IOException {
+            StringBuilder data = null;
+            String event = null;
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                // blank line dispatches the event
+                if (line.isEmpty()) {
+                    if (data != null) {
+                        return new ServerSentEvent(lastEventId, event, data.toString(), reconnectTime);
+                    }
+                    event = null;
+                    continue;
+                }
+                // comment
+                if (line.charAt(0) == ':') {
+                    continue;
+                }
+
+                int colon = line.indexOf(':');
+                String field = colon >= 0 ? line.substring(0, colon) : line;
+                String value = "";
+                if (colon >= 0) {
+                    int start = colon + 1;
+                    if (start < line.length() && line.charAt(start) == ' ') {
+                        start++;
+                    }
+                    value = line.substring(start);
+                }
+
+                if ("data".equals(field)) {
+                    data = data == null ? new StringBuilder(value) : data.append('\n').append(value);
+                } else if ("event".equals(field)) {
+                    event = value;
+                } else if ("id".equals(field)) {
+                    if (value.indexOf('\u0000') < 0) {
+                        lastEventId = value;
+                    }
+                } else if ("retry".equals(field)) {
+                    try {
+                        reconnectTime = Long.parseLong(value);
+                    } catch (NumberFormatException ignored) {
+                        // ignore invalid reconnection time
+                    }
+                }
+            }
+            return null;
+        }
+
+        @Nullable
+        @Override
+        String lastEventId() {
+            return lastEventId;
+        }
+
+        @Nullable
+        @Override
+        Long reconnectTime() {
+            return reconnectTime;
+        }
+    }
+
+    /**
+     * Reads newline delimited json, one event per non blank line
+     */
+    static final class Ndjson extends EventReader {
+        Ndjson(@NonNull BufferedSource source) {
+            super(source);
+        }
+
+        @Nullable
+        @Override
+        ServerSentEvent next() throws IOException {
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                if (!line.trim().isEmpty()) {
+                    return new ServerSentEvent(null, null, line, null);
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.TypeAdapter;
+
+import java.io.IOException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Call;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.BufferedSource;
+import retrofit2.HttpException;
+
+/**
+ * Long lived response of Server-Sent Events ({@code text/event-stream}) or
+ * newline delimited json, decoded incrementally while the response is open.
+ * <p>
+ * Created by {@link StreamCallAdapterFactory} for service methods returning
+ * {@code EventStream<T>}. Each {@link #connect(StreamListener)} opens a new
+ * stream on the factory executor. Stream requests carry their
+ * {@code EventStream} as request tag, so interceptors can tell them from
+ * regular calls, see {@link #isStream(Request)}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class EventStream<T> {
+    static final String EVENT_STREAM = "text/event-stream";
+    static final String ACCEPT = EVENT_STREAM + ", application/x-ndjson";
+
+    private final Request request;
+    private final Call.Factory callFactory;
+    private final Decoder<T> decoder;
+    private final StreamCallAdapterFactory options;
+
+    EventStream(
+            @NonNull Request request, @NonNull Call.Factory callFactory,
+            @NonNull Decoder<T> decoder, @NonNull StreamCallAdapterFactory options
+    ) {
+        this.request = request;
+        this.callFactory = callFactory;
+        this.decoder = decoder;
+        this.options = options;
+    }
+
+    /**
+     * Check if a request opens an event stream. Deadlines, size limits and
+     * body peeking do not apply to such long lived responses.
+     *
+     * @param request valid request
+     * @return true if the request is an event stream request
+     * @since 0.9.0
+     */
+    public static boolean isStream(@NonNull Request request) {
+        return request.tag(EventStream.class) != null;
+    }
+
+    /**
+     * Streaming request
+     *
+     * @return request
+     */
+    @NonNull
+    public Request request() {
+        return request;
+    }
+
+    /**
+     * Open the stream
+     *
+     * @param listener valid stream listener
+     * @return stream connection
+     */
+    @NonNull
+    public StreamConnection connect(@NonNull StreamListener<T> listener) {
+        return connect(null, listener);
+    }
+
+    /**
+     * Open the stream, resuming Server-Sent Events after the given event id
+     *
+     * @param lastEventId id of the last received event
+     * @param listener    valid stream listener
+     * @return stream connection
+     */
+    @NonNull
+    public StreamConnection connect(
+            @Nullable String lastEventId, @NonNull StreamListener<T> listener
+    ) {
+        Connection connection = new Connection(lastEventId, listener);
+        options.executor().execute(connection);
+        return connection;
+    }
+
+    /**
+     * Decode event data to stream item
+     */
+    abstract static class Decoder<T> {
+        abstract T decode(ServerSentEvent event) throws IOException;
+
+        @SuppressWarnings("unchecked")
+        static <T> Decoder<T> of(final Class<?> rawType, final TypeAdapter<?> adapter) {
+            if (rawType == ServerSentEvent.class) {
+                return new Decoder<T>() {
+                    @Override
+                    T decode(ServerSentEvent event) {
+                        return (T) event;
+                    }
+                };
+            }
+            if (rawType == String.class) {
+                return new Decoder<T>() {
+                    @Override
+                    T decode(ServerSentEvent event) {
+                        return (T) event.getData();
+                    }
+                };
+            }
+            return new Decoder<T>() {
+                @Override
+                T decode(ServerSentEvent event) throws IOException {
+                    return (T) adapter.fromJson(event.getData());
+                }
+            };
+        }
+    }
+
+    private final class Connection implements StreamConnection, Runnable {
+        private final StreamListener<T> listener;
+        private final Object lock = new Object();
+        private volatile String lastEventId;
+        private volatile boolean canceled;
+        private volatile Call call;
+
+        Connection(String lastEventId, StreamListener<T> listener) {
+            this.lastEventId = lastEventId;
+            this.listener = listener;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+            Call current = call;
+            if (current != null) {
+                current.cancel();
+            }
+            synchronized (lock) {
+                lock.notifyAll();
+            }
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Nullable
+        @Override
+        public String getLastEventId() {
+            return lastEventId;
+        }
+
+        @Override
+        public void run() {
+            int attempt = 0;
+            long delay = options.reconnectDelayMillis();
+            while (!canceled) {
+                boolean sse = false;
+                boolean ndjson = false;
+                IOException error = null;
+                try {
+                    Request.Builder builder = request.newBuilder()
+                            .tag(EventStream.class, EventStream.this);
+                    if (request.header("Accept") == null) {
+                        builder.header("Accept", ACCEPT);
+                    }
+                    if (lastEventId != null) {
+                        builder.header("Last-Event-ID", lastEventId);
+                    }
+                    call = callFactory.newCall(builder.build());
+                    if (canceled) {
+                        break;
+                    }
+
+                    Response response = call.execute();
+                    try {
+                        ResponseBody body = response.body();
+                        if (!response.isSuccessful() || body == null) {
+                            fail(new HttpException(retrofit2.Response.error(
+                                    body != null ? body : ResponseBody.create("", null), response)));
+                            return;
+                        }
+                        // no content: server asks not to reconnect
+                        if (response.code() == 204) {
+                            break;
+                        }
+
+                        MediaType contentType = body.contentType();
+                        sse = contentType != null
+                                && EVENT_STREAM.equals(contentType.type() + "/" + contentType.subtype());
+                        ndjson = !sse;
+                        try {
+                            listener.onOpen(response);
+                        } catch (RuntimeException e) {
+                            fail(e);
+                            return;
+                        }
+
+                        BufferedSource source = body.source();
+                        // okhttp clients already read streams with the idle timeout,
+                        // other call factories are bounded here
+                        if (options.idleTimeoutMillis() > 0) {
+                            source.timeout().timeout(options.idleTimeoutMillis(), TimeUnit.MILLISECONDS);
+                        }
+
+                        EventReader reader = sse
+                                ? new EventReader.Sse(source, lastEventId)
+                                : new EventReader.Ndjson(source);
+                        ServerSentEvent event;
+                        while (!canceled && (event = reader.next()) != null) {
+                            attempt = 0;
+                            lastEventId = reader.lastEventId();
+                            if (reader.reconnectTime() != null) {
+                                delay = reader.reconnectTime();
+                            }
+                            T item;
+                            try {
+                                item = decoder.decode(event);
+                            } catch (Exception e) {
+                                fail(e);
+                                return;
+                            }
+                            if (item != null) {
+                                try {
+                                    listener.onEvent(item);
+                                } catch (RuntimeException e) {
+                                    fail(e);
+                                    return;
+                                }
+                            }
+                        }
+                    } finally {
+                        response.close();
+                    }
+
+                    // only event streams are reconnected after a clean end of stream
+                    if (!sse) {
+                        break;
+                    }
+                } catch (IOException e) {
+                    error = e;
+                }
+
+                if (canceled) {
+                    break;
+                }
+                // json lines can not be resumed, reconnecting would replay them
+                if (error != null && ndjson) {
+                    fail(error);
+                    return;
+                }
+                if (attempt >= options.maxReconnects()) {
+                    if (error != null) {
+                        fail(error);
+                        return;
+                    }
+                    break;
+                }
+                attempt++;
+                listener.onReconnect(attempt, delay);
+                if (!sleep(delay)) {
+                    break;
+                }
+            }
+            listener.onClosed();
+        }
+
+        private boolean sleep(long delay) {
+            long deadline = System.currentTimeMillis() + delay;
+            synchronized (lock) {
+                long remaining;
+                while (!canceled && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    try {
+                        lock.wait(remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return false;
+                    }
+                }
+            }
+            return !canceled;
+        }
+
+        private void fail(Throwable error) {
+            if (canceled) {
+                listener.onClosed();
+            } else {
+                listener.onFailure(error);
+            }
+        }
+    }
+}
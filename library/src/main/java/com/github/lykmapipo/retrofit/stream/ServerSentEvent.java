@@ -0,0 +1,73 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Server-Sent Event as dispatched by a {@code text/event-stream} response
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class ServerSentEvent {
+    private final String id;
+    private final String event;
+    private final String data;
+    private final Long retry;
+
+    public ServerSentEvent(
+            @Nullable String id, @Nullable String event,
+            @NonNull String data, @Nullable Long retry
+    ) {
+        this.id = id;
+        this.event = event;
+        this.data = data;
+        this.retry = retry;
+    }
+
+    /**
+     * Event id, also sent back as {@code Last-Event-ID} on reconnect
+     *
+     * @return event id or null
+     */
+    @Nullable
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Event type. Defaults to {@code message} when not set by the server.
+     *
+     * @return event type
+     */
+    @NonNull
+    public String getEvent() {
+        return event != null ? event : "message";
+    }
+
+    /**
+     * Event data, multiple data lines joined by a line feed
+     *
+     * @return event data
+     */
+    @NonNull
+    public String getData() {
+        return data;
+    }
+
+    /**
+     * Reconnection time requested by the server
+     *
+     * @return reconnection time in milliseconds or null
+     */
+    @Nullable
+    public Long getRetry() {
+        return retry;
+    }
+
+    @Override
+    public String toString() {
+        return "ServerSentEvent{id=" + id + ", event=" + getEvent() + ", data=" + data + "}";
+    }
+}
@@ -0,0 +1,273 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.github.lykmapipo.common.Common;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.OkHttpClient;
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+
+/**
+ * {@link CallAdapter.Factory} for service methods returning {@link EventStream}.
+ * <p>
+ * Responses are never buffered: Server-Sent Events ({@code text/event-stream})
+ * and newline delimited json are decoded one event or line at a time with the
+ * shared gson instance while the response stays open. {@code EventStream<String>}
+ * and {@code EventStream<ServerSentEvent>} receive the raw event data.
+ *
+ * <pre>
+ * &#64;GET("users/changes")
+ * EventStream&lt;User&gt; changes();
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class StreamCallAdapterFactory extends CallAdapter.Factory {
+    /**
+     * Default delay before reconnecting a dropped event stream
+     *
+     * @since 0.9.0
+     */
+    public static final long DEFAULT_RECONNECT_DELAY = 3000L;
+
+    /**
+     * Default number of reconnects without receiving an event
+     *
+     * @since 0.9.0
+     */
+    public static final int DEFAULT_MAX_RECONNECTS = 5;
+
+    private static ExecutorService defaultExecutor;
+
+    private final Gson gson;
+    private final Executor executor;
+    private final long idleTimeoutMillis;
+    private final long reconnectDelayMillis;
+    private final int maxReconnects;
+
+    private StreamCallAdapterFactory(Builder builder) {
+        this.gson = builder.gson != null ? builder.gson : Common.gson();
+        this.executor = builder.executor;
+        this.idleTimeoutMillis = builder.idleTimeoutMillis;
+        this.reconnectDelayMillis = builder.reconnectDelayMillis;
+        this.maxReconnects = builder.maxReconnects;
+    }
+
+    /**
+     * Create factory with default options
+     *
+     * @return stream call adapter factory
+     */
+    @NonNull
+    public static StreamCallAdapterFactory create() {
+        return builder().build();
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(
+            @NonNull Type returnType, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        if (getRawType(returnType) != EventStream.class) {
+            return null;
+        }
+        if (!(returnType instanceof ParameterizedType)) {
+            throw new IllegalStateException(
+                    "EventStream return type must be parameterized"
+                            + " as EventStream<Foo> or EventStream<? extends Foo>");
+        }
+        Type itemType = getParameterUpperBound(0, (ParameterizedType) returnType);
+        Class<?> rawItemType = getRawType(itemType);
+        EventStream.Decoder<Object> decoder = EventStream.Decoder.of(
+                rawItemType,
+                rawItemType == String.class || rawItemType == ServerSentEvent.class
+                        ? null : gson.getAdapter(TypeToken.get(itemType))
+        );
+        return new StreamCallAdapter(decoder, streamCallFactory(retrofit.callFactory()));
+    }
+
+    /**
+     * Okhttp sets the socket timeout of every read to the client read timeout,
+     * so streams of okhttp clients are read with the idle timeout instead
+     */
+    private okhttp3.Call.Factory streamCallFactory(okhttp3.Call.Factory callFactory) {
+        if (callFactory instanceof OkHttpClient) {
+            return ((OkHttpClient) callFactory).newBuilder()
+                    .readTimeout(idleTimeoutMillis, TimeUnit.MILLISECONDS)
+                    .build();
+        }
+        return callFactory;
+    }
+
+    @NonNull
+    Executor executor() {
+        return executor != null ? executor : defaultExecutor();
+    }
+
+    long idleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    long reconnectDelayMillis() {
+        return reconnectDelayMillis;
+    }
+
+    int maxReconnects() {
+        return maxReconnects;
+    }
+
+    private static synchronized ExecutorService defaultExecutor() {
+        if (defaultExecutor == null) {
+            defaultExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+                private final AtomicInteger count = new AtomicInteger();
+
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "retrofit-stream-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return defaultExecutor;
+    }
+
+    private final class StreamCallAdapter implements CallAdapter<ResponseBody, EventStream<Object>> {
+        private final EventStream.Decoder<Object> decoder;
+        private final okhttp3.Call.Factory callFactory;
+
+        StreamCallAdapter(EventStream.Decoder<Object> decoder, okhttp3.Call.Factory callFactory) {
+            this.decoder = decoder;
+            this.callFactory = callFactory;
+        }
+
+        @NonNull
+        @Override
+        public Type responseType() {
+            return ResponseBody.class;
+        }
+
+        @NonNull
+        @Override
+        public EventStream<Object> adapt(@NonNull Call<ResponseBody> call) {
+            // stream through okhttp directly, retrofit would buffer the body
+            return new EventStream<Object>(
+                    call.request(), callFactory, decoder, StreamCallAdapterFactory.this);
+        }
+    }
+
+    public static class Builder {
+        private Gson gson;
+        private Executor executor;
+        private long idleTimeoutMillis = 0L;
+        private long reconnectDelayMillis = DEFAULT_RECONNECT_DELAY;
+        private int maxReconnects = DEFAULT_MAX_RECONNECTS;
+
+        Builder() {
+        }
+
+        /**
+         * Gson used to decode items. The default is the shared gson instance.
+         *
+         * @param gson valid gson
+         * @return builder
+         */
+        @NonNull
+        public Builder gson(@NonNull Gson gson) {
+            this.gson = gson;
+            return this;
+        }
+
+        /**
+         * Executor to read streams on. Each open stream occupies one thread.
+         *
+         * @param executor valid executor
+         * @return builder
+         */
+        @NonNull
+        public Builder executor(@NonNull Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Maximum time to wait for the next event or line once a stream is
+         * open. Stream calls of okhttp clients use it as their read timeout in
+         * place of the client read timeout. The default is 0, wait forever.
+         *
+         * @param timeout valid idle timeout
+         * @param unit    timeout unit
+         * @return builder
+         */
+        @NonNull
+        public Builder idleTimeout(long timeout, @NonNull TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout < 0: " + timeout);
+            }
+            this.idleTimeoutMillis = unit.toMillis(timeout);
+            return this;
+        }
+
+        /**
+         * Delay before reconnecting a dropped event stream, unless the server
+         * sent a {@code retry} field. The default is 3 seconds.
+         *
+         * @param delay valid reconnect delay
+         * @param unit  delay unit
+         * @return builder
+         */
+        @NonNull
+        public Builder reconnectDelay(long delay, @NonNull TimeUnit unit) {
+            if (delay < 0) {
+                throw new IllegalArgumentException("delay < 0: " + delay);
+            }
+            this.reconnectDelayMillis = unit.toMillis(delay);
+            return this;
+        }
+
+        /**
+         * Maximum consecutive reconnects without receiving an event. 0 disables
+         * reconnecting. The default is 5.
+         *
+         * @param maxReconnects valid maximum reconnects
+         * @return builder
+         */
+        @NonNull
+        public Builder maxReconnects(int maxReconnects) {
+            if (maxReconnects < 0) {
+                throw new IllegalArgumentException("maxReconnects < 0: " + maxReconnects);
+            }
+            this.maxReconnects = maxReconnects;
+            return this;
+        }
+
+        @NonNull
+        public StreamCallAdapterFactory build() {
+            return new StreamCallAdapterFactory(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.Nullable;
+
+/**
+ * Handle of an open {@link EventStream}
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public interface StreamConnection {
+    /**
+     * Close the stream and stop reconnecting
+     */
+    void cancel();
+
+    /**
+     * Check if the stream was canceled
+     *
+     * @return true if canceled
+     */
+    boolean isCanceled();
+
+    /**
+     * Id of the last received Server-Sent Event, to resume a later stream from
+     *
+     * @return last event id or null
+     */
+    @Nullable
+    String getLastEventId();
+}
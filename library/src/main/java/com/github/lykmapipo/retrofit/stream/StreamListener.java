@@ -0,0 +1,58 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import androidx.annotation.NonNull;
+
+import okhttp3.Response;
+
+/**
+ * Receive items of an {@link EventStream}.
+ * <p>
+ * Callbacks are invoked on the stream reader thread and the next item is not
+ * read until {@link #onEvent(Object)} returns, so a slow listener applies
+ * backpressure all the way to the server. Exactly one of {@link #onFailure(Throwable)}
+ * or {@link #onClosed()} is invoked last.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public abstract class StreamListener<T> {
+    /**
+     * Invoked when the stream is (re)opened
+     *
+     * @param response streaming response
+     */
+    public void onOpen(@NonNull Response response) {
+    }
+
+    /**
+     * Invoked for each decoded event or line. An exception thrown here closes
+     * the stream and is passed to {@link #onFailure(Throwable)}.
+     *
+     * @param item decoded item
+     */
+    public abstract void onEvent(@NonNull T item);
+
+    /**
+     * Invoked before reconnecting a dropped Server-Sent Events stream
+     *
+     * @param attempt     reconnect attempt, starting at 1
+     * @param delayMillis delay before reconnecting
+     */
+    public void onReconnect(int attempt, long delayMillis) {
+    }
+
+    /**
+     * Invoked when the stream failed and will not be reconnected
+     *
+     * @param error failure
+     */
+    public void onFailure(@NonNull Throwable error) {
+    }
+
+    /**
+     * Invoked when the stream ended or was canceled
+     */
+    public void onClosed() {
+    }
+}
@@ -0,0 +1,88 @@
+package com.github.lykmapipo.retrofit.timeout;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Request;
+
+/**
+ * Point in time by which a call must complete.
+ * <p>
+ * Pass one as a request tag to bound a single call, or share it between the
+ * calls of one user action so they all fit in its budget. While a call runs,
+ * its effective deadline is set as tag of the request seen by interceptors,
+ * so they can skip work that can no longer finish in time.
+ *
+ * <pre>
+ * &#64;GET("users")
+ * Call&lt;List&lt;User&gt;&gt; list(&#64;Tag Deadline deadline);
+ *
+ * service.list(Deadline.after(3, TimeUnit.SECONDS));
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public final class Deadline {
+    private final long deadlineNanos;
+
+    private Deadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Deadline after a duration from now
+     *
+     * @param duration valid duration
+     * @param unit     duration unit
+     * @return deadline
+     */
+    @NonNull
+    public static Deadline after(long duration, @NonNull TimeUnit unit) {
+        return new Deadline(System.nanoTime() + unit.toNanos(duration));
+    }
+
+    /**
+     * Effective deadline of a request
+     *
+     * @param request valid request
+     * @return deadline or null
+     */
+    @Nullable
+    public static Deadline of(@NonNull Request request) {
+        return request.tag(Deadline.class);
+    }
+
+    /**
+     * Time left until the deadline, zero or negative once expired
+     *
+     * @param unit valid unit
+     * @return remaining time
+     */
+    public long remaining(@NonNull TimeUnit unit) {
+        return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos - System.nanoTime() <= 0;
+    }
+
+    /**
+     * Earlier of this and another deadline
+     *
+     * @param other valid deadline
+     * @return earlier deadline
+     */
+    @NonNull
+    public Deadline min(@NonNull Deadline other) {
+        return deadlineNanos - other.deadlineNanos <= 0 ? this : other;
+    }
+
+    @Override
+    public String toString() {
+        return "Deadline(" + remaining(TimeUnit.MILLISECONDS) + "ms)";
+    }
+}
@@ -0,0 +1,19 @@
+package com.github.lykmapipo.retrofit.timeout;
+
+import java.io.InterruptedIOException;
+
+/**
+ * Thrown when a call does not complete by its {@link Deadline}. It is an
+ * {@link InterruptedIOException}, like other okhttp timeouts.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class DeadlineExceededException extends InterruptedIOException {
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException() {
+        super("deadline exceeded");
+    }
+}
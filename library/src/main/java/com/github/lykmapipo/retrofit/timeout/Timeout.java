@@ -0,0 +1,55 @@
+package com.github.lykmapipo.retrofit.timeout;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Set timeouts of the annotated service method in milliseconds, overriding
+ * the service defaults. Unset values keep the service defaults.
+ *
+ * <pre>
+ * &#64;Timeout(read = 500, call = 2000)
+ * &#64;GET("users/{id}")
+ * Call&lt;User&gt; get(&#64;Path("id") String id);
+ * </pre>
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Timeout {
+    /**
+     * Connect timeout in milliseconds
+     *
+     * @return connect timeout
+     */
+    long connect() default 0;
+
+    /**
+     * Read timeout in milliseconds
+     *
+     * @return read timeout
+     */
+    long read() default 0;
+
+    /**
+     * Write timeout in milliseconds
+     *
+     * @return write timeout
+     */
+    long write() default 0;
+
+    /**
+     * Deadline of the whole call in milliseconds, covering failovers, retries,
+     * redirects and reading the response body
+     *
+     * @return call deadline
+     */
+    long call() default 0;
+}
@@ -0,0 +1,199 @@
+package com.github.lykmapipo.retrofit.timeout;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.stream.EventStream;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import okio.ForwardingSource;
+import okio.Okio;
+import okio.Source;
+import retrofit2.Invocation;
+
+/**
+ * Http interceptor applying {@link Timeout} of service methods and enforcing
+ * call {@link Deadline}s.
+ * <p>
+ * The effective deadline of a call is the earliest of its {@link Deadline}
+ * request tag, its method's call timeout and the service default. It is set
+ * as request tag for the rest of the chain, connect, read and write timeouts
+ * are capped to the remaining time, and the call is canceled with a
+ * {@link DeadlineExceededException} once the deadline passes, including
+ * while its response body is read. {@link EventStream} requests are left alone.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class TimeoutInterceptor implements Interceptor {
+    private final long callTimeoutMillis;
+
+    /**
+     * @param callTimeoutMillis default call deadline in milliseconds, or zero for none
+     */
+    public TimeoutInterceptor(long callTimeoutMillis) {
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+
+    @NonNull
+    @Override
+    public Response intercept(@NonNull Chain chain) throws IOException {
+        Request request = chain.request();
+        // long lived streams are bounded by their idle timeout instead
+        if (EventStream.isStream(request)) {
+            return chain.proceed(request);
+        }
+
+        Invocation invocation = request.tag(Invocation.class);
+        Method method = invocation != null ? invocation.method() : null;
+        Timeout timeout = method != null ? method.getAnnotation(Timeout.class) : null;
+
+        // resolve effective deadline
+        Deadline deadline = request.tag(Deadline.class);
+        long callMillis = timeout != null && timeout.call() > 0 ? timeout.call() : callTimeoutMillis;
+        if (callMillis > 0) {
+            Deadline own = Deadline.after(callMillis, TimeUnit.MILLISECONDS);
+            deadline = deadline != null ? deadline.min(own) : own;
+        }
+
+        if (timeout == null && deadline == null) {
+            return chain.proceed(request);
+        }
+
+        // apply method timeouts, capped to remaining time
+        long connect = chain.connectTimeoutMillis();
+        long read = chain.readTimeoutMillis();
+        long write = chain.writeTimeoutMillis();
+        if (timeout != null) {
+            connect = timeout.connect() > 0 ? timeout.connect() : connect;
+            read = timeout.read() > 0 ? timeout.read() : read;
+            write = timeout.write() > 0 ? timeout.write() : write;
+        }
+        if (deadline == null) {
+            return withTimeouts(chain, connect, read, write).proceed(request);
+        }
+        long remaining = deadline.remaining(TimeUnit.MILLISECONDS);
+        if (remaining <= 0) {
+            throw new DeadlineExceededException();
+        }
+        connect = cap(connect, remaining);
+        read = cap(read, remaining);
+        write = cap(write, remaining);
+        request = request.newBuilder().tag(Deadline.class, deadline).build();
+
+        // cancel the call once the deadline passes
+        final Call call = chain.call();
+        final AtomicBoolean expired = new AtomicBoolean();
+        ScheduledFuture<?> cancel = Scheduler.INSTANCE.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expired.set(true);
+                call.cancel();
+            }
+        }, deadline.remaining(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        Response response;
+        try {
+            response = withTimeouts(chain, connect, read, write).proceed(request);
+        } catch (IOException e) {
+            cancel.cancel(false);
+            throw expired.get() ? exceeded(e) : e;
+        }
+        ResponseBody body = response.body();
+        if (body == null) {
+            cancel.cancel(false);
+            return response;
+        }
+        DeadlineSource source = new DeadlineSource(body.source(), cancel, expired);
+        return response.newBuilder()
+                .body(ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength()))
+                .build();
+    }
+
+    private static Chain withTimeouts(Chain chain, long connect, long read, long write) {
+        return chain
+                .withConnectTimeout((int) Math.min(connect, Integer.MAX_VALUE), TimeUnit.MILLISECONDS)
+                .withReadTimeout((int) Math.min(read, Integer.MAX_VALUE), TimeUnit.MILLISECONDS)
+                .withWriteTimeout((int) Math.min(write, Integer.MAX_VALUE), TimeUnit.MILLISECONDS);
+    }
+
+    private static long cap(long timeout, long remaining) {
+        // zero means no timeout
+        return timeout == 0 ? remaining : Math.min(timeout, remaining);
+    }
+
+    private static DeadlineExceededException exceeded(IOException cause) {
+        DeadlineExceededException exception = new DeadlineExceededException();
+        exception.initCause(cause);
+        return exception;
+    }
+
+    /**
+     * Body source reporting cancellation by deadline, and dropping the pending
+     * cancellation once the body is consumed or closed
+     */
+    private static final class DeadlineSource extends ForwardingSource {
+        private final ScheduledFuture<?> cancel;
+        private final AtomicBoolean expired;
+
+        DeadlineSource(Source delegate, ScheduledFuture<?> cancel, AtomicBoolean expired) {
+            super(delegate);
+            this.cancel = cancel;
+            this.expired = expired;
+        }
+
+        @Override
+        public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+            long read;
+            try {
+                read = super.read(sink, byteCount);
+            } catch (IOException e) {
+                cancel.cancel(false);
+                throw expired.get() ? exceeded(e) : e;
+            }
+            if (read == -1) {
+                cancel.cancel(false);
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            cancel.cancel(false);
+            super.close();
+        }
+    }
+
+    /**
+     * Shared daemon timer of pending cancellations
+     */
+    private static final class Scheduler {
+        static final ScheduledThreadPoolExecutor INSTANCE = create();
+
+        private static ScheduledThreadPoolExecutor create() {
+            ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable runnable) {
+                    Thread thread = new Thread(runnable, "TimeoutInterceptor deadline");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            executor.setRemoveOnCancelPolicy(true);
+            return executor;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.lykmapipo.retrofit.warmup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+
+import retrofit2.CallAdapter;
+
+/**
+ * Parses service methods on a background executor right after a service is
+ * created, instead of on the calling thread at their first call.
+ * <p>
+ * Retrofit parses annotations and looks up converters and call adapters of a
+ * method when it is first invoked. Warming up invokes every method of the
+ * service once with placeholder arguments, which fills retrofit's method
+ * cache without creating a request, since calls made while warming up are
+ * not adapted. Invalid methods are reported instead of thrown, see
+ * {@link WarmUpReport}.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class ServiceWarmer {
+    private static final ThreadLocal<Boolean> WARMING = new ThreadLocal<Boolean>();
+
+    private final Executor executor;
+    private final Listener listener;
+    private final List<WarmUpReport> reports = new ArrayList<WarmUpReport>();
+
+    private ServiceWarmer(Builder builder) {
+        this.executor = builder.executor != null ? builder.executor : DefaultExecutor.INSTANCE;
+        this.listener = builder.listener;
+    }
+
+    @NonNull
+    public static ServiceWarmer create() {
+        return builder().build();
+    }
+
+    @NonNull
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    static boolean isWarming() {
+        return WARMING.get() != null;
+    }
+
+    /**
+     * Call adapter factory leaving warm up calls unadapted. It must come before
+     * other call adapter factories.
+     *
+     * @return call adapter factory
+     */
+    @NonNull
+    public CallAdapter.Factory callAdapterFactory() {
+        return WarmUpCallAdapterFactory.INSTANCE;
+    }
+
+    /**
+     * Warm up service created with {@link #callAdapterFactory()} on the executor
+     *
+     * @param service  valid service interface
+     * @param instance valid service instance
+     * @return future report
+     */
+    @NonNull
+    public <S> Future<WarmUpReport> warmUp(
+            @NonNull final Class<S> service, @NonNull final S instance
+    ) {
+        FutureTask<WarmUpReport> task = new FutureTask<WarmUpReport>(new Callable<WarmUpReport>() {
+            @Override
+            public WarmUpReport call() {
+                WarmUpReport report = run(service, instance);
+                synchronized (reports) {
+                    reports.add(report);
+                }
+                if (listener != null) {
+                    listener.onWarmUp(report);
+                }
+                return report;
+            }
+        });
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Reports of completed warm ups, in completion order
+     *
+     * @return warm up reports
+     */
+    @NonNull
+    public List<WarmUpReport> reports() {
+        synchronized (reports) {
+            return new ArrayList<WarmUpReport>(reports);
+        }
+    }
+
+    private static WarmUpReport run(Class<?> service, Object instance) {
+        long start = System.nanoTime();
+        int methods = 0;
+        Map<String, Throwable> failures = new LinkedHashMap<String, Throwable>();
+        WARMING.set(Boolean.TRUE);
+        try {
+            for (Method method : service.getDeclaredMethods()) {
+                int modifiers = method.getModifiers();
+                if (Modifier.isStatic(modifiers) || !Modifier.isAbstract(modifiers)) {
+                    continue;
+                }
+                methods++;
+                try {
+                    method.setAccessible(true);
+                    method.invoke(instance, placeholders(method.getParameterTypes()));
+                } catch (InvocationTargetException e) {
+                    failures.put(method.getName(), e.getCause());
+                } catch (Exception e) {
+                    failures.put(method.getName(), e);
+                }
+            }
+        } finally {
+            WARMING.remove();
+        }
+        return new WarmUpReport(service, methods, failures, System.nanoTime() - start);
+    }
+
+    private static Object[] placeholders(Class<?>[] types) {
+        // arguments are only read when a request is created
+        Object[] args = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == boolean.class) {
+                args[i] = Boolean.FALSE;
+            } else if (type == char.class) {
+                args[i] = '\0';
+            } else if (type == byte.class) {
+                args[i] = (byte) 0;
+            } else if (type == short.class) {
+                args[i] = (short) 0;
+            } else if (type == int.class) {
+                args[i] = 0;
+            } else if (type == long.class) {
+                args[i] = 0L;
+            } else if (type == float.class) {
+                args[i] = 0F;
+            } else if (type == double.class) {
+                args[i] = 0D;
+            }
+        }
+        return args;
+    }
+
+    /**
+     * Receives warm up reports on the warm up executor
+     *
+     * @since 0.9.0
+     */
+    public interface Listener {
+        void onWarmUp(@NonNull WarmUpReport report);
+    }
+
+    /**
+     * Shared low priority daemon executor of warm ups
+     */
+    private static final class DefaultExecutor {
+        static final ExecutorService INSTANCE = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(@NonNull Runnable runnable) {
+                Thread thread = new Thread(runnable, "ServiceWarmer");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            }
+        });
+    }
+
+    /**
+     * Service warmer builder
+     *
+     * @since 0.9.0
+     */
+    public static class Builder {
+        private Executor executor;
+        private Listener listener;
+
+        Builder() {
+        }
+
+        /**
+         * Set executor running warm ups. The default is a shared background thread.
+         *
+         * @param executor valid executor
+         * @return builder
+         */
+        @NonNull
+        public Builder executor(@Nullable Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Set listener receiving warm up reports
+         *
+         * @param listener valid listener
+         * @return builder
+         */
+        @NonNull
+        public Builder listener(@Nullable Listener listener) {
+            this.listener = listener;
+            return this;
+        }
+
+        @NonNull
+        public ServiceWarmer build() {
+            return new ServiceWarmer(this);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.lykmapipo.retrofit.warmup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+
+import retrofit2.Call;
+import retrofit2.CallAdapter;
+import retrofit2.Retrofit;
+
+/**
+ * {@link CallAdapter.Factory} resolving the next matching factory, and
+ * skipping adaptation of calls made while warming up, so warm up never
+ * starts or enqueues a call.
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+final class WarmUpCallAdapterFactory extends CallAdapter.Factory {
+    static final WarmUpCallAdapterFactory INSTANCE = new WarmUpCallAdapterFactory();
+
+    private WarmUpCallAdapterFactory() {
+    }
+
+    @Nullable
+    @Override
+    public CallAdapter<?, ?> get(
+            @NonNull Type returnType, @NonNull Annotation[] annotations,
+            @NonNull Retrofit retrofit
+    ) {
+        return adapter(retrofit.nextCallAdapter(this, returnType, annotations));
+    }
+
+    private <R, T> CallAdapter<R, T> adapter(final CallAdapter<R, T> delegate) {
+        return new CallAdapter<R, T>() {
+            @NonNull
+            @Override
+            public Type responseType() {
+                return delegate.responseType();
+            }
+
+            @Override
+            public T adapt(@NonNull Call<R> call) {
+                return ServiceWarmer.isWarming() ? null : delegate.adapt(call);
+            }
+        };
+    }
+}
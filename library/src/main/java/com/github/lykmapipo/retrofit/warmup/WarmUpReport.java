@@ -0,0 +1,73 @@
+package com.github.lykmapipo.retrofit.warmup;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of warming up one service interface
+ *
+ * @author lally elias <lallyelias87@gmail.com>
+ * @version 0.1.0
+ * @since 0.9.0
+ */
+public class WarmUpReport {
+    private final Class<?> service;
+    private final int methods;
+    private final Map<String, Throwable> failures;
+    private final long durationNanos;
+
+    WarmUpReport(Class<?> service, int methods, Map<String, Throwable> failures, long durationNanos) {
+        this.service = service;
+        this.methods = methods;
+        this.failures = Collections.unmodifiableMap(failures);
+        this.durationNanos = durationNanos;
+    }
+
+    @NonNull
+    public Class<?> getService() {
+        return service;
+    }
+
+    /**
+     * Number of service methods parsed
+     *
+     * @return parsed methods
+     */
+    public int getMethods() {
+        return methods;
+    }
+
+    /**
+     * Errors of invalid service methods by method name. They are thrown again
+     * when the methods are first called.
+     *
+     * @return failed methods
+     */
+    @NonNull
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Time spent parsing service methods on the background executor
+     *
+     * @param unit valid unit
+     * @return warm up duration
+     */
+    public long getDuration(@NonNull TimeUnit unit) {
+        return unit.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return "WarmUpReport{" +
+                "service=" + service.getName() +
+                ", methods=" + methods +
+                ", failures=" + failures.keySet() +
+                ", durationMicros=" + getDuration(TimeUnit.MICROSECONDS) +
+                '}';
+    }
+}
@@ -0,0 +1,199 @@
+package com.github.lykmapipo.retrofit.adapter;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.ByteString;
+import retrofit2.HttpException;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Streaming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * FutureCallAdapterFactory and PublisherCallAdapterFactory Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE, sdk = 28)
+public class AsyncCallAdapterTest {
+    private MockWebServer mockWebServer;
+    private Api client;
+    private Executor executor;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        executor = Executors.newSingleThreadExecutor();
+        client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .addCallAdapterFactory(FutureCallAdapterFactory.create(executor))
+                .addCallAdapterFactory(PublisherCallAdapterFactory.create())
+                .build();
+    }
+
+    @Test
+    public void shouldAdaptToFuture() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[{\"name\":\"John Doe\"}]"));
+
+        List<User> users = client.listViaFuture().get(5, TimeUnit.SECONDS);
+        assertNotNull("should make success http call", users);
+        assertEquals("should parse body", "John Doe", users.get(0).toString());
+    }
+
+    @Test
+    public void shouldAdaptToFutureOfResponse() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(404));
+
+        Response<List<User>> response = client.listViaFutureResponse().get(5, TimeUnit.SECONDS);
+        assertEquals("should keep http status", 404, response.code());
+    }
+
+    @Test
+    public void shouldFailFutureOnHttpError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        try {
+            client.listViaFuture().get(5, TimeUnit.SECONDS);
+            fail("should fail on http error");
+        } catch (ExecutionException e) {
+            assertTrue("should raise http exception", e.getCause() instanceof HttpException);
+        }
+    }
+
+    @Test
+    public void shouldAdaptToPublisher() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody("[{\"name\":\"John Doe\"}]"));
+
+        TestSubscriber<List<User>> subscriber = new TestSubscriber<List<User>>(1);
+        client.listViaPublisher().subscribe(subscriber);
+        subscriber.await();
+
+        assertNull("should not fail", subscriber.error);
+        assertEquals("should emit body", 1, subscriber.items.size());
+        assertTrue("should complete", subscriber.completed);
+    }
+
+    @Test
+    public void shouldNotCallWithoutDemand() throws Exception {
+        TestSubscriber<List<User>> subscriber = new TestSubscriber<List<User>>(0);
+        client.listViaPublisher().subscribe(subscriber);
+
+        assertEquals("should not make http call", 0, mockWebServer.getRequestCount());
+        subscriber.subscription.cancel();
+    }
+
+    @Test
+    public void shouldStreamBodyOnDemand() throws Exception {
+        Buffer body = new Buffer().write(new byte[3 * 8192]);
+        mockWebServer.enqueue(new MockResponse().setResponseCode(200).setBody(body));
+
+        TestSubscriber<ByteString> subscriber = new TestSubscriber<ByteString>(1);
+        client.export().subscribe(subscriber);
+        Thread.sleep(500);
+        assertEquals("should honour demand", 1, subscriber.items.size());
+        assertTrue("should not complete yet", !subscriber.completed);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        subscriber.await();
+
+        long size = 0;
+        for (ByteString chunk : subscriber.items) {
+            size += chunk.size();
+        }
+        assertEquals("should emit whole body", 3 * 8192, size);
+        assertTrue("should complete", subscriber.completed);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    static class TestSubscriber<T> implements Subscriber<T> {
+        final List<T> items = new CopyOnWriteArrayList<T>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final long initialRequest;
+        volatile Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("should terminate", done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    public interface Api {
+        @GET("users")
+        CompletableFuture<List<User>> listViaFuture();
+
+        @GET("users")
+        CompletableFuture<Response<List<User>>> listViaFutureResponse();
+
+        @GET("users")
+        Publisher<List<User>> listViaPublisher();
+
+        @Streaming
+        @GET("exports/users")
+        Publisher<ByteString> export();
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.lykmapipo.retrofit.batch;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * BatchExecutor Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class BatchExecutorTest {
+    private MockWebServer mockWebServer;
+    private Api client;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.setDispatcher(new Dispatcher() {
+            @NotNull
+            @Override
+            public MockResponse dispatch(@NotNull RecordedRequest request) throws InterruptedException {
+                int current = inFlight.incrementAndGet();
+                synchronized (maxInFlight) {
+                    maxInFlight.set(Math.max(maxInFlight.get(), current));
+                }
+                Thread.sleep(20);
+                inFlight.decrementAndGet();
+                if (request.getPath().endsWith("/fail")) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return new MockResponse().setResponseCode(200).setBody("{\"name\":\"John Doe\"}");
+            }
+        });
+        mockWebServer.start();
+        client = HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+    }
+
+    @Test
+    public void shouldExecuteAllCallsWithBoundedConcurrency() throws Exception {
+        Batch<User> batch = BatchExecutor.create(3).execute(calls(12, -1));
+        List<BatchResult<User>> results = batch.await();
+
+        assertEquals("should execute all calls", 12, results.size());
+        assertTrue("should respect concurrency bound", maxInFlight.get() <= 3);
+        Set<Integer> indexes = new HashSet<Integer>();
+        for (BatchResult<User> result : results) {
+            assertTrue("should succeed", result.isSuccessful());
+            assertNotNull("should have body", result.getBody());
+            indexes.add(result.getIndex());
+        }
+        assertEquals("should report every call once", 12, indexes.size());
+    }
+
+    @Test
+    public void shouldStreamResultsInCompletionOrder() throws Exception {
+        final AtomicInteger received = new AtomicInteger();
+        Batch<User> batch = BatchExecutor.create(4).execute(calls(8, -1), new BatchCallback<User>() {
+            @Override
+            public void onResult(@NotNull BatchResult<User> result) {
+                received.incrementAndGet();
+            }
+        });
+
+        int count = 0;
+        while (batch.next() != null) {
+            count++;
+        }
+        assertEquals("should take every result", 8, count);
+        assertNull("should end stream", batch.next());
+        assertEquals("should notify callback", 8, received.get());
+    }
+
+    @Test
+    public void shouldCollectAllFailures() throws Exception {
+        Batch<User> batch = BatchExecutor.create(2).execute(calls(6, 2));
+        List<BatchResult<User>> results = batch.await();
+
+        int failed = 0;
+        for (BatchResult<User> result : results) {
+            if (!result.isSuccessful()) {
+                failed++;
+                assertEquals("should keep failed response", 500, result.getResponse().code());
+            }
+        }
+        assertEquals("should collect all results", 6, results.size());
+        assertEquals("should collect failure", 1, failed);
+    }
+
+    @Test
+    public void shouldFailFast() throws Exception {
+        BatchExecutor executor = BatchExecutor.builder().concurrency(1).failFast(true).build();
+        Batch<User> batch = executor.execute(calls(10, 1));
+        try {
+            batch.await();
+            fail("should throw on first failure");
+        } catch (BatchException e) {
+            assertEquals("should report failed call", 1, e.getResult().getIndex());
+        }
+        assertTrue("should not start remaining calls", batch.getResults().size() < 10);
+    }
+
+    @Test
+    public void shouldCompleteWhenCallbackThrows() throws Exception {
+        final IllegalStateException thrown = new IllegalStateException("callback");
+        Batch<User> batch = BatchExecutor.create(2).execute(calls(4, -1), new BatchCallback<User>() {
+            @Override
+            public void onResult(@NotNull BatchResult<User> result) {
+                throw thrown;
+            }
+        });
+        try {
+            batch.await(5, TimeUnit.SECONDS);
+            fail("should report callback failure");
+        } catch (BatchException e) {
+            assertEquals("should keep callback exception", thrown, e.getCause());
+        }
+        assertEquals("should execute all calls", 4, batch.getResults().size());
+    }
+
+    @Test
+    public void shouldCompleteWhenCallbackThrowsError() throws Exception {
+        final AssertionError thrown = new AssertionError("callback");
+        Batch<User> batch = BatchExecutor.create(2).execute(calls(4, -1), new BatchCallback<User>() {
+            @Override
+            public void onResult(@NotNull BatchResult<User> result) {
+                throw thrown;
+            }
+
+            @Override
+            public void onComplete(@NotNull Batch<User> batch) {
+                throw thrown;
+            }
+        });
+        int count = 0;
+        while (batch.next() != null) {
+            count++;
+        }
+        assertEquals("should stream all results", 4, count);
+        try {
+            batch.await(5, TimeUnit.SECONDS);
+            fail("should report callback failure");
+        } catch (BatchException e) {
+            assertEquals("should keep callback error", thrown, e.getCause());
+        }
+    }
+
+    @Test
+    public void shouldCancelBatch() throws Exception {
+        Batch<User> batch = BatchExecutor.create(1).execute(calls(20, -1));
+        batch.cancel();
+        batch.await();
+
+        assertTrue("should be canceled", batch.isCanceled());
+        assertTrue("should be done", batch.isDone());
+        assertTrue("should not start remaining calls", batch.getResults().size() < 20);
+    }
+
+    @Test
+    public void shouldCompleteEmptyBatch() throws Exception {
+        Batch<User> batch = BatchExecutor.create().execute(new ArrayList<Call<User>>());
+        assertTrue("should be done", batch.isDone());
+        assertEquals("should have no results", 0, batch.await().size());
+    }
+
+    private List<Call<User>> calls(int count, int failAt) {
+        List<Call<User>> calls = new ArrayList<Call<User>>();
+        for (int i = 0; i < count; i++) {
+            calls.add(client.get(i == failAt ? "fail" : String.valueOf(i)));
+        }
+        return calls;
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    public interface Api {
+        @GET("users/{id}")
+        Call<User> get(@Path("id") String id);
+    }
+}
@@ -0,0 +1,218 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * NegotiatingConverterFactory Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class NegotiatingConverterFactoryTest {
+    private static final String PLAIN = "text/plain";
+
+    private MockWebServer mockWebServer;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .addConverterFactory(PLAIN, new PlainConverterFactory())
+                .build();
+    }
+
+    @Test
+    public void shouldNegotiateAccept() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("John").setHeader("Content-Type", PLAIN));
+        client.get().execute();
+        assertEquals("should prefer service default format",
+                "text/plain, application/json;q=0.9",
+                mockWebServer.takeRequest().getHeader("Accept"));
+
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"John\"}"));
+        client.getJson().execute();
+        assertEquals("should prefer method format",
+                "application/json, text/plain;q=0.9",
+                mockWebServer.takeRequest().getHeader("Accept"));
+    }
+
+    @Test
+    public void shouldKeepJsonAcceptByDefault() throws Exception {
+        Api json = HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"John\"}"));
+        json.getJson().execute();
+        assertEquals("should accept json", "application/json",
+                mockWebServer.takeRequest().getHeader("Accept"));
+    }
+
+    @Test
+    public void shouldEncodeWithSelectedFormat() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+        client.create(new User("John")).execute();
+        client.createJson(new User("Jane")).execute();
+
+        RecordedRequest plain = mockWebServer.takeRequest();
+        assertEquals("should encode with default format", "text/plain; charset=utf-8",
+                plain.getHeader("Content-Type"));
+        assertEquals("should encode body", "John", plain.getBody().readUtf8());
+
+        RecordedRequest json = mockWebServer.takeRequest();
+        assertEquals("should encode with method format", "application/json; charset=UTF-8",
+                json.getHeader("Content-Type"));
+        assertEquals("should encode body", "{\"name\":\"Jane\"}", json.getBody().readUtf8());
+    }
+
+    @Test
+    public void shouldDecodeByContentType() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("John").setHeader("Content-Type", PLAIN));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"Jane\"}")
+                .setHeader("Content-Type", "application/json; charset=utf-8"));
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"Mary\"}")
+                .setHeader("Content-Type", "application/vnd.api+json"));
+        mockWebServer.enqueue(new MockResponse().setBody("Peter"));
+
+        assertEquals("should decode plain", new User("John"), client.get().execute().body());
+        assertEquals("should decode json", new User("Jane"), client.get().execute().body());
+        assertEquals("should decode json suffix", new User("Mary"), client.get().execute().body());
+        assertEquals("should decode unknown with default", new User("Peter"),
+                client.get().execute().body());
+    }
+
+    @Test
+    public void shouldFallbackToJsonWhenFormatCanNotDecodeType() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("[{\"name\":\"John\"}]")
+                .setHeader("Content-Type", PLAIN));
+
+        List<User> users = client.list().execute().body();
+
+        assertEquals("should decode with json", 1, users.size());
+        assertEquals("should decode with json", new User("John"), users.get(0));
+    }
+
+    @Test
+    public void shouldRejectTypeNoFormatCanDecode() {
+        Api plain = new Retrofit.Builder()
+                .baseUrl(mockWebServer.url("/v1/"))
+                .addConverterFactory(NegotiatingConverterFactory.builder()
+                        .add(PLAIN, new PlainConverterFactory())
+                        .build())
+                .build()
+                .create(Api.class);
+        try {
+            plain.list();
+            fail("should reject type on service method creation");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void shouldRejectUnregisteredFormat() {
+        try {
+            client.getCbor();
+            fail("should reject unregistered format");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+        client = null;
+    }
+
+    interface Api {
+        @GET("users/1")
+        Call<User> get();
+
+        @Format(NegotiatingConverterFactory.JSON)
+        @GET("users/1")
+        Call<User> getJson();
+
+        @GET("users")
+        Call<List<User>> list();
+
+        @Format(NegotiatingConverterFactory.CBOR)
+        @GET("users/1")
+        Call<User> getCbor();
+
+        @POST("users")
+        Call<Void> create(@Body User user);
+
+        @Format(NegotiatingConverterFactory.JSON)
+        @POST("users")
+        Call<Void> createJson(@Body User user);
+    }
+
+    /**
+     * Stand in for a binary format: users as their plain text name
+     */
+    static class PlainConverterFactory extends Converter.Factory {
+        private static final MediaType MEDIA_TYPE = MediaType.get("text/plain; charset=utf-8");
+
+        @Override
+        public Converter<ResponseBody, ?> responseBodyConverter(
+                Type type, Annotation[] annotations, Retrofit retrofit) {
+            if (type != User.class) {
+                return null;
+            }
+            return new Converter<ResponseBody, User>() {
+                @Override
+                public User convert(ResponseBody value) throws IOException {
+                    return new User(value.string());
+                }
+            };
+        }
+
+        @Override
+        public Converter<?, RequestBody> requestBodyConverter(
+                Type type, Annotation[] parameterAnnotations,
+                Annotation[] methodAnnotations, Retrofit retrofit) {
+            if (type != User.class) {
+                return null;
+            }
+            return new Converter<User, RequestBody>() {
+                @Override
+                public RequestBody convert(User value) {
+                    return RequestBody.create(value.toString(), MEDIA_TYPE);
+                }
+            };
+        }
+    }
+}
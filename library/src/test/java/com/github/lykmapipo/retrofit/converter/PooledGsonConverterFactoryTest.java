@@ -0,0 +1,179 @@
+package com.github.lykmapipo.retrofit.converter;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.ByteString;
+import retrofit2.Call;
+import retrofit2.Converter;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * PooledGsonConverterFactory Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PooledGsonConverterFactoryTest {
+    private static final Type USERS = new TypeToken<List<User>>() {
+    }.getType();
+    private static final MediaType JSON = MediaType.get("application/json");
+
+    private final Gson gson = new GsonBuilder().create();
+    private final Annotation[] annotations = new Annotation[0];
+    private MockWebServer mockWebServer;
+    private Retrofit retrofit;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        retrofit = new Retrofit.Builder().baseUrl(mockWebServer.url("/v1/")).build();
+    }
+
+    @Test
+    public void shouldEncodeLikeGsonConverter() throws IOException {
+        List<User> users = users();
+        RequestBody expected = requestConverter(GsonConverterFactory.create(gson)).convert(users);
+        RequestBody actual = requestConverter(PooledGsonConverterFactory.create(gson)).convert(users);
+
+        assertEquals("should keep content type", expected.contentType(), actual.contentType());
+        assertEquals("should keep content length", expected.contentLength(), actual.contentLength());
+        assertEquals("should keep bytes", bytes(expected), bytes(actual));
+        assertEquals("should write repeatedly", bytes(expected), bytes(actual));
+    }
+
+    @Test
+    public void shouldStreamLikeGsonConverter() throws IOException {
+        List<User> users = users();
+        RequestBody expected = requestConverter(GsonConverterFactory.create(gson)).convert(users);
+        RequestBody actual = requestConverter(PooledGsonConverterFactory.create(gson).streaming())
+                .convert(users);
+
+        assertEquals("should have unknown length", -1, actual.contentLength());
+        assertEquals("should keep bytes", bytes(expected), bytes(actual));
+    }
+
+    @Test
+    public void shouldDecodeLikeGsonConverter() throws IOException {
+        byte[] json = bytes(requestConverter(GsonConverterFactory.create(gson)).convert(users()))
+                .toByteArray();
+        Converter<ResponseBody, ?> converter = PooledGsonConverterFactory.create(gson)
+                .responseBodyConverter(USERS, annotations, retrofit);
+
+        assertEquals("should decode", users(), converter.convert(ResponseBody.create(json, JSON)));
+
+        byte[] bom = new Buffer().write(ByteString.decodeHex("efbbbf")).write(json).readByteArray();
+        assertEquals("should skip bom", users(), converter.convert(ResponseBody.create(bom, JSON)));
+
+        byte[] latin = "[{\"name\":\"Jos\u00E9\"}]".getBytes("ISO-8859-1");
+        assertEquals("should honour charset", "Jos\u00E9", ((List<?>) converter.convert(
+                ResponseBody.create(latin, MediaType.get("application/json; charset=ISO-8859-1"))))
+                .get(0).toString());
+    }
+
+    @Test
+    public void shouldReplaceMalformedInput() throws IOException {
+        Converter<ResponseBody, ?> converter = PooledGsonConverterFactory.create(gson)
+                .responseBodyConverter(User.class, annotations, retrofit);
+        byte[] json = new Buffer().writeUtf8("{\"name\":\"a").writeByte(0xC3)
+                .writeUtf8("b\"}").readByteArray();
+        assertEquals("should replace malformed byte", "a\uFFFDb",
+                converter.convert(ResponseBody.create(json, JSON)).toString());
+    }
+
+    @Test
+    public void shouldRejectTrailingContent() throws IOException {
+        Converter<ResponseBody, ?> converter = PooledGsonConverterFactory.create(gson)
+                .responseBodyConverter(User.class, annotations, retrofit);
+        try {
+            converter.convert(ResponseBody.create("{\"name\":\"a\"} {}", JSON));
+            fail("should reject trailing content");
+        } catch (IOException e) {
+            // expected, like retrofit's gson converter
+        }
+    }
+
+    @Test
+    public void shouldRoundTripThroughHttpService() throws Exception {
+        Api client = HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+        String json = bytes(requestConverter(GsonConverterFactory.create(gson))
+                .convert(users())).utf8();
+
+        // split multi byte sequences across tiny chunks
+        mockWebServer.enqueue(new MockResponse().setChunkedBody(json, 1));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        assertEquals("should decode chunked body", users(), client.list().execute().body());
+        client.create(users()).execute();
+        mockWebServer.takeRequest();
+        assertEquals("should send same json", json, mockWebServer.takeRequest().getBody().readUtf8());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Converter<List<User>, RequestBody> requestConverter(Converter.Factory factory) {
+        return (Converter<List<User>, RequestBody>)
+                factory.requestBodyConverter(USERS, annotations, annotations, retrofit);
+    }
+
+    private static ByteString bytes(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readByteString();
+    }
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<User>();
+        users.add(new User("John"));
+        users.add(new User("J\u00F6rg \u00E9t\u00E9 \u4E2D\u6587"));
+        users.add(new User("emoji \uD83D\uDE00\uD83C\uDF89"));
+        users.add(new User("quote \" slash \\ line\n\u2028 <html>&"));
+        users.add(new User(null));
+        return users;
+    }
+
+    interface Api {
+        @GET("users")
+        Call<List<User>> list();
+
+        @POST("users")
+        Call<Void> create(@Body List<User> users);
+    }
+}
@@ -0,0 +1,201 @@
+package com.github.lykmapipo.retrofit.failover;
+
+import com.github.lykmapipo.retrofit.HttpService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.POST;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * EndpointPool Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class EndpointPoolTest {
+    private MockWebServer primary;
+    private MockWebServer secondary;
+
+    @Before
+    public void setup() throws Exception {
+        primary = new MockWebServer();
+        primary.start();
+        secondary = new MockWebServer();
+        secondary.start();
+    }
+
+    @Test
+    public void shouldFailoverIdempotentCalls() throws Exception {
+        primary.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        secondary.enqueue(new MockResponse().setBody("ok"));
+
+        EndpointPool pool = pool().build();
+        Response<ResponseBody> response = client(pool).get().execute();
+
+        assertTrue("should succeed", response.isSuccessful());
+        assertEquals("should read secondary", "ok", response.body().string());
+        assertEquals("should route path", "/v1/items", secondary.takeRequest().getPath());
+
+        List<EndpointStats> stats = pool.stats();
+        assertEquals("should count failure", 1, stats.get(0).getFailures());
+        assertEquals("should count failover", 1, stats.get(0).getFailovers());
+        assertEquals("should count request", 1, stats.get(1).getRequests());
+        assertEquals("should release calls", 0, stats.get(1).getInFlight());
+    }
+
+    @Test
+    public void shouldFailoverUnavailableStatus() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse().setBody("ok"));
+
+        Response<ResponseBody> response = client(pool().build()).get().execute();
+
+        assertEquals("should read secondary", "ok", response.body().string());
+        assertEquals("should try primary", 1, primary.getRequestCount());
+    }
+
+    @Test
+    public void shouldNotFailoverNonIdempotentCalls() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse());
+
+        Response<ResponseBody> response = client(pool().build()).post("data").execute();
+
+        assertEquals("should return failure", 503, response.code());
+        assertEquals("should not try secondary", 0, secondary.getRequestCount());
+    }
+
+    @Test
+    public void shouldNotCountCanceledCallsAsFailures() throws Exception {
+        primary.enqueue(new MockResponse().setHeadersDelay(2, TimeUnit.SECONDS));
+        secondary.enqueue(new MockResponse());
+
+        EndpointPool pool = pool().build();
+        final Call<ResponseBody> call = client(pool).get();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // cancel once the call reached the primary
+                    primary.takeRequest(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ignore) {
+                }
+                call.cancel();
+            }
+        }).start();
+        try {
+            call.execute();
+            fail("should cancel call");
+        } catch (IOException ignore) {
+        }
+
+        EndpointStats stats = pool.stats().get(0);
+        assertEquals("should not count failure", 0, stats.getFailures());
+        assertEquals("should not fail over", 0, stats.getFailovers());
+        assertEquals("should release call", 0, stats.getInFlight());
+        assertEquals("should not try secondary", 0, secondary.getRequestCount());
+    }
+
+    @Test
+    public void shouldPreferFasterEndpoint() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            primary.enqueue(new MockResponse().setHeadersDelay(100, TimeUnit.MILLISECONDS));
+            secondary.enqueue(new MockResponse());
+        }
+
+        EndpointPool pool = pool().build();
+        Api client = client(pool);
+        for (int i = 0; i < 10; i++) {
+            client.get().execute().body().close();
+        }
+
+        assertTrue("should route most calls to faster endpoint",
+                secondary.getRequestCount() >= 8);
+        assertTrue("should measure latency",
+                pool.stats().get(0).getLatencyMillis() > pool.stats().get(1).getLatencyMillis());
+    }
+
+    @Test
+    public void shouldEjectFailingEndpoint() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse());
+        secondary.enqueue(new MockResponse());
+
+        EndpointPool pool = pool().ejection(1, 1, TimeUnit.MINUTES).build();
+        Api client = client(pool);
+        client.get().execute().body().close();
+        client.get().execute().body().close();
+
+        assertEquals("should skip ejected endpoint", 1, primary.getRequestCount());
+        assertFalse("should report ejected endpoint", pool.stats().get(0).isHealthy());
+    }
+
+    @Test
+    public void shouldRestoreEndpointOnHealthCheck() throws Exception {
+        primary.enqueue(new MockResponse().setResponseCode(503));
+        secondary.enqueue(new MockResponse());
+        primary.enqueue(new MockResponse());
+        secondary.enqueue(new MockResponse());
+
+        EndpointPool pool = pool()
+                .ejection(1, 1, TimeUnit.MINUTES)
+                .healthCheck("health", 0, TimeUnit.MILLISECONDS)
+                .build();
+        client(pool).get().execute().body().close();
+        assertFalse("should eject endpoint", pool.stats().get(0).isHealthy());
+
+        pool.checkHealth();
+
+        primary.takeRequest();
+        assertEquals("should check health path", "/v1/health", primary.takeRequest().getPath());
+        assertTrue("should restore endpoint", pool.stats().get(0).isHealthy());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        primary.shutdown();
+        secondary.shutdown();
+    }
+
+    private EndpointPool.Builder pool() {
+        return EndpointPool.builder()
+                .add(primary.url("/v1/").toString())
+                .add(secondary.url("/v1/").toString());
+    }
+
+    private Api client(EndpointPool pool) {
+        return HttpService.builder(Api.class, pool).build();
+    }
+
+    interface Api {
+        @GET("items")
+        Call<ResponseBody> get();
+
+        @POST("items")
+        Call<ResponseBody> post(@Body String body);
+    }
+}
@@ -0,0 +1,160 @@
+package com.github.lykmapipo.retrofit.limit;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.List;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * ResponseSizeInterceptor Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ResponseSizeInterceptorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .maxResponseSize(64L)
+                .build();
+    }
+
+    @Test
+    public void shouldFailOnDeclaredLength() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody(users(10)));
+        try {
+            client.list().execute();
+            fail("should fail oversized response");
+        } catch (ResponseTooLargeException e) {
+            assertEquals("should report limit", 64, e.getMaxSize());
+            assertEquals("should report declared length", users(10).length(), e.getSize());
+        }
+    }
+
+    @Test
+    public void shouldFailWhileStreaming() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setChunkedBody(users(10), 16));
+        try {
+            client.list().execute();
+            fail("should fail oversized response");
+        } catch (ResponseTooLargeException e) {
+            assertEquals("should detect while reading", -1, e.getSize());
+        }
+    }
+
+    @Test
+    public void shouldApplyMethodLimit() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setChunkedBody(users(10), 16));
+        mockWebServer.enqueue(new MockResponse().setBody(users(1)));
+
+        List<User> users = client.listMore().execute().body();
+        assertEquals("should allow larger method limit", 10, users.size());
+
+        try {
+            client.listLess().execute();
+            fail("should apply smaller method limit");
+        } catch (ResponseTooLargeException e) {
+            assertEquals("should report method limit", 8, e.getMaxSize());
+        }
+    }
+
+    @Test
+    public void shouldIgnoreEventStreams() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setChunkedBody(users(10), 16)
+                .setHeader("Content-Type", "application/x-ndjson"));
+        assertEquals("should not limit streams", 200, client.list().execute().code());
+    }
+
+    @Test
+    public void shouldSpillLargeBodiesToDisk() throws Exception {
+        File directory = folder.newFolder();
+        OkHttpClient http = new OkHttpClient.Builder()
+                .addInterceptor(new ResponseSizeInterceptor(0L, directory, 32L))
+                .build();
+        Request request = new Request.Builder().url(mockWebServer.url("/v1/users")).build();
+
+        mockWebServer.enqueue(new MockResponse().setChunkedBody(users(10), 16));
+        Response response = http.newCall(request).execute();
+        assertEquals("should spill body", 1, directory.list().length);
+        assertEquals("should know spilled length",
+                users(10).length(), response.body().contentLength());
+        assertEquals("should read spilled body", users(10), response.body().string());
+        assertEquals("should delete spilled body", 0, directory.list().length);
+
+        mockWebServer.enqueue(new MockResponse().setChunkedBody("[]", 16));
+        response = http.newCall(request).execute();
+        assertEquals("should keep small body in memory", 0, directory.list().length);
+        assertEquals("should read small body", "[]", response.body().string());
+    }
+
+    @Test
+    public void shouldConvertSpilledBodies() throws Exception {
+        File directory = folder.newFolder();
+        Api spilling = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .spillToDisk(directory, 32L)
+                .build();
+
+        mockWebServer.enqueue(new MockResponse().setBody(users(10)));
+        assertEquals("should convert spilled body", 10, spilling.list().execute().body().size());
+        assertEquals("should delete spilled body", 0, directory.list().length);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+        client = null;
+    }
+
+    private static String users(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i > 0 ? "," : "").append("{\"name\":\"John ").append(i).append("\"}");
+        }
+        return json.append("]").toString();
+    }
+
+    interface Api {
+        @GET("users")
+        Call<List<User>> list();
+
+        @MaxResponseSize(1024)
+        @GET("users")
+        Call<List<User>> listMore();
+
+        @MaxResponseSize(8)
+        @GET("users")
+        Call<List<User>> listLess();
+    }
+}
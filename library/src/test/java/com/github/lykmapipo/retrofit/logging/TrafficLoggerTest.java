@@ -0,0 +1,270 @@
+package com.github.lykmapipo.retrofit.logging;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.multipart.SourceRequestBody;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSource;
+import okio.Okio;
+import retrofit2.Call;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+import retrofit2.http.Query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * TrafficLogger Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class TrafficLoggerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+    private File file;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        file = new File(folder.getRoot(), "logs/traffic.log");
+    }
+
+    @Test
+    public void shouldLogRedactedCalls() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"name\":\"John\",\"password\":\"secret\"}"));
+
+        TrafficLogger logger = TrafficLogger.builder(file).redactField("password").redactField("token").build();
+        Map<String, String> body = new HashMap<String, String>();
+        body.put("password", "secret");
+        client(logger).login("abc", body).execute().body().close();
+
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        List<JsonObject> records = read(file);
+        assertEquals("should write record", 1, records.size());
+        JsonObject record = records.get(0);
+        assertEquals("should log method", "POST", record.get("method").getAsString());
+        assertEquals("should log status", 200, record.get("code").getAsInt());
+        assertTrue("should redact query",
+                record.get("url").getAsString().endsWith("login?token=%5Bredacted%5D"));
+        assertEquals("should redact auth header", TrafficLogger.REDACTED,
+                record.getAsJsonObject("requestHeaders").get("Authorization").getAsString());
+        assertEquals("should redact request field", "{\"password\":\"[redacted]\"}",
+                record.get("requestBody").getAsString());
+        assertEquals("should redact response field", "{\"name\":\"John\",\"password\":\"[redacted]\"}",
+                record.get("responseBody").getAsString());
+        assertFalse("should not leak secrets", records.toString().contains("secret"));
+    }
+
+    @Test
+    public void shouldCapBodies() throws Exception {
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            large.append("0123456789");
+        }
+        mockWebServer.enqueue(new MockResponse().setBody(large.toString()));
+
+        TrafficLogger logger = TrafficLogger.builder(file).maxBodySize(16).build();
+        String read = client(logger).get().execute().body().string();
+
+        assertEquals("should not consume body", 10000, read.length());
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        JsonObject record = read(file).get(0);
+        assertEquals("should cap body", "0123456789012345", record.get("responseBody").getAsString());
+        assertTrue("should flag truncation", record.get("responseBodyTruncated").getAsBoolean());
+        assertEquals("should log body size", 10000, record.get("responseBodySize").getAsLong());
+    }
+
+    @Test
+    public void shouldNotDrainOneShotParts() throws Exception {
+        mockWebServer.enqueue(new MockResponse());
+
+        TrafficLogger logger = TrafficLogger.builder(file).build();
+        RequestBody avatar = new SourceRequestBody(
+                new Buffer().writeUtf8("avatar"), MediaType.get("text/plain"), 6);
+        client(logger).upload(MultipartBody.Part.createFormData("avatar", "avatar.txt", avatar))
+                .execute().body().close();
+
+        assertTrue("should send part",
+                mockWebServer.takeRequest().getBody().readUtf8().contains("avatar"));
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        assertFalse("should not log one shot body", read(file).get(0).has("requestBody"));
+    }
+
+    @Test
+    public void shouldSampleCalls() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            mockWebServer.enqueue(new MockResponse());
+        }
+
+        TrafficLogger logger = TrafficLogger.builder(file).sampleRate(0).build();
+        Api client = client(logger);
+        for (int i = 0; i < 5; i++) {
+            client.get().execute().body().close();
+        }
+
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        assertEquals("should skip unsampled calls", 0, logger.getWritten());
+        assertFalse("should not create log", file.exists());
+    }
+
+    @Test
+    public void shouldRotateLogFiles() throws Exception {
+        TrafficLogger logger = TrafficLogger.builder(file).rotation(200, 2).build();
+        for (int i = 0; i < 10; i++) {
+            logger.log(record(i));
+        }
+
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        assertEquals("should write records", 10, logger.getWritten());
+        assertTrue("should keep rotated log", new File(file.getPath() + ".1").exists());
+        assertTrue("should keep rotated log", new File(file.getPath() + ".2").exists());
+        assertFalse("should delete oldest log", new File(file.getPath() + ".3").exists());
+    }
+
+    @Test
+    public void shouldDropRecordsInsteadOfBlocking() throws Exception {
+        final TrafficLogger logger = TrafficLogger.builder(file).bufferSize(2).build();
+        final int threads = 4;
+        final int perThread = 500;
+        final CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perThread; i++) {
+                        logger.log(record(i));
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        assertTrue("should never block producers", done.await(5, TimeUnit.SECONDS));
+        assertTrue("should flush", logger.flush(5, TimeUnit.SECONDS));
+        assertEquals("should account every record",
+                threads * perThread, logger.getWritten() + logger.getDropped());
+        assertEquals("should write accepted records", logger.getWritten(), read(file).size());
+    }
+
+    @Test
+    public void shouldDeliverEveryOfferedElementOnce() throws Exception {
+        final RingBuffer<Integer> buffer = new RingBuffer<Integer>(64);
+        final int producers = 4;
+        final int perProducer = 10000;
+        final AtomicInteger offered = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            final int base = p * perProducer;
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < perProducer; i++) {
+                        if (buffer.offer(base + i)) {
+                            offered.incrementAndGet();
+                        }
+                    }
+                    done.countDown();
+                }
+            }).start();
+        }
+
+        Set<Integer> received = new HashSet<Integer>();
+        while (done.getCount() > 0 || received.size() < offered.get()) {
+            Integer element = buffer.poll();
+            if (element != null) {
+                assertTrue("should deliver once", received.add(element));
+            }
+        }
+        assertEquals("should deliver every offered element", offered.get(), received.size());
+        assertEquals("should round capacity", 64, buffer.capacity());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    private Api client(TrafficLogger logger) {
+        return HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .authToken("i3Vixpfr51EVHWHP")
+                .logger(logger)
+                .build();
+    }
+
+    private static TrafficRecord record(int i) {
+        TrafficRecord record = new TrafficRecord();
+        record.timestamp = System.currentTimeMillis();
+        record.method = "GET";
+        record.url = "https://api.example.com/v1/items/" + i;
+        record.code = 200;
+        return record;
+    }
+
+    private static List<JsonObject> read(File file) throws Exception {
+        List<JsonObject> records = new ArrayList<JsonObject>();
+        BufferedSource source = Okio.buffer(Okio.source(file));
+        try {
+            String line;
+            while ((line = source.readUtf8Line()) != null) {
+                records.add(new JsonParser().parse(line).getAsJsonObject());
+            }
+        } finally {
+            source.close();
+        }
+        return records;
+    }
+
+    interface Api {
+        @GET("items")
+        Call<ResponseBody> get();
+
+        @POST("login")
+        Call<ResponseBody> login(@Query("token") String token, @Body Map<String, String> body);
+
+        @Multipart
+        @POST("avatar")
+        Call<ResponseBody> upload(@Part MultipartBody.Part avatar);
+    }
+}
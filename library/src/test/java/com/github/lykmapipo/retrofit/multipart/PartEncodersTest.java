@@ -0,0 +1,190 @@
+package com.github.lykmapipo.retrofit.multipart;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import android.net.Uri;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * PartEncoders Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PartEncodersTest {
+    private final PartEncoders encoders = PartEncoders.defaults();
+
+    @Test
+    public void shouldEncodeTextAsFormField() throws IOException {
+        MultipartBody.Part part = encoders.part("age", 17);
+        assertNull("should not set content type", part.body().contentType());
+        assertEquals("should encode text", "17", read(part.body()));
+        assertEquals("should encode text body", "John", read(encoders.encode("John")));
+    }
+
+    @Test
+    public void shouldEncodeBytesWithoutCopy() throws IOException {
+        byte[] bytes = new byte[]{1, 2, 3};
+        RequestBody body = encoders.encode(bytes);
+        assertEquals("should set binary type", PartEncoders.OCTET_STREAM, body.contentType());
+        assertEquals("should know length", 3, body.contentLength());
+        bytes[0] = 9;
+        assertEquals("should reference bytes", 9, readBytes(body)[0]);
+    }
+
+    @Test
+    public void shouldStreamInputStreamAndSource() throws IOException {
+        RequestBody stream = encoders.encode(new ByteArrayInputStream("stream".getBytes("UTF-8")));
+        assertTrue("should be one shot", stream.isOneShot());
+        assertEquals("should have unknown length", -1, stream.contentLength());
+        assertEquals("should stream content", "stream", read(stream));
+
+        RequestBody source = encoders.encode(new Buffer().writeUtf8("source"));
+        assertTrue("should be one shot", source.isOneShot());
+        assertEquals("should stream content", "source", read(source));
+    }
+
+    @Test
+    public void shouldSendOtherObjectsAsText() throws IOException {
+        MultipartBody.Part part = encoders.part("user", new User("John"));
+        assertNull("should send form field", part.body().contentType());
+        assertEquals("should send toString", "John", read(part.body()));
+    }
+
+    @Test
+    public void shouldSerializeJsonTypes() throws IOException {
+        RequestBody body = PartEncoders.builder().json(User.class).build().encode(new User("John"));
+        assertEquals("should set json type",
+                MediaType.get("application/json; charset=UTF-8"), body.contentType());
+        assertFalse("should be repeatable", body.isOneShot());
+        assertEquals("should serialize object", "{\"name\":\"John\"}", read(body));
+        assertEquals("should serialize again", "{\"name\":\"John\"}", read(body));
+    }
+
+    @Test
+    public void shouldPreferRegisteredEncoders() throws IOException {
+        PartEncoders custom = PartEncoders.builder()
+                .add(User.class, new PartEncoder<User>() {
+                    @Override
+                    public RequestBody encode(User value) {
+                        return RequestBody.create(value.toString(), MediaType.get("text/plain"));
+                    }
+
+                    @Override
+                    public String filename(User value) {
+                        return value + ".txt";
+                    }
+                })
+                .build();
+
+        MultipartBody.Part part = custom.part("user", new User("John"));
+        assertEquals("should use registered encoder", "John", read(part.body()));
+        assertTrue("should set file name",
+                part.headers().get("Content-Disposition").contains("filename=\"John.txt\""));
+    }
+
+    @Test
+    public void shouldRejectUriWithoutContentResolver() {
+        try {
+            encoders.part("photo", Uri.parse("content://media/photos/1"));
+            fail("should reject uri");
+        } catch (IllegalArgumentException e) {
+            assertTrue("should explain", e.getMessage().contains("content resolver"));
+        }
+    }
+
+    @Test
+    public void shouldCreateTypedParts() throws IOException {
+        Map<String, Object> params = new LinkedHashMap<String, Object>();
+        params.put("name", "John");
+        params.put("avatar", new byte[]{1, 2});
+        params.put("profile", new User("John"));
+
+        List<MultipartBody.Part> parts = HttpService.createParts(params);
+        assertEquals("should create all parts", 3, parts.size());
+        assertEquals("should keep text", "John", read(parts.get(0).body()));
+        assertEquals("should keep bytes", 2, parts.get(1).body().contentLength());
+        assertEquals("should keep toString", "John", read(parts.get(2).body()));
+
+        parts = HttpService.createParts(params, PartEncoders.builder().json(User.class).build());
+        assertEquals("should serialize object", "{\"name\":\"John\"}", read(parts.get(2).body()));
+
+        Map<String, RequestBody> bodies = HttpService.createBodyParts(params);
+        assertEquals("should keep text body", HttpService.createBodyPart("John").contentType(),
+                bodies.get("name").contentType());
+    }
+
+    @Test
+    public void shouldNotResendStreamedParts() throws Exception {
+        MockWebServer mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        try {
+            Api client = HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+
+            mockWebServer.enqueue(new MockResponse().setResponseCode(307)
+                    .setHeader("Location", mockWebServer.url("/v1/moved")));
+            mockWebServer.enqueue(new MockResponse().setResponseCode(408));
+            mockWebServer.enqueue(new MockResponse());
+
+            Response<Void> redirected = client.upload(encoders.part(
+                    "video", new ByteArrayInputStream("video".getBytes("UTF-8")))).execute();
+            Response<Void> timedOut = client.upload(encoders.part(
+                    "video", new ByteArrayInputStream("video".getBytes("UTF-8")))).execute();
+
+            assertEquals("should not follow redirect", 307, redirected.code());
+            assertEquals("should not retry", 408, timedOut.code());
+            assertEquals("should send each body once", 2, mockWebServer.getRequestCount());
+            assertTrue("should send streamed part",
+                    mockWebServer.takeRequest().getBody().readUtf8().contains("video"));
+        } finally {
+            mockWebServer.shutdown();
+        }
+    }
+
+    private static String read(RequestBody body) throws IOException {
+        return new String(readBytes(body), "UTF-8");
+    }
+
+    private static byte[] readBytes(RequestBody body) throws IOException {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readByteArray();
+    }
+
+    interface Api {
+        @Multipart
+        @POST("videos")
+        Call<Void> upload(@Part MultipartBody.Part video);
+    }
+}
@@ -0,0 +1,282 @@
+package com.github.lykmapipo.retrofit.offline;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+import com.github.lykmapipo.retrofit.multipart.FileRequestBody;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.FileWriter;
+
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.Body;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * OfflineQueue Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class OfflineQueueTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+    private File log;
+    private OfflineQueue queue;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        log = folder.newFile("offline.log");
+        queue = new OfflineQueue(log);
+        client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .authToken("token")
+                .offlineQueue(queue)
+                .build();
+    }
+
+    @Test
+    public void shouldQueueWhenOffline() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        Response<User> response = client.create(new User("John")).execute();
+
+        assertTrue("should queue request", OfflineQueue.isQueued(response));
+        assertEquals("should respond with no content", 204, response.code());
+        assertEquals("should have queued request", 1, queue.size());
+        assertNotNull("should set idempotency key",
+                queue.pending().get(0).getRequest().header(OfflineQueue.IDEMPOTENCY_KEY));
+    }
+
+    @Test
+    public void shouldNotQueueOnlineRequests() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("{\"name\":\"John\"}"));
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+
+        Response<User> response = client.create(new User("John")).execute();
+        assertFalse("should not queue delivered request", OfflineQueue.isQueued(response));
+        assertEquals("should convert response", new User("John"), response.body());
+
+        try {
+            client.update(new User("Jane")).execute();
+        } catch (Exception e) {
+            assertEquals("should not queue unannotated requests", 0, queue.size());
+            return;
+        }
+        throw new AssertionError("should fail unannotated requests");
+    }
+
+    @Test
+    public void shouldPersistAndReplay() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        client.create(new User("John")).execute();
+        String key = queue.pending().get(0).getIdempotencyKey();
+        queue.close();
+
+        OfflineQueue reopened = new OfflineQueue(log);
+        assertEquals("should restore queued requests", 1, reopened.size());
+
+        mockWebServer.takeRequest();
+        mockWebServer.enqueue(new MockResponse().setResponseCode(201));
+        ReplayResult result = reopened.replay(new OkHttpClient(), 1);
+
+        assertEquals("should deliver request", 1, result.getDelivered());
+        assertEquals("should empty queue", 0, result.getRemaining());
+        RecordedRequest replayed = mockWebServer.takeRequest();
+        assertEquals("should replay method", "POST", replayed.getMethod());
+        assertEquals("should replay path", "/v1/users", replayed.getPath());
+        assertEquals("should replay body", "{\"name\":\"John\"}", replayed.getBody().readUtf8());
+        assertEquals("should replay idempotency key", key, replayed.getHeader(OfflineQueue.IDEMPOTENCY_KEY));
+        assertEquals("should compact log", 0, new OfflineQueue(log).size());
+        assertEquals("should compact log", 0, log.length());
+    }
+
+    @Test
+    public void shouldReplayThroughAttachedClient() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        client.create(new User("John")).execute();
+        mockWebServer.takeRequest();
+
+        mockWebServer.enqueue(new MockResponse());
+        ReplayResult result = queue.replay(OfflineQueue.DEFAULT_CONCURRENCY);
+
+        assertEquals("should deliver request", 1, result.getDelivered());
+        assertEquals("should apply auth on replay", "Bearer token",
+                mockWebServer.takeRequest().getHeader("Authorization"));
+    }
+
+    @Test
+    public void shouldKeepEntryWhenReplayingWhileStillOffline() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        client.create(new User("John")).execute();
+        mockWebServer.takeRequest();
+
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        ReplayResult result = queue.replay(1);
+
+        assertEquals("should not deliver request", 0, result.getDelivered());
+        assertEquals("should keep queued request", 1, result.getRemaining());
+        assertEquals("should keep queued request", 1, queue.size());
+        assertEquals("should keep queued request", 1, new OfflineQueue(log).size());
+    }
+
+    @Test
+    public void shouldDropRejectedAndKeepFailedRequests() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        }
+        client.create(new User("John")).execute();
+        client.create(new User("Jane")).execute();
+        client.create(new User("Mary")).execute();
+        for (int i = 0; i < 3; i++) {
+            mockWebServer.takeRequest();
+        }
+
+        mockWebServer.enqueue(new MockResponse().setResponseCode(422));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(503));
+        ReplayResult result = queue.replay(1);
+
+        assertEquals("should drop rejected request", 1, result.getDropped());
+        assertEquals("should keep failed requests", 2, result.getRemaining());
+        assertEquals("should stop on server error", 5, mockWebServer.getRequestCount());
+        assertEquals("should keep order", "{\"name\":\"Jane\"}", readBody(queue.pending().get(0)));
+    }
+
+    @Test
+    public void shouldDeduplicateByIdempotencyKey() throws Exception {
+        okhttp3.Request request = new okhttp3.Request.Builder()
+                .url(mockWebServer.url("/v1/users"))
+                .header(OfflineQueue.IDEMPOTENCY_KEY, "abc")
+                .post(okhttp3.RequestBody.create(null, "{}"))
+                .build();
+
+        QueuedRequest first = queue.enqueue(request);
+        QueuedRequest second = queue.enqueue(request);
+
+        assertEquals("should queue once", 1, queue.size());
+        assertEquals("should return queued request", first.getId(), second.getId());
+    }
+
+    @Test
+    public void shouldIgnoreTornRecord() throws Exception {
+        okhttp3.Request request = new okhttp3.Request.Builder()
+                .url(mockWebServer.url("/v1/users"))
+                .post(okhttp3.RequestBody.create(null, "{}"))
+                .build();
+        queue.enqueue(request);
+        queue.close();
+
+        FileWriter writer = new FileWriter(log, true);
+        writer.write("{\"op\":\"add\",\"id\":\"x\",\"met");
+        writer.close();
+
+        assertEquals("should ignore torn record", 1, new OfflineQueue(log).size());
+    }
+
+    @Test
+    public void shouldSkipMalformedRecords() throws Exception {
+        okhttp3.Request request = new okhttp3.Request.Builder()
+                .url(mockWebServer.url("/v1/users"))
+                .post(okhttp3.RequestBody.create(null, "{}"))
+                .build();
+        queue.enqueue(request);
+        queue.close();
+
+        FileWriter writer = new FileWriter(log, true);
+        writer.write("{\"op\":\"add\",\"id\":\"x\"}\n");
+        writer.write("{\"op\":\"add\",\"id\":\"y\",\"key\":\"y\","
+                + "\"method\":\"POST\",\"url\":\"not a url\",\"headers\":[]}\n");
+        writer.write("{\"op\":null,\"id\":\"z\"}\n");
+        writer.close();
+
+        assertEquals("should skip malformed records", 1, new OfflineQueue(log).size());
+    }
+
+    @Test
+    public void shouldReplayFilePartsByPath() throws Exception {
+        File file = folder.newFile("avatar.txt");
+        FileWriter writer = new FileWriter(file);
+        writer.write("avatar");
+        writer.close();
+
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        mockWebServer.enqueue(new MockResponse().setSocketPolicy(SocketPolicy.DISCONNECT_AT_START));
+        client.upload(part(file)).execute();
+        client.upload(part(folder.newFile("gone.txt"))).execute();
+        mockWebServer.takeRequest();
+        mockWebServer.takeRequest();
+        queue.close();
+        assertTrue("should remove file", new File(folder.getRoot(), "gone.txt").delete());
+
+        mockWebServer.enqueue(new MockResponse());
+        ReplayResult result = new OfflineQueue(log).replay(new OkHttpClient(), 1);
+
+        assertEquals("should deliver file part", 1, result.getDelivered());
+        assertEquals("should drop missing file part", 1, result.getDropped());
+        String body = mockWebServer.takeRequest().getBody().readUtf8();
+        assertTrue("should send file content", body.contains("avatar"));
+        assertTrue("should send file name", body.contains("filename=\"avatar.txt\""));
+    }
+
+    private static MultipartBody.Part part(File file) {
+        FileRequestBody body = new FileRequestBody(file, MediaType.parse("text/plain"));
+        return MultipartBody.Part.createFormData("avatar", file.getName(), body);
+    }
+
+    private static String readBody(QueuedRequest queued) throws Exception {
+        okio.Buffer buffer = new okio.Buffer();
+        queued.getRequest().body().writeTo(buffer);
+        return buffer.readUtf8();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        queue.close();
+        mockWebServer.shutdown();
+        mockWebServer = null;
+        client = null;
+    }
+
+    interface Api {
+        @Offline
+        @POST("users")
+        Call<User> create(@Body User user);
+
+        @POST("users")
+        Call<User> update(@Body User user);
+
+        @Offline
+        @Multipart
+        @POST("users/avatar")
+        Call<Void> upload(@Part MultipartBody.Part avatar);
+    }
+}
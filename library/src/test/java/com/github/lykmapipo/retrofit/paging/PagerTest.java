@@ -0,0 +1,197 @@
+package com.github.lykmapipo.retrofit.paging;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Query;
+import retrofit2.http.Url;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Pager Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PagerTest {
+    private MockWebServer mockWebServer;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+    }
+
+    @Test
+    public void shouldParseNextLink() {
+        String link = "<https://api.example.com/v1/users?page=1>; rel=\"prev\", "
+                + "<https://api.example.com/v1/users?page=3>; rel=\"next\"";
+        assertEquals("should parse next link",
+                "https://api.example.com/v1/users?page=3", PageResolvers.nextLink(link));
+        assertNull("should ignore missing next link",
+                PageResolvers.nextLink("<https://api.example.com/v1/users?page=1>; rel=\"prev\""));
+        assertNull("should ignore empty link", PageResolvers.nextLink(null));
+
+        link = "<https://api.example.com/v1/users?ids=1,2&page=1>; rel=\"prev\"; title=\"a, b\", "
+                + "<https://api.example.com/v1/users?ids=1,2&page=3>; rel=\"next last\"";
+        assertEquals("should keep commas within urls",
+                "https://api.example.com/v1/users?ids=1,2&page=3", PageResolvers.nextLink(link));
+    }
+
+    @Test
+    public void shouldFollowLinkHeaders() throws Exception {
+        mockWebServer.enqueue(page("John", "Jane").setHeader("Link", "<users?page=2>; rel=\"next\""));
+        mockWebServer.enqueue(page("Mary").setHeader("Link", "</v1/users?page=3>; rel=\"next\""));
+        mockWebServer.enqueue(page("Peter"));
+
+        Pager<List<User>, User> pager = Pager.create(client.list(),
+                PageResolvers.linkHeader(new PageResolvers.UrlFetcher<List<User>>() {
+                    @Override
+                    public Call<List<User>> fetch(String url) {
+                        return client.page(url);
+                    }
+                }));
+
+        List<String> names = new ArrayList<String>();
+        for (User user : pager) {
+            names.add(user.toString());
+        }
+        pager.close();
+
+        assertEquals("should iterate all pages", 4, names.size());
+        assertEquals("should keep page order", "Peter", names.get(3));
+        assertEquals("should request all pages", 3, mockWebServer.getRequestCount());
+        mockWebServer.takeRequest();
+        assertEquals("should follow relative link", "/v1/users?page=2", mockWebServer.takeRequest().getPath());
+        assertEquals("should follow absolute link", "/v1/users?page=3", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldPageByOffset() throws Exception {
+        mockWebServer.enqueue(page("John", "Jane"));
+        mockWebServer.enqueue(page("Mary", "Peter"));
+        mockWebServer.enqueue(page("Paul"));
+
+        Pager<List<User>, User> pager = Pager.builder(client.offset(0, 2),
+                PageResolvers.offset(new PageResolvers.OffsetFetcher<List<User>>() {
+                    @Override
+                    public Call<List<User>> fetch(int offset, int limit) {
+                        return client.offset(offset, limit);
+                    }
+                }, 2)).prefetch(1).build();
+
+        int count = 0;
+        for (User ignored : pager) {
+            count++;
+        }
+
+        assertEquals("should iterate all items", 5, count);
+        mockWebServer.takeRequest();
+        mockWebServer.takeRequest();
+        assertEquals("should request next offset",
+                "/v1/users?offset=4&limit=2", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldPrefetchBoundedPages() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            mockWebServer.enqueue(page("User " + i).setHeader("Link", "<users?page=" + (i + 2) + ">; rel=\"next\""));
+        }
+
+        Pager<List<User>, User> pager = Pager.builder(client.list(),
+                PageResolvers.linkHeader(new PageResolvers.UrlFetcher<List<User>>() {
+                    @Override
+                    public Call<List<User>> fetch(String url) {
+                        return client.page(url);
+                    }
+                })).prefetch(2).build();
+
+        Iterator<User> users = pager.iterator();
+        assertTrue("should have first item", users.hasNext());
+        users.next();
+
+        // current page, prefetched pages and one page waiting to be buffered
+        for (int i = 0; i < 4; i++) {
+            assertNotNull("should prefetch pages", mockWebServer.takeRequest(5, TimeUnit.SECONDS));
+        }
+        assertNull("should bound prefetch", mockWebServer.takeRequest(100, TimeUnit.MILLISECONDS));
+
+        pager.close();
+        assertTrue("should be closed", pager.isClosed());
+        assertFalse("should stop iterating", users.hasNext());
+    }
+
+    @Test
+    public void shouldFailOnHttpError() throws Exception {
+        mockWebServer.enqueue(page("John").setHeader("Link", "<users?page=2>; rel=\"next\""));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        Pager<List<User>, User> pager = Pager.create(client.list(),
+                PageResolvers.linkHeader(new PageResolvers.UrlFetcher<List<User>>() {
+                    @Override
+                    public Call<List<User>> fetch(String url) {
+                        return client.page(url);
+                    }
+                }));
+
+        Iterator<User> users = pager.iterator();
+        users.next();
+        try {
+            users.hasNext();
+            fail("should fail on http error");
+        } catch (PagerException e) {
+            assertTrue("should keep cause", e.getCause() instanceof retrofit2.HttpException);
+        }
+    }
+
+    private MockResponse page(String... names) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < names.length; i++) {
+            json.append(i > 0 ? "," : "").append("{\"name\":\"").append(names[i]).append("\"}");
+        }
+        return new MockResponse().setResponseCode(200).setBody(json.append("]").toString());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    public interface Api {
+        @GET("users")
+        Call<List<User>> list();
+
+        @GET
+        Call<List<User>> page(@Url String url);
+
+        @GET("users")
+        Call<List<User>> offset(@Query("offset") int offset, @Query("limit") int limit);
+    }
+}
@@ -0,0 +1,237 @@
+package com.github.lykmapipo.retrofit.priority;
+
+import com.github.lykmapipo.retrofit.HttpService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * PriorityDispatcher Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class PriorityDispatcherTest {
+    private MockWebServer mockWebServer;
+    private final List<String> failures = Collections.synchronizedList(new ArrayList<String>());
+    private CountDownLatch done;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @Test
+    public void shouldDispatchByPriority() throws Exception {
+        PriorityDispatcher dispatcher = PriorityDispatcher.builder()
+                .maxRequests(1)
+                .agingInterval(0, TimeUnit.MILLISECONDS)
+                .build();
+        Api client = client(dispatcher);
+        enqueueResponses(5);
+
+        done = new CountDownLatch(5);
+        client.low("blocker").enqueue(callback());
+        client.low("a").enqueue(callback());
+        client.low("b").enqueue(callback());
+        client.normal("c").enqueue(callback());
+        client.high("d").enqueue(callback());
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+
+        assertEquals("should run first call", "/v1/blocker", mockWebServer.takeRequest().getPath());
+        assertEquals("should run high first", "/v1/d", mockWebServer.takeRequest().getPath());
+        assertEquals("should run normal next", "/v1/c", mockWebServer.takeRequest().getPath());
+        assertEquals("should keep fifo within priority", "/v1/a", mockWebServer.takeRequest().getPath());
+        assertEquals("should keep fifo within priority", "/v1/b", mockWebServer.takeRequest().getPath());
+
+        List<WaitStats> stats = dispatcher.waitStats();
+        assertEquals("should track priorities", 3, stats.size());
+        assertEquals("should count low calls", 3, stats.get(0).getDispatched());
+        assertEquals("should count high calls", 1, stats.get(2).getDispatched());
+    }
+
+    @Test
+    public void shouldPreferTagPriority() throws Exception {
+        Api client = client(PriorityDispatcher.builder().maxRequests(1).build());
+        enqueueResponses(3);
+
+        done = new CountDownLatch(3);
+        client.low("blocker").enqueue(callback());
+        client.high("a").enqueue(callback());
+        client.tagged("b", CallPriority.of(Priority.HIGH + 1)).enqueue(callback());
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+
+        mockWebServer.takeRequest();
+        assertEquals("should apply tag priority", "/v1/b", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldAgeWaitingCalls() throws Exception {
+        // a nanosecond interval ages the earlier call past the priority gap
+        // in the time it takes to enqueue the next one
+        Api client = client(PriorityDispatcher.builder()
+                .maxRequests(1)
+                .agingInterval(1, TimeUnit.NANOSECONDS)
+                .build());
+        enqueueResponses(3);
+
+        done = new CountDownLatch(3);
+        client.low("blocker").enqueue(callback());
+        client.low("a").enqueue(callback());
+        client.high("b").enqueue(callback());
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+
+        mockWebServer.takeRequest();
+        assertEquals("should not starve aged call", "/v1/a", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldPreemptLowerPriorityCalls() throws Exception {
+        PriorityDispatcher dispatcher = PriorityDispatcher.builder()
+                .maxRequests(1)
+                .preemption(2)
+                .build();
+        Api client = client(dispatcher);
+        enqueueResponses(3);
+
+        done = new CountDownLatch(4);
+        client.low("blocker").enqueue(callback());
+        client.low("a").enqueue(callback());
+        client.low("b").enqueue(callback());
+        client.high("c").enqueue(callback());
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+
+        assertEquals("should preempt latest low call",
+                Collections.singletonList("b:CallPreemptedException"), failures);
+        assertEquals("should not send preempted call", 3, mockWebServer.getRequestCount());
+        assertEquals("should count preempted call", 1, dispatcher.waitStats().get(0).getPreempted());
+    }
+
+    @Test
+    public void shouldCancelQueuedCalls() throws Exception {
+        PriorityDispatcher dispatcher = PriorityDispatcher.builder().maxRequests(1).build();
+        Api client = client(dispatcher);
+        enqueueResponses(1);
+
+        done = new CountDownLatch(2);
+        client.low("blocker").enqueue(callback());
+        Call<ResponseBody> queued = client.low("a");
+        queued.enqueue(callback());
+        assertEquals("should queue call", 1, dispatcher.queuedCallsCount());
+        queued.cancel();
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+
+        assertTrue("should be canceled", queued.isCanceled());
+        assertEquals("should fail canceled call", Collections.singletonList("a:IOException"), failures);
+        assertEquals("should not send canceled call", 1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void shouldDropCallsCanceledBeforeQueued() throws Exception {
+        PriorityDispatcher dispatcher = PriorityDispatcher.builder().maxRequests(1).build();
+        Api client = client(dispatcher);
+        enqueueResponses(1);
+
+        done = new CountDownLatch(2);
+        client.low("blocker").enqueue(callback());
+        // cancel landing between the call's own check and the dispatcher
+        PriorityCall<ResponseBody> canceled = new PriorityCall<ResponseBody>(
+                HttpService.create(Api.class, mockWebServer.url("/v1/").toString()).low("a"),
+                Priority.LOW, dispatcher);
+        canceled.cancel();
+        dispatcher.enqueue(canceled, callback());
+
+        assertEquals("should not queue canceled call", 0, dispatcher.queuedCallsCount());
+        assertTrue("should complete calls", done.await(5, TimeUnit.SECONDS));
+        assertEquals("should fail canceled call", Collections.singletonList("a:IOException"), failures);
+        assertEquals("should not send canceled call", 1, mockWebServer.getRequestCount());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    private Api client(PriorityDispatcher dispatcher) {
+        return HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .priorityDispatcher(dispatcher)
+                .callbackExecutor(new Executor() {
+                    @Override
+                    public void execute(Runnable command) {
+                        command.run();
+                    }
+                })
+                .build();
+    }
+
+    private void enqueueResponses(int count) {
+        // hold the first response so the others queue up behind it
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(200, TimeUnit.MILLISECONDS));
+        for (int i = 1; i < count; i++) {
+            mockWebServer.enqueue(new MockResponse());
+        }
+    }
+
+    private Callback<ResponseBody> callback() {
+        return new Callback<ResponseBody>() {
+            @Override
+            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> response) {
+                response.body().close();
+                done.countDown();
+            }
+
+            @Override
+            public void onFailure(Call<ResponseBody> call, Throwable t) {
+                String path = call.request().url().encodedPath();
+                failures.add(path.substring(path.lastIndexOf('/') + 1) + ":" + t.getClass().getSimpleName());
+                done.countDown();
+            }
+        };
+    }
+
+    interface Api {
+        @Priority(Priority.LOW)
+        @GET("{name}")
+        Call<ResponseBody> low(@Path("name") String name);
+
+        @GET("{name}")
+        Call<ResponseBody> normal(@Path("name") String name);
+
+        @Priority(Priority.HIGH)
+        @GET("{name}")
+        Call<ResponseBody> high(@Path("name") String name);
+
+        @Priority(Priority.LOW)
+        @GET("{name}")
+        Call<ResponseBody> tagged(@Path("name") String name, @Tag CallPriority priority);
+    }
+}
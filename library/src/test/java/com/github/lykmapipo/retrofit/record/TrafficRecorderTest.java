@@ -0,0 +1,264 @@
+package com.github.lykmapipo.retrofit.record;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.logging.TrafficLogger;
+import com.github.lykmapipo.retrofit.multipart.SourceRequestBody;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.MultipartBody;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.Okio;
+import retrofit2.Call;
+import retrofit2.http.Body;
+import retrofit2.http.GET;
+import retrofit2.http.Multipart;
+import retrofit2.http.POST;
+import retrofit2.http.Part;
+import retrofit2.http.Streaming;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * TrafficRecorder Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class TrafficRecorderTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+    private File file;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        file = folder.newFile("traffic.rec");
+    }
+
+    @Test
+    public void shouldRecordExchanges() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("[]"));
+        mockWebServer.enqueue(new MockResponse()
+                .setResponseCode(201)
+                .setHeadersDelay(50, TimeUnit.MILLISECONDS)
+                .setBody("{\"id\":1}"));
+
+        TrafficRecorder recorder = new TrafficRecorder(file);
+        Api client = client(recorder);
+        assertEquals("should not consume body", "[]", client.list().execute().body().string());
+        client.create(RequestBody.create("{\"name\":\"John\"}", MediaType.get("application/json")))
+                .execute().body().close();
+        recorder.close();
+
+        List<RecordedExchange> exchanges = TrafficRecorder.read(file);
+        assertEquals("should record exchanges", 2, exchanges.size());
+
+        RecordedExchange list = exchanges.get(0);
+        assertEquals("should record method", "GET", list.getMethod());
+        assertEquals("should record url", mockWebServer.url("/v1/items").toString(), list.getUrl());
+        assertEquals("should record response body", "[]", new String(list.getResponseBody(), "UTF-8"));
+        assertEquals("should record content type",
+                "application/json", list.getResponseHeaders().get("Content-Type"));
+        assertNull("should record missing body", list.getRequestBody());
+
+        RecordedExchange create = exchanges.get(1);
+        assertEquals("should record status", 201, create.getCode());
+        assertEquals("should record request body",
+                "{\"name\":\"John\"}", new String(create.getRequestBody(), "UTF-8"));
+        assertTrue("should record request type",
+                create.getRequestContentType().startsWith("application/json"));
+        assertTrue("should record duration", create.getDuration(TimeUnit.MILLISECONDS) >= 50);
+        assertTrue("should record send offset",
+                create.getOffset(TimeUnit.NANOSECONDS) > list.getOffset(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void shouldCapRecordedBodies() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("0123456789"));
+
+        TrafficRecorder recorder = new TrafficRecorder(file, 4);
+        String body = client(recorder).list().execute().body().string();
+        recorder.close();
+
+        assertEquals("should not consume body", "0123456789", body);
+        assertArrayEquals("should cap body", "0123".getBytes("UTF-8"),
+                TrafficRecorder.read(file).get(0).getResponseBody());
+    }
+
+    @Test
+    public void shouldRedactSensitiveHeaders() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Set-Cookie", "session=s3cr3t")
+                .setHeader("X-Api-Key", "k3y"));
+
+        TrafficRecorder recorder = new TrafficRecorder(
+                file, TrafficRecorder.DEFAULT_MAX_BODY_SIZE, Collections.singleton("X-Api-Key"));
+        Api client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .authToken("i3Vixpfr51EVHWHP")
+                .recorder(recorder)
+                .build();
+        client.list().execute().body().close();
+        recorder.close();
+
+        assertEquals("should send token", "Bearer i3Vixpfr51EVHWHP",
+                mockWebServer.takeRequest().getHeader("Authorization"));
+        RecordedExchange exchange = TrafficRecorder.read(file).get(0);
+        assertEquals("should redact token", TrafficLogger.REDACTED,
+                exchange.getRequestHeaders().get("Authorization"));
+        assertEquals("should redact cookie", TrafficLogger.REDACTED,
+                exchange.getResponseHeaders().get("Set-Cookie"));
+        assertEquals("should redact configured header", TrafficLogger.REDACTED,
+                exchange.getResponseHeaders().get("X-Api-Key"));
+        String recording = Okio.buffer(Okio.source(file)).readUtf8();
+        assertFalse("should not leak token", recording.contains("i3Vixpfr51EVHWHP"));
+        assertFalse("should not leak cookie", recording.contains("s3cr3t"));
+    }
+
+    @Test
+    public void shouldNotPeekStreamingResponses() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("data: 1\n\n")
+                .throttleBody(1, 200, TimeUnit.MILLISECONDS));
+
+        TrafficRecorder recorder = new TrafficRecorder(file);
+        long start = System.nanoTime();
+        ResponseBody body = client(recorder).stream().execute().body();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("should not consume body", "data: 1\n\n", body.string());
+        recorder.close();
+
+        assertTrue("should not block on stream", elapsed < 1000);
+        RecordedExchange exchange = TrafficRecorder.read(file).get(0);
+        assertEquals("should record exchange", 200, exchange.getCode());
+        assertNull("should not record stream body", exchange.getResponseBody());
+    }
+
+    @Test
+    public void shouldNotDrainOneShotParts() throws Exception {
+        mockWebServer.enqueue(new MockResponse());
+
+        TrafficRecorder recorder = new TrafficRecorder(file);
+        RequestBody avatar = new SourceRequestBody(
+                new Buffer().writeUtf8("avatar"), MediaType.get("text/plain"), 6);
+        client(recorder).upload(MultipartBody.Part.createFormData("avatar", "avatar.txt", avatar))
+                .execute().body().close();
+        recorder.close();
+
+        assertTrue("should send part",
+                mockWebServer.takeRequest().getBody().readUtf8().contains("avatar"));
+        assertNull("should not record one shot body",
+                TrafficRecorder.read(file).get(0).getRequestBody());
+    }
+
+    @Test
+    public void shouldNotRecordLargeRequestBodies() throws Exception {
+        mockWebServer.enqueue(new MockResponse());
+
+        TrafficRecorder recorder = new TrafficRecorder(file, 4);
+        client(recorder).create(RequestBody.create("0123456789", MediaType.get("text/plain")))
+                .execute().body().close();
+        recorder.close();
+
+        assertEquals("should send body", "0123456789", mockWebServer.takeRequest().getBody().readUtf8());
+        assertNull("should not record large body", TrafficRecorder.read(file).get(0).getRequestBody());
+    }
+
+    @Test
+    public void shouldRoundTripCompactEncoding() throws Exception {
+        RecordedExchange exchange = new RecordedExchange(
+                300L, "PUT", "https://api.example.com/v1/items/1",
+                new Headers.Builder().addUnsafeNonAscii("X-Name", "J\u00f6hn").build(), null, new byte[]{0, 1, 2},
+                204, new Headers.Builder().build(), null, null, 1234567L);
+        Buffer buffer = new Buffer();
+        RecordingCodec.writeHeader(buffer);
+        RecordingCodec.write(buffer, exchange);
+        long size = buffer.size();
+
+        RecordingCodec.readHeader(buffer);
+        RecordedExchange read = RecordingCodec.read(buffer);
+
+        assertTrue("should encode compactly", size < 80);
+        assertEquals("should read offset", 300L, read.getOffset(TimeUnit.NANOSECONDS));
+        assertEquals("should read headers", "J\u00f6hn", read.getRequestHeaders().get("X-Name"));
+        assertArrayEquals("should read body", new byte[]{0, 1, 2}, read.getRequestBody());
+        assertNull("should read null body", read.getResponseBody());
+        assertEquals("should read duration", 1234567L, read.getDuration(TimeUnit.NANOSECONDS));
+        assertNull("should reach end", RecordingCodec.read(buffer));
+    }
+
+    @Test
+    public void shouldRejectInvalidRecording() throws Exception {
+        BufferedSink sink = Okio.buffer(Okio.sink(file));
+        sink.writeUtf8("not a recording");
+        sink.close();
+
+        try {
+            TrafficRecorder.read(file);
+            fail("should reject file");
+        } catch (IOException e) {
+            assertEquals("should explain", "not a traffic recording", e.getMessage());
+        }
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    private Api client(TrafficRecorder recorder) {
+        return HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .recorder(recorder)
+                .build();
+    }
+
+    interface Api {
+        @GET("items")
+        Call<ResponseBody> list();
+
+        @POST("items")
+        Call<ResponseBody> create(@Body RequestBody body);
+
+        @Streaming
+        @GET("items/changes")
+        Call<ResponseBody> stream();
+
+        @Multipart
+        @POST("items/avatar")
+        Call<ResponseBody> upload(@Part MultipartBody.Part avatar);
+    }
+}
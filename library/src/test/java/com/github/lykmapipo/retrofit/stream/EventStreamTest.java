@@ -0,0 +1,330 @@
+package com.github.lykmapipo.retrofit.stream;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.User;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * EventStream Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class EventStreamTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer mockWebServer;
+    private Api client;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .addCallAdapterFactory(StreamCallAdapterFactory.builder()
+                        .reconnectDelay(10, TimeUnit.MILLISECONDS)
+                        .maxReconnects(1)
+                        .idleTimeout(300, TimeUnit.MILLISECONDS)
+                        .build())
+                .build();
+    }
+
+    @Test
+    public void shouldDecodeServerSentEvents() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody(": comment\n"
+                        + "id: 1\nevent: user\ndata: {\"name\":\"John Doe\"}\n\n"
+                        + "id: 2\ndata: {\"name\":\n"
+                        + "data: \"Jane Doe\"}\n\n"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        TestListener<User> listener = new TestListener<User>();
+        StreamConnection connection = client.users().connect(listener);
+        listener.await();
+
+        assertNull("should not fail", listener.error);
+        assertEquals("should receive events", 2, listener.items.size());
+        assertEquals("should join data lines", "Jane Doe", listener.items.get(1).toString());
+        assertEquals("should track last event id", "2", connection.getLastEventId());
+
+        RecordedRequest first = mockWebServer.takeRequest();
+        assertEquals("should accept event streams", EventStream.ACCEPT, first.getHeader("Accept"));
+        RecordedRequest reconnect = mockWebServer.takeRequest();
+        assertEquals("should resume from last event", "2", reconnect.getHeader("Last-Event-ID"));
+        assertEquals("should reconnect once", 1, listener.reconnects);
+    }
+
+    @Test
+    public void shouldReceiveRawEvents() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream; charset=utf-8")
+                .setBody("event: ping\ndata: hello\nretry: 5\n\n"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        TestListener<ServerSentEvent> listener = new TestListener<ServerSentEvent>();
+        client.events().connect(listener);
+        listener.await();
+
+        ServerSentEvent event = listener.items.get(0);
+        assertEquals("should keep event type", "ping", event.getEvent());
+        assertEquals("should keep event data", "hello", event.getData());
+        assertEquals("should keep retry", Long.valueOf(5), event.getRetry());
+    }
+
+    @Test
+    public void shouldDecodeJsonLines() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("{\"name\":\"John Doe\"}\n\n{\"name\":\"Jane Doe\"}\n"));
+
+        TestListener<User> listener = new TestListener<User>();
+        client.users().connect(listener);
+        listener.await();
+
+        assertNull("should not fail", listener.error);
+        assertTrue("should close", listener.closed);
+        assertEquals("should receive lines", 2, listener.items.size());
+        assertEquals("should not reconnect json lines", 1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void shouldFailOnIdleTimeout() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("{\"name\":\"John Doe\"}\n{\"name\":\"Jane Doe\"}\n")
+                .throttleBody(20, 2, TimeUnit.SECONDS));
+
+        TestListener<User> listener = new TestListener<User>();
+        client.users().connect(listener);
+        listener.await();
+
+        assertNotNull("should fail on idle stream", listener.error);
+        assertEquals("should receive first line", 1, listener.items.size());
+    }
+
+    @Test
+    public void shouldWaitLongerThanClientReadTimeout() throws Exception {
+        Api client = client(1L, StreamCallAdapterFactory.builder()
+                .idleTimeout(3, TimeUnit.SECONDS)
+                .build());
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/x-ndjson")
+                .setBody("{\"name\":\"John Doe\"}\n{\"name\":\"Jane Doe\"}\n")
+                .throttleBody(20, 1500, TimeUnit.MILLISECONDS));
+
+        TestListener<User> listener = new TestListener<User>();
+        client.users().connect(listener);
+        listener.await();
+
+        assertNull("should not fail on idle gap", listener.error);
+        assertEquals("should receive lines", 2, listener.items.size());
+    }
+
+    @Test
+    public void shouldNotApplyDeadlineOrSpillToStreams() throws Exception {
+        Api client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .callTimeout(300, TimeUnit.MILLISECONDS)
+                .spillToDisk(folder.getRoot(), 0L)
+                .addCallAdapterFactory(StreamCallAdapterFactory.create())
+                .build();
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("{\"name\":\"John Doe\"}\n{\"name\":\"Jane Doe\"}\n")
+                .throttleBody(20, 500, TimeUnit.MILLISECONDS));
+
+        TestListener<User> listener = new TestListener<User>();
+        client.users().connect(listener);
+        listener.await();
+
+        assertNull("should not fail past call deadline", listener.error);
+        assertEquals("should receive lines", 2, listener.items.size());
+        assertEquals("should not spill stream", 0, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldResumeDroppedStreamFromLastEventId() throws Exception {
+        Api client = client(null, StreamCallAdapterFactory.builder()
+                .reconnectDelay(10, TimeUnit.MILLISECONDS)
+                .maxReconnects(3)
+                .build());
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("id: 7\ndata: {\"name\":\"John Doe\"}\n\n"));
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("id: 8\ndata: {\"name\":\"Jane Doe\"}\n\n")
+                .setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        TestListener<User> listener = new TestListener<User>();
+        StreamConnection connection = client.users().connect("5", listener);
+        listener.await();
+
+        assertNull("should not fail", listener.error);
+        assertTrue("should close", listener.closed);
+        assertEquals("should reconnect after drop", 2, listener.reconnects);
+        assertEquals("should not deliver partial event", 1, listener.items.size());
+        assertEquals("should resume from given event", "5",
+                mockWebServer.takeRequest().getHeader("Last-Event-ID"));
+        assertEquals("should resume from last event", "7",
+                mockWebServer.takeRequest().getHeader("Last-Event-ID"));
+        assertEquals("should resume from last event", "7",
+                mockWebServer.takeRequest().getHeader("Last-Event-ID"));
+        assertEquals("should track last event id", "7", connection.getLastEventId());
+    }
+
+    @Test
+    public void shouldReconnectAfterRetryDelay() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("retry: 400\ndata: {\"name\":\"John Doe\"}\n\n"));
+        mockWebServer.enqueue(new MockResponse().setResponseCode(204));
+
+        TestListener<User> listener = new TestListener<User>();
+        long start = System.nanoTime();
+        client.users().connect(listener);
+        listener.await();
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertNull("should not fail", listener.error);
+        assertEquals("should use retry delay", 400L, listener.delay);
+        assertTrue("should wait retry delay", elapsed >= 400);
+        assertEquals("should reconnect", 2, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void shouldFailWhenListenerThrows() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("data: {\"name\":\"John Doe\"}\n\ndata: {\"name\":\"Jane Doe\"}\n\n"));
+
+        final IllegalStateException thrown = new IllegalStateException("listener");
+        TestListener<User> listener = new TestListener<User>() {
+            @Override
+            public void onEvent(User item) {
+                super.onEvent(item);
+                throw thrown;
+            }
+        };
+        client.users().connect(listener);
+        listener.await();
+
+        assertEquals("should report listener exception", thrown, listener.error);
+        assertEquals("should stop delivering", 1, listener.items.size());
+        assertEquals("should not reconnect", 1, mockWebServer.getRequestCount());
+    }
+
+    @Test
+    public void shouldFailOnHttpError() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setResponseCode(500));
+
+        TestListener<User> listener = new TestListener<User>();
+        client.users().connect(listener);
+        listener.await();
+
+        assertTrue("should raise http exception", listener.error instanceof retrofit2.HttpException);
+    }
+
+    @Test
+    public void shouldCancelStream() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setHeader("Content-Type", "text/event-stream")
+                .setBody("data: {\"name\":\"John Doe\"}\n\n")
+                .throttleBody(1, 1, TimeUnit.SECONDS));
+
+        TestListener<User> listener = new TestListener<User>();
+        StreamConnection connection = client.users().connect(listener);
+        mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        connection.cancel();
+        listener.await();
+
+        assertTrue("should be canceled", connection.isCanceled());
+        assertTrue("should close", listener.closed);
+        assertNull("should not fail", listener.error);
+    }
+
+    private Api client(Long readTimeout, StreamCallAdapterFactory factory) {
+        return HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .readTimeout(readTimeout)
+                .addCallAdapterFactory(factory)
+                .build();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    static class TestListener<T> extends StreamListener<T> {
+        final List<T> items = new CopyOnWriteArrayList<T>();
+        final CountDownLatch done = new CountDownLatch(1);
+        volatile Throwable error;
+        volatile boolean closed;
+        volatile int reconnects;
+        volatile long delay;
+
+        @Override
+        public void onEvent(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onReconnect(int attempt, long delayMillis) {
+            reconnects++;
+            delay = delayMillis;
+        }
+
+        @Override
+        public void onFailure(Throwable error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        @Override
+        public void onClosed() {
+            closed = true;
+            done.countDown();
+        }
+
+        void await() throws InterruptedException {
+            assertTrue("should terminate", done.await(5, TimeUnit.SECONDS));
+        }
+    }
+
+    public interface Api {
+        @GET("users/changes")
+        EventStream<User> users();
+
+        @GET("events")
+        EventStream<ServerSentEvent> events();
+    }
+}
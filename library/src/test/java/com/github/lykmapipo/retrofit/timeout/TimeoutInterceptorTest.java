@@ -0,0 +1,170 @@
+package com.github.lykmapipo.retrofit.timeout;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.HttpService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.http.GET;
+import retrofit2.http.Tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * TimeoutInterceptor Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class TimeoutInterceptorTest {
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @Test
+    public void shouldApplyMethodTimeout() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        try {
+            client().fast().execute();
+            fail("should time out");
+        } catch (SocketTimeoutException e) {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("should apply method read timeout", elapsed < 900);
+        }
+    }
+
+    @Test
+    public void shouldCoverBodyInCallDeadline() throws Exception {
+        mockWebServer.enqueue(new MockResponse()
+                .setBody("slow body")
+                .setBodyDelay(1, TimeUnit.SECONDS));
+
+        long start = System.nanoTime();
+        try {
+            client().bounded().execute();
+            fail("should exceed deadline");
+        } catch (DeadlineExceededException e) {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue("should fail near deadline", elapsed < 900);
+        }
+    }
+
+    @Test
+    public void shouldApplyDeadlineTag() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+
+        try {
+            client().tagged(Deadline.after(150, TimeUnit.MILLISECONDS)).execute();
+            fail("should exceed deadline");
+        } catch (InterruptedIOException e) {
+            assertTrue("should be a deadline", e instanceof DeadlineExceededException);
+        }
+    }
+
+    @Test
+    public void shouldApplyServiceCallTimeout() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setHeadersDelay(1, TimeUnit.SECONDS));
+
+        Api client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .callTimeout(150, TimeUnit.MILLISECONDS)
+                .build();
+        try {
+            client.get().execute();
+            fail("should exceed deadline");
+        } catch (DeadlineExceededException e) {
+            assertNotNull("should keep cause", e.getCause());
+        }
+    }
+
+    @Test
+    public void shouldFailExpiredDeadlineWithoutRequest() throws Exception {
+        try {
+            client().tagged(Deadline.after(0, TimeUnit.MILLISECONDS)).execute();
+            fail("should exceed deadline");
+        } catch (DeadlineExceededException e) {
+            assertEquals("should not send request", 0, mockWebServer.getRequestCount());
+        }
+    }
+
+    @Test
+    public void shouldPropagateRemainingBudget() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("ok"));
+
+        final AtomicReference<Deadline> seen = new AtomicReference<Deadline>();
+        OkHttpClient client = new OkHttpClient.Builder()
+                .addInterceptor(new TimeoutInterceptor(1000L))
+                .addInterceptor(new Interceptor() {
+                    @NonNull
+                    @Override
+                    public okhttp3.Response intercept(@NonNull Chain chain) throws IOException {
+                        seen.set(Deadline.of(chain.request()));
+                        assertTrue("should cap read timeout", chain.readTimeoutMillis() <= 1000);
+                        return chain.proceed(chain.request());
+                    }
+                })
+                .build();
+        Request request = new Request.Builder().url(mockWebServer.url("/v1/")).build();
+        okhttp3.Response response = client.newCall(request).execute();
+
+        assertEquals("should read body", "ok", response.body().string());
+        assertNotNull("should set deadline tag", seen.get());
+        long remaining = seen.get().remaining(TimeUnit.MILLISECONDS);
+        assertTrue("should carry remaining budget", remaining > 0 && remaining <= 1000);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    private Api client() {
+        return HttpService.create(Api.class, mockWebServer.url("/v1/").toString());
+    }
+
+    interface Api {
+        @GET("items")
+        Call<ResponseBody> get();
+
+        @Timeout(read = 150)
+        @GET("items")
+        Call<ResponseBody> fast();
+
+        @Timeout(call = 300)
+        @GET("items")
+        Call<ResponseBody> bounded();
+
+        @GET("items")
+        Call<ResponseBody> tagged(@Tag Deadline deadline);
+    }
+}
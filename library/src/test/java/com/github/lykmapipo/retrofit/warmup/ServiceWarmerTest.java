@@ -0,0 +1,149 @@
+package com.github.lykmapipo.retrofit.warmup;
+
+import androidx.annotation.NonNull;
+
+import com.github.lykmapipo.retrofit.HttpService;
+import com.github.lykmapipo.retrofit.priority.PriorityDispatcher;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import okhttp3.ResponseBody;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import retrofit2.Call;
+import retrofit2.Response;
+import retrofit2.http.GET;
+import retrofit2.http.Path;
+import retrofit2.http.Query;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * ServiceWarmer Tests
+ *
+ * @author lally elias
+ */
+
+@RunWith(RobolectricTestRunner.class)
+@Config(manifest = Config.NONE)
+public class ServiceWarmerTest {
+    private MockWebServer mockWebServer;
+
+    @Before
+    public void setup() throws Exception {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+    }
+
+    @Test
+    public void shouldWarmUpInBackground() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        ServiceWarmer warmer = ServiceWarmer.builder()
+                .listener(new ServiceWarmer.Listener() {
+                    @Override
+                    public void onWarmUp(@NonNull WarmUpReport report) {
+                        thread.set(Thread.currentThread());
+                        done.countDown();
+                    }
+                })
+                .build();
+
+        client(warmer);
+
+        assertTrue("should report warm up", done.await(5, TimeUnit.SECONDS));
+        assertNotSame("should warm up in background", Thread.currentThread(), thread.get());
+        WarmUpReport report = warmer.reports().get(0);
+        assertEquals("should report service", Api.class, report.getService());
+        assertEquals("should parse all methods", 3, report.getMethods());
+        assertTrue("should parse valid methods", report.getFailures().isEmpty());
+        assertTrue("should time warm up", report.getDuration(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    @Test
+    public void shouldNotSendRequestsWhileWarmingUp() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("ok"));
+
+        ServiceWarmer warmer = ServiceWarmer.create();
+        Api client = client(warmer);
+        warmer.warmUp(Api.class, client).get(5, TimeUnit.SECONDS);
+        assertEquals("should not send requests", 0, mockWebServer.getRequestCount());
+
+        Response<ResponseBody> response = client.get(7).execute();
+        assertEquals("should call normally", "ok", response.body().string());
+        assertEquals("should build request", "/v1/items/7", mockWebServer.takeRequest().getPath());
+    }
+
+    @Test
+    public void shouldReportInvalidMethods() throws Exception {
+        ServiceWarmer warmer = ServiceWarmer.create();
+        HttpService.Builder<Invalid> builder =
+                HttpService.builder(Invalid.class, mockWebServer.url("/v1/").toString());
+        Invalid client = builder.warmUp(warmer).build();
+
+        WarmUpReport report = warmer.warmUp(Invalid.class, client).get(5, TimeUnit.SECONDS);
+
+        assertEquals("should parse all methods", 2, report.getMethods());
+        assertEquals("should report invalid method", 1, report.getFailures().size());
+        assertTrue("should report retrofit error",
+                report.getFailures().get("missing") instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void shouldWarmUpBeforeOtherAdapters() throws Exception {
+        mockWebServer.enqueue(new MockResponse().setBody("ok"));
+
+        ServiceWarmer warmer = ServiceWarmer.create();
+        PriorityDispatcher dispatcher = PriorityDispatcher.create();
+        Api client = HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .priorityDispatcher(dispatcher)
+                .warmUp(warmer)
+                .build();
+        WarmUpReport report = warmer.warmUp(Api.class, client).get(5, TimeUnit.SECONDS);
+
+        assertTrue("should parse valid methods", report.getFailures().isEmpty());
+        assertEquals("should not queue calls", 0, dispatcher.queuedCallsCount());
+        assertEquals("should call normally", "ok", client.list("q").execute().body().string());
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        mockWebServer.shutdown();
+        mockWebServer = null;
+    }
+
+    private Api client(ServiceWarmer warmer) {
+        return HttpService.builder(Api.class, mockWebServer.url("/v1/").toString())
+                .warmUp(warmer)
+                .build();
+    }
+
+    interface Api {
+        @GET("items/{id}")
+        Call<ResponseBody> get(@Path("id") int id);
+
+        @GET("items")
+        Call<ResponseBody> list(@Query("q") String q);
+
+        @GET("items")
+        Call<Void> head();
+    }
+
+    interface Invalid {
+        @GET("items")
+        Call<ResponseBody> list();
+
+        Call<ResponseBody> missing();
+    }
+}